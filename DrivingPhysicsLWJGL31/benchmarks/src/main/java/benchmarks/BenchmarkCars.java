@@ -0,0 +1,67 @@
+package benchmarks;
+
+import game.car.Car;
+import game.car.CarConfig;
+import game.environment.GroundType;
+import org.joml.Vector3f;
+
+/**
+ * @description
+ * The cars and ground types of the game, built without meshes or a render context,
+ * and a repeating input pattern that accelerates, brakes and steers.
+ */
+final class BenchmarkCars {
+
+    static final float INTERVAL = 1f / 75;
+    static final int INPUT_CYCLE = 900;
+
+    private BenchmarkCars()
+    {
+    }
+
+    static Car create(String powertrain, Vector3f position)
+    {
+        switch(powertrain)
+        {
+            case "offroad":
+                return CarConfig.OFFROAD.createCar(position);
+            case "sport":
+                return CarConfig.SPORT.createCar(position);
+            default:
+                throw new IllegalArgumentException("Unknown powertrain: " + powertrain);
+        }
+    }
+
+    static GroundType createGroundType(String name)
+    {
+        switch(name)
+        {
+            case "road":
+                return new GroundType("road", 0.013f, 0.5f, 0.8f, null);
+            case "sandHard":
+                return new GroundType("sandHard", 0.08f, 0.25f, 0.4f, null);
+            case "sandSoft":
+                return new GroundType("sandSoft", 0.2f, 0.5f, 0.6f, null);
+            case "ice":
+                return new GroundType("ice", 0.015f, 0.05f, 0.10f, null);
+            default:
+                throw new IllegalArgumentException("Unknown ground type: " + name);
+        }
+    }
+
+    static float getThrottle(int tick)
+    {
+        return tick % INPUT_CYCLE < 500 ? 1 : 0;
+    }
+
+    static float getBrake(int tick)
+    {
+        return tick % INPUT_CYCLE > 650 ? 1 : 0;
+    }
+
+    static float getSteering(int tick)
+    {
+        // rounded like keyboard steering, which moves in steps
+        return Math.round(Math.sin(tick * 0.01) * 10) / 10f;
+    }
+}
@@ -0,0 +1,30 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @description
+ * Runs the benchmarks with the GC profiler, so every result comes with its allocation rate per operation.
+ * On Java 17 and later the forks get jdk.incubator.vector, so CarFleet can use its vector kernel.
+ * Usage: java -jar target/benchmarks.jar [regex of the benchmarks to run]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception
+    {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(args.length > 0 ? args[0] : "benchmarks\\..*")
+                .addProfiler(GCProfiler.class);
+        // "1.8" before Java 9, the module exists since Java 16
+        String javaVersion = System.getProperty("java.specification.version");
+        if(!javaVersion.startsWith("1.") && Integer.parseInt(javaVersion) >= 16)
+        {
+            options.jvmArgsAppend("--add-modules=jdk.incubator.vector");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import game.car.CarFleet;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description
+ * One CarFleet.step over the whole fleet per invocation, batched with the vector kernel, batched with the scalar
+ * longitudinal pass and completely scalar. The vector kernel needs Java 17 and jdk.incubator.vector, which
+ * BenchmarkRunner adds to the forks, otherwise the "vector" runs measure the scalar pass.
+ * with every vehicle on the full force model or on the kinematic model of a distant vehicle.
+ * Half of the vehicles are offroad cars and half sport cars, all on the same ground type.
+ * Every vehicle runs the input pattern at its own phase, so all driving states are mixed in every step.
+ * Only INPUT_FRAMES ticks of inputs are precomputed to keep large fleets small in memory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarFleetBenchmark {
+
+    private static final int INPUT_FRAMES = 64;
+
+    @Param({"1024", "16384"})
+    public int vehicles;
+
+    @Param({"vector", "batched", "scalar"})
+    public String kernel;
+
+    @Param({"road", "ice"})
+    public String groundType;
+
+    @Param({"full", "kinematic"})
+    public String detail;
+
+    private CarFleet fleet;
+    private float[][] inputs;
+    private int tick;
+
+    @Setup
+    public void setup()
+    {
+        fleet = new CarFleet(vehicles);
+        fleet.setBatched(!kernel.equals("scalar"));
+        fleet.setVectorized(kernel.equals("vector"));
+        for(int i = 0; i < vehicles; i++)
+        {
+            String powertrain = i % 2 == 0 ? "offroad" : "sport";
+            int index = fleet.add(BenchmarkCars.create(powertrain, new Vector3f((i % 100) * 10f, 0, (i / 100) * 10f)));
+            fleet.setGroundType(index, BenchmarkCars.createGroundType(groundType));
+            fleet.setDetail(index, detail.equals("kinematic") ? CarFleet.DETAIL_KINEMATIC : CarFleet.DETAIL_FULL);
+        }
+
+        inputs = new float[INPUT_FRAMES][vehicles * CarFleet.INPUT_STRIDE];
+        for(int t = 0; t < INPUT_FRAMES; t++)
+        {
+            for(int i = 0; i < vehicles; i++)
+            {
+                int vehicleTick = t + i * 37;
+                int base = i * CarFleet.INPUT_STRIDE;
+                inputs[t][base + CarFleet.INPUT_THROTTLE] = BenchmarkCars.getThrottle(vehicleTick);
+                inputs[t][base + CarFleet.INPUT_BRAKE] = BenchmarkCars.getBrake(vehicleTick);
+                inputs[t][base + CarFleet.INPUT_STEERING] = BenchmarkCars.getSteering(vehicleTick);
+            }
+        }
+    }
+
+    @Benchmark
+    public CarFleet step()
+    {
+        int t = tick;
+        tick = t + 1 == INPUT_FRAMES ? 0 : t + 1;
+        fleet.step(inputs[t], BenchmarkCars.INTERVAL);
+        return fleet;
+    }
+}
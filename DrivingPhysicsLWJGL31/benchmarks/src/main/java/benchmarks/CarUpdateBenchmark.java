@@ -0,0 +1,59 @@
+package benchmarks;
+
+import game.car.Car;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description
+ * One Car.update per invocation for every combination of ground type and powertrain.
+ * The inputs repeat every INPUT_CYCLE ticks, so rolling, sliding, blocking and spinning are all covered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarUpdateBenchmark {
+
+    @Param({"road", "sandHard", "sandSoft", "ice"})
+    public String groundType;
+
+    @Param({"offroad", "sport"})
+    public String powertrain;
+
+    private Car car;
+    private float[] throttleInputs;
+    private float[] brakeInputs;
+    private float[] steeringInputs;
+    private int tick;
+
+    @Setup
+    public void setup()
+    {
+        car = BenchmarkCars.create(powertrain, new Vector3f());
+        car.setGroundType(BenchmarkCars.createGroundType(groundType));
+
+        throttleInputs = new float[BenchmarkCars.INPUT_CYCLE];
+        brakeInputs = new float[BenchmarkCars.INPUT_CYCLE];
+        steeringInputs = new float[BenchmarkCars.INPUT_CYCLE];
+        for(int i = 0; i < BenchmarkCars.INPUT_CYCLE; i++)
+        {
+            throttleInputs[i] = BenchmarkCars.getThrottle(i);
+            brakeInputs[i] = BenchmarkCars.getBrake(i);
+            steeringInputs[i] = BenchmarkCars.getSteering(i);
+        }
+    }
+
+    @Benchmark
+    public Vector3f update()
+    {
+        int i = tick;
+        tick = i + 1 == BenchmarkCars.INPUT_CYCLE ? 0 : i + 1;
+        car.update(throttleInputs[i], brakeInputs[i], steeringInputs[i], 0, BenchmarkCars.INTERVAL);
+        return car.getPosition();
+    }
+}
@@ -0,0 +1,37 @@
+package benchmarks;
+
+import engine.utils.Conversions;
+import org.joml.Quaternionf;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description
+ * Euler angle to quaternion conversion, allocating and writing into a destination.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionsBenchmark {
+
+    public float xRot = 2.5f;
+    public float yRot = 37f;
+    public float zRot = -1.5f;
+    private final Quaternionf dest = new Quaternionf();
+
+    @Benchmark
+    public Quaternionf convertEulerToQuaternion()
+    {
+        return Conversions.convertEulerToQuaternion(xRot, yRot, zRot);
+    }
+
+    @Benchmark
+    public Quaternionf convertEulerToQuaternionDest()
+    {
+        return Conversions.convertEulerToQuaternion(xRot, yRot, zRot, dest);
+    }
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import engine.mesh.MeshData;
+import engine.utils.OBJLoader;
+import engine.utils.Utils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description
+ * Loading Car_Offroad.obj up to the MeshData, the upload to the GPU is not included.
+ * loadMeshData reads the resource from the classpath, parseMeshData starts from lines already in memory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OBJLoaderBenchmark {
+
+    private static final String MODEL = "/models/Car_Offroad.obj";
+
+    private List<String> lines;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        lines = Utils.readAllLines(MODEL);
+    }
+
+    @Benchmark
+    public MeshData loadMeshData() throws Exception
+    {
+        return OBJLoader.loadMeshData(MODEL);
+    }
+
+    @Benchmark
+    public MeshData parseMeshData()
+    {
+        return OBJLoader.parseMeshData(lines);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import engine.physics.RigidBodyWorld;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description
+ * One RigidBodyWorld step with a field of cones that has settled and fallen asleep.
+ * resting: the car is parked away from the cones, nothing moves.
+ * carDrivingThrough: the car drives back and forth through the field and wakes up the cones it hits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RigidBodyWorldBenchmark {
+
+    private static final float INTERVAL = 1f / 75;
+    private static final float CONE_SPACING = 1.5f;
+    private static final float CAR_SPEED = 15f;
+
+    @Param({"256", "1024"})
+    public int props;
+
+    private RigidBodyWorld world;
+    private float fieldLength;
+    private float carX;
+    private float carDirection;
+
+    @Setup
+    public void setup()
+    {
+        world = new RigidBodyWorld(props, 1, 2f);
+        int columns = (int) Math.ceil(Math.sqrt(props));
+        for(int i = 0; i < props; i++)
+        {
+            world.addBox((i % columns) * CONE_SPACING, 0.35f, (i / columns) * CONE_SPACING, 0.15f, 0.35f, 0.15f, 3f);
+        }
+        fieldLength = columns * CONE_SPACING;
+
+        world.setKinematicBoxCount(1);
+        world.setKinematicBox(0, -10, -10, 0, 2f, 1f, 1.5f, 0, 0);
+        for(int i = 0; i < 75 * 10 && world.getAwakeCount() > 0; i++)
+        {
+            world.step(INTERVAL);
+        }
+        carX = -5;
+        carDirection = 1;
+    }
+
+    @Benchmark
+    public int resting()
+    {
+        world.setKinematicBox(0, -10, -10, 0, 2f, 1f, 1.5f, 0, 0);
+        world.step(INTERVAL);
+        return world.getAwakeCount();
+    }
+
+    @Benchmark
+    public int carDrivingThrough()
+    {
+        carX += carDirection * CAR_SPEED * INTERVAL;
+        if(carX > fieldLength + 5 || carX < -5)
+        {
+            carDirection = -carDirection;
+        }
+        world.setKinematicBox(0, carX, fieldLength / 2, 0, 2f, 1f, 1.5f, carDirection * CAR_SPEED, 0);
+        world.step(INTERVAL);
+        return world.getAwakeCount();
+    }
+}
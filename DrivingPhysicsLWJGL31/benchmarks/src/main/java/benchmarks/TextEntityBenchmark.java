@@ -0,0 +1,34 @@
+package benchmarks;
+
+import engine.gameEntities.TextEntity;
+import engine.mesh.MeshData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description
+ * The geometry TextEntity.setText builds for the HUD status line, the upload to the GPU is not included.
+ * The font layout matches Hud: a 512 x 1024 texture with 16 x 16 characters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextEntityBenchmark {
+
+    private static final int FONT_TEXTURE_WIDTH = 512;
+    private static final int FONT_TEXTURE_HEIGHT = 1024;
+    private static final int FONT_COLS = 16;
+    private static final int FONT_ROWS = 16;
+
+    public String text = "Speed: 123KM/H // Gear: 4 // RPM: 4521 // CameraMode: c // Switch Car: v";
+
+    @Benchmark
+    public MeshData buildMeshData()
+    {
+        return TextEntity.buildMeshData(text, FONT_TEXTURE_WIDTH, FONT_TEXTURE_HEIGHT, FONT_COLS, FONT_ROWS);
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import engine.core.Transformation;
+import engine.gameEntities.GameEntity;
+import org.joml.Matrix4f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description
+ * Model matrix of a rotated and scaled entity, as built for every drawn entity in Renderer.renderScene.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformationBenchmark {
+
+    private Transformation transformation;
+    private GameEntity gameEntity;
+
+    @Setup
+    public void setup()
+    {
+        transformation = new Transformation();
+        gameEntity = new GameEntity();
+        gameEntity.setPosition(12.5f, 0.4f, -3.2f);
+        gameEntity.setRotation(2.5f, 37f, -1.5f);
+        gameEntity.setScale(0.86f);
+    }
+
+    @Benchmark
+    public Matrix4f buildModelMatrix()
+    {
+        return transformation.buildModelMatrix(gameEntity);
+    }
+}
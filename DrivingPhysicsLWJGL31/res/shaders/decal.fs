@@ -0,0 +1,25 @@
+#version 330
+
+in float outAlpha;
+
+out vec4 fragColor;
+
+struct DirectionalLight
+{
+    vec3 colour;
+    vec3 direction;
+    float intensity;
+};
+
+uniform vec3 colour;
+uniform vec3 ambientLight;
+uniform DirectionalLight directionalLight;
+
+void main()
+{
+    // decals lie flat on the ground, the light direction is in world space and points to the light
+    float diffuseFactor = max(normalize(directionalLight.direction).y, 0.0);
+    vec3 light = ambientLight + directionalLight.colour * directionalLight.intensity * diffuseFactor;
+
+    fragColor = vec4(colour * light, outAlpha);
+}
@@ -0,0 +1,28 @@
+#version 330
+
+layout (location=0) in vec2 corner;
+layout (location=1) in vec4 instancePositionYaw;
+layout (location=2) in int instanceSequence;
+
+out float outAlpha;
+
+uniform mat4 projectionMatrix;
+uniform mat4 viewMatrix;
+uniform float halfSize;
+uniform int newestSequence;
+uniform int capacity;
+
+void main()
+{
+    // rotate the quad around the y axis and move it to the instance position
+    float yaw = instancePositionYaw.w;
+    vec2 local = corner * halfSize;
+    vec3 worldPos = vec3(local.x * cos(yaw) + local.y * sin(yaw), 0.0, -local.x * sin(yaw) + local.y * cos(yaw));
+    worldPos += instancePositionYaw.xyz;
+
+    gl_Position = projectionMatrix * viewMatrix * vec4(worldPos, 1.0);
+
+    // the newest decal is opaque, the oldest one in the ring is almost transparent
+    int age = newestSequence - instanceSequence;
+    outAlpha = 1.0 - float(age) / float(capacity);
+}
@@ -3,17 +3,20 @@
 layout (location=0) in vec3 position;
 layout (location=1) in vec2 texCoord;
 layout (location=2) in vec3 vertexNormal;
+// one model matrix per instance, a mat4 takes the locations 3 to 6
+layout (location=3) in mat4 modelMatrix;
 
 out vec2 outTexCoord;
 out vec3 mvVertexNormal;
 out vec3 mvVertexPos;
 out mat4 outModelViewMatrix;
 
-uniform mat4 modelViewMatrix;
+uniform mat4 viewMatrix;
 uniform mat4 projectionMatrix;
 
 void main()
 {
+    mat4 modelViewMatrix = viewMatrix * modelMatrix;
     vec4 mvPos = modelViewMatrix * vec4(position, 1.0);
     gl_Position = projectionMatrix * mvPos;
     outTexCoord = texCoord;
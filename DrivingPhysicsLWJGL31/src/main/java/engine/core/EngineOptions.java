@@ -14,10 +14,13 @@ public class EngineOptions {
 
     public static final int TARGET_FPS = 60;
     public static final int TARGET_UPS = 75;
+    // updates per frame after a stall, the rest of the missed time is dropped
+    public static final int MAX_CATCH_UP_UPDATES = 5;
 
     public static final boolean DEBUG = true;
     public static final boolean ANTIALIASING = true;
     public static final boolean V_SYNC = true;
+    public static final boolean SIMULATION_THREAD = true;
 
     public static boolean SHOW_TRIANGLES = false;
     public static boolean CULLFACE = true;
@@ -45,6 +48,7 @@ public class EngineOptions {
         System.out.println("RESOLUTION:         " + WINDOW_WIDTH + " x " + WINDOW_HEIGHT);
         System.out.println("TARGET FPS:         " + TARGET_FPS);
         System.out.println("TARGET UPS:         " + TARGET_UPS);
+        System.out.println("MAX CATCH UP:       " + MAX_CATCH_UP_UPDATES);
     }
 
     private static void printOptionStatus()
@@ -53,6 +57,7 @@ public class EngineOptions {
         System.out.println("DEBUG MODE:         " + convertBooleanToEnabledOrDisabled(DEBUG));
         System.out.println("ANTIALIASING:       " + convertBooleanToEnabledOrDisabled(ANTIALIASING));
         System.out.println("VSYNC:              " + convertBooleanToEnabledOrDisabled(V_SYNC));
+        System.out.println("SIMULATION THREAD:  " + convertBooleanToEnabledOrDisabled(SIMULATION_THREAD));
         System.out.println("WIREFRAME MODE:     " + convertBooleanToEnabledOrDisabled(SHOW_TRIANGLES));
         System.out.println("CULLFACE:           " + convertBooleanToEnabledOrDisabled(CULLFACE));
         System.out.println();
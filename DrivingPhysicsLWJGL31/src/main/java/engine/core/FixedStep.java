@@ -0,0 +1,136 @@
+package engine.core;
+
+/**
+ * @description
+ * Fixed time step bookkeeping of a game loop: collects the elapsed time and hands it out in updates of one interval.
+ * After a stall, e.g. a GC pause or a window drag, the loop would run every missed update in a row, which can take
+ * long enough to fall behind even more. So one frame gets at most maxUpdates updates, the rest of the missed time
+ * is dropped and counted. The game runs slower than real time for that moment instead of spiraling.
+ *
+ * Usage per frame: advance(), then update while nextUpdate() returns true.
+ * All times are nanoseconds of the Timer, the interval is added up without rounding errors.
+ */
+public class FixedStep {
+
+    private final long interval;
+    private final int maxUpdates;
+
+    private long accumulator;
+    private long time;
+    private int updates;
+    private long newestTickTime;
+
+    private int droppedUpdates;
+    private long droppedTime;
+
+    /**
+     * @param interval length of an update in seconds
+     * @param maxUpdates updates per frame at most
+     */
+    public FixedStep(float interval, int maxUpdates)
+    {
+        this.interval = Timer.toNanos(interval);
+        this.maxUpdates = maxUpdates;
+    }
+
+    /**
+     * @description
+     * Starts a frame.
+     *
+     * @param time current time, see Timer.getLastLoopTime
+     * @param elapsedTime time since the last frame, see Timer.getElapsedNanos
+     */
+    public void advance(long time, long elapsedTime)
+    {
+        this.time = time;
+        accumulator += elapsedTime;
+        updates = 0;
+    }
+
+    /**
+     * @description
+     * Takes one interval from the collected time.
+     *
+     * @return true if an update is due
+     */
+    public boolean nextUpdate()
+    {
+        if(accumulator < interval)
+        {
+            return false;
+        }
+
+        if(updates == maxUpdates)
+        {
+            // keep the fraction of a tick, so the interpolation does not jump
+            long dropped = accumulator - accumulator % interval;
+            accumulator -= dropped;
+            droppedTime += dropped;
+            droppedUpdates += dropped / interval;
+            return false;
+        }
+
+        updates++;
+        accumulator -= interval;
+        newestTickTime = time - accumulator;
+        return true;
+    }
+
+    /**
+     * @description
+     * Fraction of a tick that passed since the newest update, for interpolating between the last two updates.
+     *
+     * @param time current time
+     * @return value between 0 and 1
+     */
+    public float getAlpha(long time)
+    {
+        float alpha = (time - newestTickTime) / (float) interval;
+        return Math.max(0, Math.min(alpha, 1));
+    }
+
+    /**
+     * @return the time the state of the newest update belongs to
+     */
+    public long getNewestTickTime()
+    {
+        return newestTickTime;
+    }
+
+    /**
+     * @return the time the next update is due
+     */
+    public long getNextTickTime()
+    {
+        return time - accumulator + interval;
+    }
+
+    /**
+     * @return number of updates in the current frame, more than one means the loop caught up
+     */
+    public int getUpdates()
+    {
+        return updates;
+    }
+
+    public int getDroppedUpdates()
+    {
+        return droppedUpdates;
+    }
+
+    /**
+     * @return dropped time in nanoseconds
+     */
+    public long getDroppedTime()
+    {
+        return droppedTime;
+    }
+
+    /**
+     * @return length of an update in nanoseconds
+     */
+    public long getInterval()
+    {
+        return interval;
+    }
+}
@@ -0,0 +1,112 @@
+package engine.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @description
+ * Waits until a deadline in nanoseconds without the jitter of Thread.sleep(1). The thread parks for most of the
+ * time and spins through the rest, because parkNanos wakes up late by up to the timer granularity of the OS.
+ * How early it has to stop parking is calibrated on the fly: every park measures its own overshoot, the spin time
+ * jumps up to a larger overshoot at once and decays slowly towards smaller ones.
+ *
+ * The pacing error of every wait, the time between deadline and return, is kept for the frame statistics.
+ */
+public class FramePacer {
+
+    // where the calibration starts, large enough for the usual 1 ms timer resolution
+    private static final long INITIAL_SPIN_NANOS = 2_000_000L;
+    private static final long MIN_SPIN_NANOS = 50_000L;
+    private static final long MAX_SPIN_NANOS = 4_000_000L;
+    // the spin time moves 1/SPIN_DECAY of the way to a smaller overshoot per park
+    private static final int SPIN_DECAY = 16;
+
+    private long spinNanos = INITIAL_SPIN_NANOS;
+
+    private long lastError;
+    private long maxError;
+    private long totalError;
+    private long waits;
+
+    /**
+     * @description
+     * Returns right away if the deadline has already passed, that does not count as pacing error.
+     *
+     * @param deadline time in nanoseconds, see Timer.getTime
+     * @return pacing error of this wait in nanoseconds
+     */
+    public long waitUntil(long deadline)
+    {
+        long time = System.nanoTime();
+        if(time >= deadline)
+        {
+            lastError = 0;
+            return 0;
+        }
+
+        while(deadline - time > spinNanos)
+        {
+            long parkNanos = deadline - time - spinNanos;
+            LockSupport.parkNanos(parkNanos);
+            long parkedTime = System.nanoTime();
+            calibrate(parkedTime - time - parkNanos);
+            time = parkedTime;
+        }
+
+        while(time < deadline)
+        {
+            // lets another thread run on the same core, the simulation thread on single core machines
+            Thread.yield();
+            time = System.nanoTime();
+        }
+
+        lastError = time - deadline;
+        maxError = Math.max(maxError, lastError);
+        totalError += lastError;
+        waits++;
+        return lastError;
+    }
+
+    private void calibrate(long overshoot)
+    {
+        if(overshoot > spinNanos)
+        {
+            spinNanos = overshoot;
+        }
+        else
+        {
+            spinNanos -= (spinNanos - Math.max(overshoot, 0)) / SPIN_DECAY;
+        }
+        spinNanos = Math.max(MIN_SPIN_NANOS, Math.min(spinNanos, MAX_SPIN_NANOS));
+    }
+
+    /**
+     * @return pacing error of the last wait in nanoseconds
+     */
+    public long getLastError()
+    {
+        return lastError;
+    }
+
+    public long getMaxError()
+    {
+        return maxError;
+    }
+
+    public long getAverageError()
+    {
+        return waits > 0 ? totalError / waits : 0;
+    }
+
+    /**
+     * @return how long before a deadline the pacer stops parking and starts spinning, in nanoseconds
+     */
+    public long getSpinNanos()
+    {
+        return spinNanos;
+    }
+
+    public long getWaits()
+    {
+        return waits;
+    }
+}
@@ -0,0 +1,154 @@
+package engine.core;
+
+/**
+ * @description
+ * Records how long the phases of the game loop take into one TimingHistogram per phase.
+ * The engine measures input, every fixed update, scene and HUD rendering and the buffer swap, plus the time
+ * of whole frames and how many updates each loop iteration ran to catch up. The Renderer adds how many scene
+ * entities it drew and culled per frame. Scene and HUD only measure
+ * how long it takes to submit the draw calls, waiting for the GPU shows up in the swap.
+ *
+ * summarize() turns the values of the last SUMMARY_INTERVAL into percentiles and rates for an overlay.
+ * Every phase is recorded by one thread: updates and catch up by the thread that runs the updates,
+ * everything else and summarize() by the render thread.
+ */
+public class FrameProfiler {
+
+    public static final int FRAME = 0;
+    public static final int INPUT = 1;
+    public static final int UPDATE = 2;
+    public static final int SCENE = 3;
+    public static final int HUD = 4;
+    public static final int SWAP = 5;
+    public static final int CATCH_UP = 6;
+    public static final int DRAWN = 7;
+    public static final int CULLED = 8;
+    public static final int PHASES = 9;
+
+    // CATCH_UP, DRAWN and CULLED are counts, they are not shown as times
+    private static final String[] PHASE_NAMES = {"FRAME", "INPUT", "UPDATE", "SCENE", "HUD", "SWAP"};
+    public static final int SUMMARY_LINES = PHASE_NAMES.length + 3;
+    public static final long SUMMARY_INTERVAL = Timer.NANOS_PER_SECOND;
+
+    private static final TimingHistogram[] histograms = new TimingHistogram[PHASES];
+    private static final long[][] previousCounts = new long[PHASES][TimingHistogram.BUCKETS];
+    private static final long[] counts = new long[TimingHistogram.BUCKETS];
+    private static final long[] intervalCounts = new long[TimingHistogram.BUCKETS];
+
+    private static final long[] totalCounts = new long[PHASES];
+    private static final long[] p50 = new long[PHASES];
+    private static final long[] p99 = new long[PHASES];
+    private static final long[] max = new long[PHASES];
+    private static long lastSummaryTime = System.nanoTime();
+    private static String[] summaryLines = new String[0];
+
+    static
+    {
+        for(int i = 0; i < PHASES; i++)
+        {
+            histograms[i] = new TimingHistogram();
+        }
+    }
+
+    private FrameProfiler() {}
+
+    /**
+     * @return start time of a phase for end()
+     */
+    public static long begin()
+    {
+        return System.nanoTime();
+    }
+
+    public static void end(int phase, long beginTime)
+    {
+        histograms[phase].record(System.nanoTime() - beginTime);
+    }
+
+    public static void record(int phase, long value)
+    {
+        histograms[phase].record(value);
+    }
+
+    /**
+     * @description
+     * Summarizes the values since the last summary, at most once per SUMMARY_INTERVAL. Only call it from
+     * the render thread.
+     *
+     * @return true if there is a new summary
+     */
+    public static boolean summarize()
+    {
+        long time = System.nanoTime();
+        long elapsedTime = time - lastSummaryTime;
+        if(elapsedTime < SUMMARY_INTERVAL)
+        {
+            return false;
+        }
+        lastSummaryTime = time;
+
+        for(int phase = 0; phase < PHASES; phase++)
+        {
+            histograms[phase].copyCounts(counts);
+            long totalCount = 0;
+            for(int i = 0; i < TimingHistogram.BUCKETS; i++)
+            {
+                intervalCounts[i] = counts[i] - previousCounts[phase][i];
+                totalCount += intervalCounts[i];
+            }
+            System.arraycopy(counts, 0, previousCounts[phase], 0, TimingHistogram.BUCKETS);
+
+            totalCounts[phase] = totalCount;
+            p50[phase] = TimingHistogram.getValueAtPercentile(intervalCounts, totalCount, 50);
+            p99[phase] = TimingHistogram.getValueAtPercentile(intervalCounts, totalCount, 99);
+            max[phase] = TimingHistogram.getMaxValue(intervalCounts);
+        }
+
+        float seconds = Timer.toSeconds(elapsedTime);
+        String[] lines = new String[SUMMARY_LINES];
+        lines[0] = String.format("FPS %4d  UPS %4d  CATCH UP %d",
+                Math.round(totalCounts[FRAME] / seconds), Math.round(totalCounts[UPDATE] / seconds), max[CATCH_UP]);
+        lines[1] = String.format("DRAWN %5d  CULLED %5d", p50[DRAWN], p50[CULLED]);
+        lines[2] = String.format("%-6s %6s %6s %6s", "", "p50", "p99", "max");
+        for(int phase = 0; phase < PHASE_NAMES.length; phase++)
+        {
+            lines[phase + 3] = String.format("%-6s %6.2f %6.2f %6.2f ms", PHASE_NAMES[phase],
+                    p50[phase] / 1e6, p99[phase] / 1e6, max[phase] / 1e6);
+        }
+        summaryLines = lines;
+        return true;
+    }
+
+    /**
+     * @description
+     * The newest summary as text: rates and the most updates of one loop iteration in the first line,
+     * the median drawn and culled entities in the second, then p50, p99 and max of every phase.
+     */
+    public static String[] getSummaryLines()
+    {
+        return summaryLines;
+    }
+
+    /**
+     * @return number of values of the phase in the newest summary
+     */
+    public static long getCount(int phase)
+    {
+        return totalCounts[phase];
+    }
+
+    public static long getP50(int phase)
+    {
+        return p50[phase];
+    }
+
+    public static long getP99(int phase)
+    {
+        return p99[phase];
+    }
+
+    public static long getMax(int phase)
+    {
+        return max[phase];
+    }
+}
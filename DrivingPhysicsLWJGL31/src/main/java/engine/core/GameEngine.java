@@ -1,6 +1,8 @@
 package engine.core;
 
 
+import engine.gameEntities.TransformSnapshots;
+import engine.input.InputState;
 import engine.interfaces.IGameLogic;
 import engine.input.MouseInput;
 
@@ -9,8 +11,10 @@ public class GameEngine implements Runnable{
     private final Window window;
     private final Thread gameLoopThread;
     private final Timer timer;
+    private final FramePacer framePacer;
     private final IGameLogic gameLogic;
     private final MouseInput mouseInput;
+    private TransformSnapshots transformSnapshots;
 
     public GameEngine(String windowTitle, int width, int height, IGameLogic gameLogic) throws Exception
     {
@@ -19,6 +23,7 @@ public class GameEngine implements Runnable{
         mouseInput = new MouseInput();
         this.gameLogic = gameLogic;
         timer = new Timer();
+        framePacer = new FramePacer();
     }
 
     public void start()
@@ -64,30 +69,38 @@ public class GameEngine implements Runnable{
         timer.init();
         mouseInput.init(window);
         gameLogic.init(window);
+        transformSnapshots = gameLogic.getTransformSnapshots();
     }
 
     protected void gameLoop()
     {
-        float elapsedTime;
-        float accumulator = 0f;
+        if(EngineOptions.SIMULATION_THREAD)
+        {
+            threadedGameLoop();
+            return;
+        }
+
         float interval = 1f / EngineOptions.TARGET_UPS;
+        FixedStep fixedStep = new FixedStep(interval, EngineOptions.MAX_CATCH_UP_UPDATES);
 
         boolean running = true;
 
         while(running && !window.windowShouldClose())
         {
-            elapsedTime = timer.getElapsedTime();
-            accumulator += elapsedTime;
+            long elapsedTime = timer.getElapsedNanos();
+            fixedStep.advance(timer.getLastLoopTime(), elapsedTime);
+            FrameProfiler.record(FrameProfiler.FRAME, elapsedTime);
 
             input();
 
-            while(accumulator >= interval)
+            while(fixedStep.nextUpdate())
             {
-                update(interval);
-                accumulator -= interval;
+                update(interval, fixedStep);
             }
+            FrameProfiler.record(FrameProfiler.CATCH_UP, fixedStep.getUpdates());
 
-            render();
+            long time = timer.getTime();
+            render(transformSnapshots != null ? transformSnapshots.apply(time, fixedStep.getInterval()) : fixedStep.getAlpha(time));
 
             if(!EngineOptions.V_SYNC)
             {
@@ -95,45 +108,118 @@ public class GameEngine implements Runnable{
             }
 
         }
-    }
 
-    protected void cleanup()
-    {
-        gameLogic.cleanup();
+        printLoopStatistics(fixedStep, null);
     }
 
-    private void sync()
+    /**
+     * @description
+     * Game loop with the updates on a SimulationLoop thread. This thread only handles input and rendering,
+     * the game logic hands everything but the transforms of its TransformSnapshots over to the renderer itself.
+     */
+    private void threadedGameLoop()
     {
-        float loopSlot = 1f / EngineOptions.TARGET_FPS;
-        double endTime = timer.getLastLoopTime() + loopSlot;
+        SimulationLoop simulationLoop = new SimulationLoop(gameLogic, window.getInputEvents(), transformSnapshots);
+        Thread simulationThread = new Thread(simulationLoop, "SIMULATION_THREAD");
+        simulationThread.start();
+
+        try
+        {
+            while(simulationLoop.isRunning() && !window.windowShouldClose())
+            {
+                // restarts the frame for sync(), the updates keep their own time
+                FrameProfiler.record(FrameProfiler.FRAME, timer.getElapsedNanos());
+
+                input();
+
+                long time = timer.getTime();
+                long interval = simulationLoop.getFixedStep().getInterval();
+                render(transformSnapshots != null ? transformSnapshots.apply(time, interval) : simulationLoop.getAlpha(time));
 
-        while(timer.getTime() < endTime)
+                if(!EngineOptions.V_SYNC)
+                {
+                    sync();
+                }
+            }
+        }
+        finally
         {
+            simulationLoop.stop();
             try
             {
-                Thread.sleep(1);
+                simulationThread.join();
             }
             catch(InterruptedException ie)
             {
                 ie.printStackTrace();
             }
         }
+
+        printLoopStatistics(simulationLoop.getFixedStep(), simulationLoop.getPacer());
+    }
+
+    private void printLoopStatistics(FixedStep fixedStep, FramePacer tickPacer)
+    {
+        if(!EngineOptions.DEBUG)
+        {
+            return;
+        }
+
+        if(fixedStep.getDroppedUpdates() > 0)
+        {
+            System.out.println("Dropped Updates: " + fixedStep.getDroppedUpdates() + " (" + Timer.toSeconds(fixedStep.getDroppedTime()) + "s)");
+        }
+        printPacing("Frame", framePacer);
+        if(tickPacer != null)
+        {
+            printPacing("Tick", tickPacer);
+        }
+    }
+
+    private void printPacing(String name, FramePacer pacer)
+    {
+        if(pacer.getWaits() > 0)
+        {
+            System.out.println(name + " Pacing Error: avg " + pacer.getAverageError() / 1000 + "us, max "
+                    + pacer.getMaxError() / 1000 + "us, spin " + pacer.getSpinNanos() / 1000 + "us");
+        }
+    }
+
+    protected void cleanup()
+    {
+        gameLogic.cleanup();
+    }
+
+    private void sync()
+    {
+        long frameTime = Timer.NANOS_PER_SECOND / EngineOptions.TARGET_FPS;
+        framePacer.waitUntil(timer.getLastLoopTime() + frameTime);
     }
 
     protected void input()
     {
+        long beginTime = FrameProfiler.begin();
         mouseInput.input(window);
-        gameLogic.input(window, mouseInput);
+        InputState input = window.getInputEvents().pollFrame();
+        gameLogic.input(window, mouseInput, input);
+        FrameProfiler.end(FrameProfiler.INPUT, beginTime);
     }
 
-    protected void update(float interval)
+    protected void update(float interval, FixedStep fixedStep)
     {
-        gameLogic.update(interval, mouseInput);
+        InputState input = window.getInputEvents().pollTick(fixedStep.getNextTickTime());
+        long beginTime = FrameProfiler.begin();
+        gameLogic.update(interval, input);
+        FrameProfiler.end(FrameProfiler.UPDATE, beginTime);
+        if(transformSnapshots != null)
+        {
+            transformSnapshots.capture(fixedStep.getNewestTickTime());
+        }
     }
 
-    protected void render()
+    protected void render(float alpha)
     {
-        gameLogic.render(window);
+        gameLogic.render(window, alpha);
         window.update();
     }
 }
@@ -2,6 +2,7 @@ package engine.core;
 
 import engine.camera.Camera;
 import engine.gameEntities.GameEntity;
+import engine.mesh.DecalRingBuffer;
 import engine.mesh.Mesh;
 import engine.interfaces.IHud;
 import engine.light.DirectionalLight;
@@ -13,6 +14,7 @@ import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -30,8 +32,14 @@ public class Renderer {
     private final Transformation transformation;
 
     private ShaderProgram sceneShaderProgram;
+    private ShaderProgram decalShaderProgram;
     private ShaderProgram hudShaderProgram;
 
+    // entities of one mesh that passed the frustum test, reused for every mesh
+    private final List<GameEntity> visibleEntities = new ArrayList<>();
+    private int drawnEntities;
+    private int culledEntities;
+
     public Renderer()
     {
         transformation = new Transformation();
@@ -41,6 +49,7 @@ public class Renderer {
     {
         setupOpenGL();
         setupSceneShader();
+        setupDecalShader();
         setupHudShader();
     }
 
@@ -76,9 +85,9 @@ public class Renderer {
         sceneShaderProgram.createFragmentShader(Utils.loadResource("/shaders/scene.fs"));
         sceneShaderProgram.link();
 
-        // Create uniforms for modelView and projection matrices
+        // Create uniforms for view and projection matrices, the model matrices are instance attributes
         sceneShaderProgram.createUniform("projectionMatrix");
-        sceneShaderProgram.createUniform("modelViewMatrix");
+        sceneShaderProgram.createUniform("viewMatrix");
         sceneShaderProgram.createUniform("texture_sampler");
 
         // Create uniform for material
@@ -91,6 +100,23 @@ public class Renderer {
 
     }
 
+    private void setupDecalShader() throws Exception
+    {
+        decalShaderProgram = new ShaderProgram();
+        decalShaderProgram.createVertexShader(Utils.loadResource("/shaders/decal.vs"));
+        decalShaderProgram.createFragmentShader(Utils.loadResource("/shaders/decal.fs"));
+        decalShaderProgram.link();
+
+        decalShaderProgram.createUniform("projectionMatrix");
+        decalShaderProgram.createUniform("viewMatrix");
+        decalShaderProgram.createUniform("halfSize");
+        decalShaderProgram.createUniform("newestSequence");
+        decalShaderProgram.createUniform("capacity");
+        decalShaderProgram.createUniform("colour");
+        decalShaderProgram.createUniform("ambientLight");
+        decalShaderProgram.createDirectionalLightUniform("directionalLight");
+    }
+
     private void setupHudShader() throws Exception
     {
         hudShaderProgram = new ShaderProgram();
@@ -113,9 +139,16 @@ public class Renderer {
         // Update projection and view matrices once per render cycle
         transformation.updateProjectionMatrix(FOV, window.getWidth(), window.getHeight(), Z_NEAR, Z_FAR);
         transformation.updateViewMatrix(camera);
+        transformation.updateFrustum();
 
+        long beginTime = FrameProfiler.begin();
         renderScene(scene);
+        renderDecals(scene);
+        FrameProfiler.end(FrameProfiler.SCENE, beginTime);
+
+        beginTime = FrameProfiler.begin();
         renderHud(window, hud);
+        FrameProfiler.end(FrameProfiler.HUD, beginTime);
     }
 
     public void clear()
@@ -130,31 +163,85 @@ public class Renderer {
         Matrix4f projectionMatrix = transformation.getProjectionMatrix();
         sceneShaderProgram.setUniform("projectionMatrix", projectionMatrix);
         Matrix4f viewMatrix = transformation.getViewMatrix();
+        sceneShaderProgram.setUniform("viewMatrix", viewMatrix);
 
         SceneLight sceneLight = scene.getSceneLight();
         renderLights(viewMatrix, sceneLight);
 
         sceneShaderProgram.setUniform("texture_sampler", 0);
 
-        // Render each mesh with the associated game Items
+        // Render all visible game Items of a mesh with one instanced draw call
+        int drawn = 0;
+        int culled = 0;
         Map<Mesh, List<GameEntity>> mapMeshes = scene.getGameMeshes();
         for (Mesh mesh : mapMeshes.keySet())
         {
+            visibleEntities.clear();
+            for(GameEntity gameEntity : mapMeshes.get(mesh))
+            {
+                if(transformation.isInsideFrustum(gameEntity))
+                {
+                    visibleEntities.add(gameEntity);
+                }
+            }
+            culled += mapMeshes.get(mesh).size() - visibleEntities.size();
+            if(visibleEntities.isEmpty())
+            {
+                continue;
+            }
+            drawn += visibleEntities.size();
+
             sceneShaderProgram.setUniform("material", mesh.getMaterial());
             glActiveTexture(GL_TEXTURE2);
 
-            mesh.renderList(mapMeshes.get(mesh), (GameEntity gameEntity) ->
-                {
-                    Matrix4f modelMatrix = transformation.buildModelMatrix(gameEntity);
-                    Matrix4f modelViewMatrix = transformation.buildModelViewMatrix(modelMatrix, viewMatrix);
-                    sceneShaderProgram.setUniform("modelViewMatrix", modelViewMatrix);
-                }
-            );
+            mesh.renderList(visibleEntities, transformation::buildModelMatrix);
         }
+        visibleEntities.clear();
+        drawnEntities = drawn;
+        culledEntities = culled;
+        FrameProfiler.record(FrameProfiler.DRAWN, drawn);
+        FrameProfiler.record(FrameProfiler.CULLED, culled);
 
         sceneShaderProgram.unbind();
     }
 
+    /**
+     * @description
+     * Draws every decal ring buffer with one instanced call. The decals are blended over the scene
+     * and do not write depth, so overlapping decals do not cut each other.
+     */
+    public void renderDecals(Scene scene)
+    {
+        List<DecalRingBuffer> decals = scene.getDecals();
+        if(decals.isEmpty())
+        {
+            return;
+        }
+
+        decalShaderProgram.bind();
+        decalShaderProgram.setUniform("projectionMatrix", transformation.getProjectionMatrix());
+        decalShaderProgram.setUniform("viewMatrix", transformation.getViewMatrix());
+
+        // decals are lit in world space, they all face up
+        SceneLight sceneLight = scene.getSceneLight();
+        decalShaderProgram.setUniform("ambientLight", sceneLight.getAmbientLight());
+        decalShaderProgram.setUniform("directionalLight", sceneLight.getDirectionalLight());
+
+        glDepthMask(false);
+        for(DecalRingBuffer decalRingBuffer : decals)
+        {
+            decalRingBuffer.upload();
+            decalShaderProgram.setUniform("halfSize", decalRingBuffer.getHalfSize());
+            decalShaderProgram.setUniform("newestSequence", decalRingBuffer.getNewestSequence());
+            decalShaderProgram.setUniform("capacity", decalRingBuffer.getCapacity());
+            decalShaderProgram.setUniform("colour", decalRingBuffer.getColour());
+            decalRingBuffer.render();
+        }
+        glDepthMask(true);
+
+        decalShaderProgram.unbind();
+    }
+
     private void renderLights(Matrix4f viewMatrix, SceneLight sceneLight)
     {
         sceneShaderProgram.setUniform("ambientLight", sceneLight.getAmbientLight());
@@ -190,6 +277,22 @@ public class Renderer {
         }
     }
 
+    /**
+     * @return number of scene entities drawn in the last frame
+     */
+    public int getDrawnEntities()
+    {
+        return drawnEntities;
+    }
+
+    /**
+     * @return number of scene entities outside the view frustum in the last frame
+     */
+    public int getCulledEntities()
+    {
+        return culledEntities;
+    }
+
     public void cleanup()
     {
         if (sceneShaderProgram != null)
@@ -197,6 +300,11 @@ public class Renderer {
             sceneShaderProgram.cleanup();
         }
 
+        if (decalShaderProgram != null)
+        {
+            decalShaderProgram.cleanup();
+        }
+
         if (hudShaderProgram != null)
         {
             hudShaderProgram.cleanup();
@@ -0,0 +1,132 @@
+package engine.core;
+
+import engine.gameEntities.TransformSnapshots;
+import engine.input.InputEvents;
+import engine.input.InputState;
+import engine.interfaces.IGameLogic;
+
+/**
+ * @description
+ * Runs the fixed step updates of the game logic at TARGET_UPS on its own thread, see EngineOptions.SIMULATION_THREAD.
+ * The render thread keeps input and rendering, a slow frame no longer delays the physics and the other way round.
+ * It catches up after stalls like the serial loop, at most MAX_CATCH_UP_UPDATES at once, see FixedStep.
+ * Between ticks the loop waits with a FramePacer until the next one is due. An exception in the update stops the loop,
+ * the GameEngine then shuts down as if the window was closed.
+ */
+public class SimulationLoop implements Runnable {
+
+    private final IGameLogic gameLogic;
+    private final InputEvents inputEvents;
+    private final TransformSnapshots transformSnapshots;
+    private final Timer timer;
+    private final float interval;
+    private final FixedStep fixedStep;
+    private final FramePacer pacer;
+    private volatile boolean running = true;
+    // copy of fixedStep.getNewestTickTime() for the render thread
+    private volatile long newestTickTime;
+
+    /**
+     * @param gameLogic
+     * @param inputEvents polled before every update
+     * @param transformSnapshots captured after every update, may be null
+     */
+    public SimulationLoop(IGameLogic gameLogic, InputEvents inputEvents, TransformSnapshots transformSnapshots)
+    {
+        this.gameLogic = gameLogic;
+        this.inputEvents = inputEvents;
+        this.transformSnapshots = transformSnapshots;
+        timer = new Timer();
+        interval = 1f / EngineOptions.TARGET_UPS;
+        fixedStep = new FixedStep(interval, EngineOptions.MAX_CATCH_UP_UPDATES);
+        pacer = new FramePacer();
+    }
+
+    @Override
+    public void run()
+    {
+        timer.init();
+
+        try
+        {
+            while(running)
+            {
+                long elapsedTime = timer.getElapsedNanos();
+                fixedStep.advance(timer.getLastLoopTime(), elapsedTime);
+
+                while(running && fixedStep.nextUpdate())
+                {
+                    InputState input = inputEvents.pollTick(fixedStep.getNextTickTime());
+                    long beginTime = FrameProfiler.begin();
+                    gameLogic.update(interval, input);
+                    FrameProfiler.end(FrameProfiler.UPDATE, beginTime);
+                    if(transformSnapshots != null)
+                    {
+                        transformSnapshots.capture(fixedStep.getNewestTickTime());
+                    }
+                    newestTickTime = fixedStep.getNewestTickTime();
+                }
+                if(fixedStep.getUpdates() > 0)
+                {
+                    FrameProfiler.record(FrameProfiler.CATCH_UP, fixedStep.getUpdates());
+                }
+
+                if(running)
+                {
+                    pacer.waitUntil(fixedStep.getNextTickTime());
+                }
+            }
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+        }
+        finally
+        {
+            running = false;
+        }
+    }
+
+    /**
+     * @description
+     * Lets the loop finish the current tick and return, join the thread to wait for it.
+     */
+    public void stop()
+    {
+        running = false;
+    }
+
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * @description
+     * Interpolation alpha for game logic without TransformSnapshots, see FixedStep.getAlpha.
+     * Only use it for values that are not published with the tick, it may already belong to the next one.
+     */
+    public float getAlpha(long time)
+    {
+        float alpha = (time - newestTickTime) / (float) fixedStep.getInterval();
+        return Math.max(0, Math.min(alpha, 1));
+    }
+
+    /**
+     * @description
+     * Update counters of the loop, only read them after the thread finished.
+     */
+    public FixedStep getFixedStep()
+    {
+        return fixedStep;
+    }
+
+    /**
+     * @description
+     * Pacing of the ticks, only read it after the thread finished.
+     */
+    public FramePacer getPacer()
+    {
+        return pacer;
+    }
+}
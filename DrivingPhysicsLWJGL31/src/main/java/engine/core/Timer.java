@@ -1,30 +1,61 @@
 package engine.core;
 
+/**
+ * @description
+ * Keeps time in nanoseconds of System.nanoTime(), elapsed times are handed out in seconds for the game logic.
+ * A double in seconds loses precision the longer the machine runs, a long in nanoseconds does not.
+ */
 public class Timer {
 
-    private double lastLoopTime;
+    public static final long NANOS_PER_SECOND = 1000_000_000L;
+
+    private long lastLoopTime;
 
     public void init()
     {
         lastLoopTime = getTime();
     }
 
-    public double getTime()
+    /**
+     * @return current time in nanoseconds
+     */
+    public long getTime()
     {
-        return System.nanoTime() / 1000_000_000.0;
+        return System.nanoTime();
     }
 
-    public float getElapsedTime()
+    /**
+     * @return time since the last call in nanoseconds
+     */
+    public long getElapsedNanos()
     {
-        double time = getTime();
-        float elapsedTime = (float) (time - lastLoopTime);
+        long time = getTime();
+        long elapsedNanos = time - lastLoopTime;
         lastLoopTime = time;
 
-        return elapsedTime;
+        return elapsedNanos;
+    }
+
+    /**
+     * @return time since the last call in seconds
+     */
+    public float getElapsedTime()
+    {
+        return toSeconds(getElapsedNanos());
     }
 
-    public double getLastLoopTime()
+    public long getLastLoopTime()
     {
         return lastLoopTime;
     }
+
+    public static long toNanos(float seconds)
+    {
+        return Math.round(seconds * (double) NANOS_PER_SECOND);
+    }
+
+    public static float toSeconds(long nanos)
+    {
+        return (float) (nanos / (double) NANOS_PER_SECOND);
+    }
 }
@@ -0,0 +1,110 @@
+package engine.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @description
+ * Histogram of durations in nanoseconds with a fixed number of buckets, laid out like an HDR histogram:
+ * every power of two is split into SUB_BUCKETS linear buckets, so a value is kept with about 3% precision
+ * from nanoseconds up to minutes. Recording is one array store, nothing is allocated.
+ *
+ * Only one thread may record into a histogram, any thread may read the counts. There is no reset,
+ * readers take the difference of two copies of the counts for an interval, see FrameProfiler.
+ */
+public class TimingHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // longer values, about 18 minutes, land in the last bucket
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param value duration in nanoseconds, or any other non negative count
+     */
+    public void record(long value)
+    {
+        int bucket = bucket(value);
+        // single writer, so a plain increment with an ordered store is enough
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+    }
+
+    /**
+     * @param into array of BUCKETS counts
+     */
+    public void copyCounts(long[] into)
+    {
+        for(int i = 0; i < BUCKETS; i++)
+        {
+            into[i] = counts.get(i);
+        }
+    }
+
+    static int bucket(long value)
+    {
+        value = Math.max(0, Math.min(value, MAX_VALUE));
+        if(value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @return the largest value that is counted in the bucket
+     */
+    static long highestValue(int bucket)
+    {
+        if(bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+
+        int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+        long lowestValue = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+
+    /**
+     * @param counts counts of all buckets, e.g. the difference of two copies
+     * @param totalCount sum of the counts
+     * @param percentile between 0 and 100
+     * @return the value that percentile percent of the recorded values are less than or equal to, 0 if empty
+     */
+    public static long getValueAtPercentile(long[] counts, long totalCount, double percentile)
+    {
+        long rank = Math.max(1, (long) Math.ceil(totalCount * percentile / 100.0));
+        long count = 0;
+        for(int i = 0; i < BUCKETS; i++)
+        {
+            count += counts[i];
+            if(count >= rank)
+            {
+                return highestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the largest recorded value, 0 if empty
+     */
+    public static long getMaxValue(long[] counts)
+    {
+        for(int i = BUCKETS - 1; i >= 0; i--)
+        {
+            if(counts[i] > 0)
+            {
+                return highestValue(i);
+            }
+        }
+        return 0;
+    }
+}
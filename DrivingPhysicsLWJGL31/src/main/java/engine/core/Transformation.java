@@ -2,6 +2,8 @@ package engine.core;
 
 import engine.camera.Camera;
 import engine.gameEntities.GameEntity;
+import engine.mesh.MeshBounds;
+import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
@@ -10,20 +12,24 @@ public class Transformation {
 
     private final Matrix4f projectionMatrix;
     private final Matrix4f modelMatrix;
-    private final Matrix4f modelViewMatrix;
     private final Matrix4f viewMatrix;
     private final Matrix4f ortho2DMatrix;
     private final Matrix4f orthoModelMatrix;
+    private final Matrix4f projectionViewMatrix;
+    private final FrustumIntersection frustum;
+    private final Vector3f boundsCenter;
 
 
     public Transformation()
     {
         projectionMatrix = new Matrix4f();
         modelMatrix = new Matrix4f();
-        modelViewMatrix = new Matrix4f();
         viewMatrix = new Matrix4f();
         ortho2DMatrix = new Matrix4f();
         orthoModelMatrix = new Matrix4f();
+        projectionViewMatrix = new Matrix4f();
+        frustum = new FrustumIntersection();
+        boundsCenter = new Vector3f();
     }
 
     public Matrix4f getProjectionMatrix()
@@ -56,6 +62,35 @@ public class Transformation {
                 .translate(-position.x, -position.y, -position.z);
     }
 
+    /**
+     * @description
+     * Extracts the planes of the view frustum from the current projection and view matrix,
+     * call it after both were updated.
+     */
+    public void updateFrustum()
+    {
+        projectionMatrix.mul(viewMatrix, projectionViewMatrix);
+        frustum.set(projectionViewMatrix);
+    }
+
+    /**
+     * @description
+     * Tests the bounding sphere of the mesh at the render transform of the entity against the view frustum.
+     * The sphere grows with the largest scale axis, so the test never culls a visible entity.
+     *
+     * @return false if the entity is completely outside
+     */
+    public boolean isInsideFrustum(GameEntity gameEntity)
+    {
+        MeshBounds bounds = gameEntity.getMesh().getBounds();
+        Vector3f scale = gameEntity.getScale();
+        float maxScale = Math.max(Math.abs(scale.x), Math.max(Math.abs(scale.y), Math.abs(scale.z)));
+
+        boundsCenter.set(bounds.getCenterX() * scale.x, bounds.getCenterY() * scale.y, bounds.getCenterZ() * scale.z);
+        gameEntity.getRenderRotation().transform(boundsCenter).add(gameEntity.getRenderPosition());
+        return frustum.testSphere(boundsCenter, bounds.getRadius() * maxScale);
+    }
+
     public final Matrix4f getOrtho2DProjectionMatrix(float left, float right, float bottom, float top)
     {
         ortho2DMatrix.identity();
@@ -72,19 +107,15 @@ public class Transformation {
                 rotateY((float)Math.toRadians(-rotation.y)).
                 rotateZ((float)Math.toRadians(-rotation.z)).
                 scale(gameEntity.getScale());*/
-        Quaternionf rotation = gameEntity.getRotation();
+        Vector3f position = gameEntity.getRenderPosition();
+        Quaternionf rotation = gameEntity.getRenderRotation();
         Vector3f scale = gameEntity.getScale();
         return modelMatrix.translationRotateScale(
-                gameEntity.getPosition().x, gameEntity.getPosition().y, gameEntity.getPosition().z,
+                position.x, position.y, position.z,
                 rotation.x, rotation.y, rotation.z, rotation.w,
                 scale.x, scale.y, scale.z);
     }
 
-    public Matrix4f buildModelViewMatrix(Matrix4f modelMatrix, Matrix4f viewMatrix)
-    {
-        return viewMatrix.mulAffine(modelMatrix, modelViewMatrix);
-    }
-
     public Matrix4f buildOrthoProjModelMatrix(GameEntity gameEntity, Matrix4f orthoMatrix)
     {
         /*Vector3f rotation = gameEntity.getRotation();
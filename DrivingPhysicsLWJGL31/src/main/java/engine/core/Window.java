@@ -2,6 +2,7 @@ package engine.core;
 
 import static org.lwjgl.glfw.GLFW.*;
 
+import engine.input.InputEvents;
 import engine.input.KeyboardInput;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.glfw.GLFWKeyCallback;
@@ -9,8 +10,6 @@ import org.lwjgl.glfw.GLFWVidMode;
 import org.lwjgl.glfw.GLFWWindowSizeCallback;
 import org.lwjgl.opengl.GL;
 
-import java.util.Arrays;
-
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.system.MemoryUtil.NULL;
 
@@ -24,6 +23,7 @@ public class Window {
     private GLFWErrorCallback errorCallback;
     private GLFWKeyCallback keyCallback;
     private GLFWWindowSizeCallback windowSizeCallback;
+    private final InputEvents inputEvents;
 
     private boolean resized;
 
@@ -33,6 +33,7 @@ public class Window {
         this.width = width;
         this.height = height;
         this.resized = false;
+        inputEvents = new InputEvents();
     }
 
     public void init()
@@ -79,7 +80,7 @@ public class Window {
         });
 
         // Setup a key callback. It will be called every time a key is pressed, repeated or released.
-        glfwSetKeyCallback(windowHandle, keyCallback = new KeyboardInput());
+        glfwSetKeyCallback(windowHandle, keyCallback = new KeyboardInput(inputEvents));
 
         // Get the resolution of the primary monitor
         GLFWVidMode vidmode = glfwGetVideoMode(glfwGetPrimaryMonitor());
@@ -102,7 +103,6 @@ public class Window {
         // Make the window visible
         glfwShowWindow(windowHandle);
 
-        Arrays.fill(KeyboardInput.keys, KeyboardInput.IDLE_STATE); // init all keys with idle state
         GL.createCapabilities();
     }
 
@@ -111,6 +111,15 @@ public class Window {
         return windowHandle;
     }
 
+    /**
+     * @description
+     * Key and mouse button events of this window, see InputEvents.
+     */
+    public InputEvents getInputEvents()
+    {
+        return inputEvents;
+    }
+
     public boolean isKeyPressed(int keyCode)
     {
         return glfwGetKey(windowHandle, keyCode) == GLFW_PRESS;
@@ -143,8 +152,9 @@ public class Window {
 
     public void update()
     {
+        long beginTime = FrameProfiler.begin();
         glfwSwapBuffers(windowHandle);
-        KeyboardInput.update();
+        FrameProfiler.end(FrameProfiler.SWAP, beginTime);
         glfwPollEvents();
     }
 
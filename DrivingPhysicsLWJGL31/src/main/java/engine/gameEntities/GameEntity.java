@@ -13,11 +13,17 @@ public class GameEntity {
     private final Quaternionf rotation;
     private Vector3f scale;
 
+    // transform the renderer draws, the live transform unless the entity is published through TransformSnapshots
+    private Vector3f renderPosition;
+    private Quaternionf renderRotation;
+
     public GameEntity()
     {
         position = new Vector3f(0, 0, 0);
         scale = new Vector3f(1, 1, 1);
         rotation = new Quaternionf();
+        renderPosition = position;
+        renderRotation = rotation;
     }
 
     public GameEntity(Mesh mesh)
@@ -52,12 +58,12 @@ public class GameEntity {
 
     public void setRotation(Vector3f rotation)
     {
-        this.rotation.set(Conversions.convertEulerToQuaternion(rotation.x, rotation.y, rotation.z));
+        Conversions.convertEulerToQuaternion(rotation.x, rotation.y, rotation.z, this.rotation);
     }
 
     public void setRotation(float xRot, float yRot, float zRot)
     {
-        this.rotation.set(Conversions.convertEulerToQuaternion(xRot, yRot, zRot));
+        Conversions.convertEulerToQuaternion(xRot, yRot, zRot, this.rotation);
     }
 
     public Vector3f getScale()
@@ -84,6 +90,30 @@ public class GameEntity {
         this.scale.z = scale;
     }
 
+    public Vector3f getRenderPosition()
+    {
+        return renderPosition;
+    }
+
+    public Quaternionf getRenderRotation()
+    {
+        return renderRotation;
+    }
+
+    /**
+     * @description
+     * Gives the entity its own render transform, a copy of the current one.
+     * From then on position and rotation belong to the simulation and only TransformSnapshots writes the render transform.
+     */
+    void separateRenderTransform()
+    {
+        if(renderPosition == position)
+        {
+            renderPosition = new Vector3f(position);
+            renderRotation = new Quaternionf(rotation);
+        }
+    }
+
     public Mesh getMesh()
     {
         return mesh;
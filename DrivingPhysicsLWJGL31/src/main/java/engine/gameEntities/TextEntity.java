@@ -1,6 +1,7 @@
 package engine.gameEntities;
 
 import engine.mesh.Mesh;
+import engine.mesh.MeshData;
 import engine.utils.Utils;
 import engine.shading.Material;
 import engine.texture.Texture;
@@ -29,6 +30,25 @@ public class TextEntity extends GameEntity {
     }
 
     private Mesh buildMesh(Texture texture, int numCols, int numRows)
+    {
+        Mesh mesh = new Mesh(buildMeshData(text, texture.getWidth(), texture.getHeight(), numCols, numRows));
+        mesh.setMaterial(new Material(texture));
+
+        return mesh;
+    }
+
+    /**
+     * @description
+     * Builds one textured quad per character of the text, without creating any OpenGL objects.
+     *
+     * @param text
+     * @param textureWidth width of the font texture in pixels
+     * @param textureHeight height of the font texture in pixels
+     * @param numCols characters per row of the font texture
+     * @param numRows character rows of the font texture
+     * @return meshData
+     */
+    public static MeshData buildMeshData(String text, int textureWidth, int textureHeight, int numCols, int numRows)
     {
         byte[] chars = text.getBytes(Charset.forName("ISO-8859-1"));
         int numChars = chars.length;
@@ -38,8 +58,8 @@ public class TextEntity extends GameEntity {
         float[] normals   = new float[0];
         List<Integer> indices   = new ArrayList();
 
-        float tileWidth = (float)texture.getWidth() / (float)numCols;
-        float tileHeight = (float)texture.getHeight() / (float)numRows;
+        float tileWidth = (float)textureWidth / (float)numCols;
+        float tileHeight = (float)textureHeight / (float)numRows;
 
         // normalize text tile size
         float ratio = tileWidth / tileHeight;
@@ -93,10 +113,8 @@ public class TextEntity extends GameEntity {
         float[] posArr = Utils.listToArray(positions);
         float[] textCoordsArr = Utils.listToArray(textCoords);
         int[] indicesArr = indices.stream().mapToInt(i->i).toArray();
-        Mesh mesh = new Mesh(posArr, textCoordsArr, normals, indicesArr);
-        mesh.setMaterial(new Material(texture));
 
-        return mesh;
+        return new MeshData(posArr, textCoordsArr, normals, indicesArr);
     }
 
     public String getText()
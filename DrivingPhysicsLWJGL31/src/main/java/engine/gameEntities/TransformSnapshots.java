@@ -0,0 +1,154 @@
+package engine.gameEntities;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description
+ * Interpolates the transforms of moving entities between the last two ticks and hands them from the simulation
+ * thread to the render thread without locks. The game logic changes position and rotation of the entities as usual,
+ * the GameEngine calls capture() after every update, which copies them into the next of SLOTS snapshots and
+ * publishes it, and apply() before every render, which interpolates the render transform of every entity between
+ * the two newest snapshots. So the renderer shows the simulation one tick late, but smooth at any frame rate.
+ * Both loops of the GameEngine use it, with or without a simulation thread.
+ *
+ * Snapshot n is written into slot n % SLOTS. A reader announces the newest snapshot it uses, and the writer
+ * waits before it would overwrite that one or the one before. Both sides write their own and read the other
+ * atomic, so at least one of them sees the other.
+ */
+public class TransformSnapshots {
+
+    private static final int SLOTS = 4;
+    // position xyz, rotation xyzw
+    private static final int STRIDE = 7;
+    private static final long NOT_READING = -1;
+
+    private final GameEntity[] entities;
+    private final float[][] transforms;
+    private final long[] tickTimes;
+
+    // sequence number of the newest complete snapshot, -1 before the first capture
+    private final AtomicLong published = new AtomicLong(-1);
+    // sequence number of the newest snapshot the reader copies from, it also uses the one before
+    private final AtomicLong reading = new AtomicLong(NOT_READING);
+
+    /**
+     * @description
+     * The entities get their own render transform, from now on only apply() changes what is drawn.
+     *
+     * @param entities entities that are moved by the simulation
+     */
+    public TransformSnapshots(List<GameEntity> entities)
+    {
+        this.entities = entities.toArray(new GameEntity[0]);
+        transforms = new float[SLOTS][this.entities.length * STRIDE];
+        tickTimes = new long[SLOTS];
+
+        for(GameEntity entity : this.entities)
+        {
+            entity.separateRenderTransform();
+        }
+    }
+
+    /**
+     * @description
+     * Publishes the current transforms of all entities. Only call it from the thread that runs the updates.
+     *
+     * @param tickTime the time in nanoseconds the state belongs to, see FixedStep.getNewestTickTime
+     */
+    public void capture(long tickTime)
+    {
+        long sequence = published.get() + 1;
+        int slot = (int) (sequence % SLOTS);
+        while(isReading(slot))
+        {
+            // the render thread still copies from this slot, this only happens if it was suspended for two ticks
+            Thread.yield();
+        }
+
+        float[] transform = transforms[slot];
+        for(int i = 0, offset = 0; i < entities.length; i++, offset += STRIDE)
+        {
+            GameEntity entity = entities[i];
+            transform[offset] = entity.getPosition().x;
+            transform[offset + 1] = entity.getPosition().y;
+            transform[offset + 2] = entity.getPosition().z;
+            transform[offset + 3] = entity.getRotation().x;
+            transform[offset + 4] = entity.getRotation().y;
+            transform[offset + 5] = entity.getRotation().z;
+            transform[offset + 6] = entity.getRotation().w;
+        }
+        tickTimes[slot] = tickTime;
+        published.set(sequence);
+    }
+
+    private boolean isReading(int slot)
+    {
+        long newest = reading.get();
+        return newest != NOT_READING && (slot == newest % SLOTS || slot == (newest + SLOTS - 1) % SLOTS);
+    }
+
+    /**
+     * @description
+     * Sets the render transform of all entities. Only call it from the render thread.
+     * The interpolation alpha is the time since the newest snapshot in ticks. It is taken from the same snapshot
+     * as the transforms, a snapshot published in the middle of a frame cannot make the entities jump back.
+     *
+     * @param time current time in nanoseconds
+     * @param interval length of a tick in nanoseconds
+     * @return the interpolation alpha between 0 and 1, 1 if there is no snapshot yet
+     */
+    public float apply(long time, long interval)
+    {
+        long newest = published.get();
+        if(newest < 0)
+        {
+            return 1;
+        }
+        reading.set(newest);
+
+        // the writer may have started on the slot of newest - 1 before it saw the announcement, then take newer ones
+        long latest;
+        while((latest = published.get()) - newest >= 2)
+        {
+            newest = latest;
+            reading.set(newest);
+        }
+
+        int newestSlot = (int) (newest % SLOTS);
+        int previousSlot = newest > 0 ? (int) ((newest - 1) % SLOTS) : newestSlot;
+        float alpha = (time - tickTimes[newestSlot]) / (float) interval;
+        alpha = Math.max(0, Math.min(alpha, 1));
+        interpolate(transforms[previousSlot], transforms[newestSlot], alpha);
+
+        reading.set(NOT_READING);
+        return alpha;
+    }
+
+    private void interpolate(float[] from, float[] to, float alpha)
+    {
+        for(int i = 0, offset = 0; i < entities.length; i++, offset += STRIDE)
+        {
+            GameEntity entity = entities[i];
+            entity.getRenderPosition().set(
+                    from[offset] + (to[offset] - from[offset]) * alpha,
+                    from[offset + 1] + (to[offset + 1] - from[offset + 1]) * alpha,
+                    from[offset + 2] + (to[offset + 2] - from[offset + 2]) * alpha);
+
+            // normalized lerp along the shorter arc, close enough for the rotation of one tick
+            float dot = from[offset + 3] * to[offset + 3] + from[offset + 4] * to[offset + 4]
+                    + from[offset + 5] * to[offset + 5] + from[offset + 6] * to[offset + 6];
+            float fromWeight = dot < 0 ? alpha - 1 : 1 - alpha;
+            entity.getRenderRotation().set(
+                    from[offset + 3] * fromWeight + to[offset + 3] * alpha,
+                    from[offset + 4] * fromWeight + to[offset + 4] * alpha,
+                    from[offset + 5] * fromWeight + to[offset + 5] * alpha,
+                    from[offset + 6] * fromWeight + to[offset + 6] * alpha).normalize();
+        }
+    }
+
+    public int size()
+    {
+        return entities.length;
+    }
+}
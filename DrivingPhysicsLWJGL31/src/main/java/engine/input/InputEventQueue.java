@@ -0,0 +1,83 @@
+package engine.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description
+ * Lock-free ring buffer of timestamped input events for one producer and one consumer thread.
+ * The GLFW callbacks offer the events on the thread that polls the window, the consumer drains them
+ * into an InputState. Nothing is allocated, if the consumer falls behind by CAPACITY events
+ * the newest ones are dropped and counted.
+ */
+public class InputEventQueue {
+
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+
+    private final int[] events = new int[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+
+    // number of offered events, only written by the producer
+    private final AtomicLong head = new AtomicLong();
+    // number of drained events, only written by the consumer
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long droppedEvents;
+
+    /**
+     * @param event see InputState.event
+     * @param time time of the event in nanoseconds
+     * @return false if the queue is full and the event was dropped
+     */
+    public boolean offer(int event, long time)
+    {
+        long position = head.get();
+        if(position - tail.get() == CAPACITY)
+        {
+            droppedEvents++;
+            return false;
+        }
+
+        int index = (int) (position & MASK);
+        events[index] = event;
+        times[index] = time;
+        // the ordered store publishes the event after its slot is written
+        head.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * @description
+     * Applies the queued events up to a time to the state, in the order they happened.
+     * Later events stay in the queue for the next call.
+     *
+     * @param state
+     * @param untilTime time in nanoseconds
+     * @return number of applied events
+     */
+    public int drainTo(InputState state, long untilTime)
+    {
+        long position = tail.get();
+        long end = head.get();
+        int drained = 0;
+
+        while(position < end)
+        {
+            int index = (int) (position & MASK);
+            if(times[index] > untilTime)
+            {
+                break;
+            }
+            state.apply(events[index], times[index]);
+            position++;
+            drained++;
+        }
+
+        tail.lazySet(position);
+        return drained;
+    }
+
+    public long getDroppedEvents()
+    {
+        return droppedEvents;
+    }
+}
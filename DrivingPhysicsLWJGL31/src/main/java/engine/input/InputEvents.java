@@ -0,0 +1,84 @@
+package engine.input;
+
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_LAST;
+import static org.lwjgl.glfw.GLFW.GLFW_MOUSE_BUTTON_LAST;
+
+/**
+ * @description
+ * Collects the key and mouse button events of the GLFW callbacks and hands them to the two consumers
+ * of the GameEngine: the render thread polls them once per frame for camera and menu controls,
+ * the thread that runs the updates polls them once per tick for the driving controls.
+ * Each consumer has its own InputEventQueue and InputState, so they do not need a lock.
+ *
+ * Events are stamped with the time they were polled from the window. A tick only takes the events from before
+ * the next tick is due, so while the loop catches up a late key press does not reach the earlier ticks.
+ */
+public class InputEvents {
+
+    private final InputEventQueue frameQueue = new InputEventQueue();
+    private final InputEventQueue tickQueue = new InputEventQueue();
+    private final InputState frameState = new InputState();
+    private final InputState tickState = new InputState();
+
+    /**
+     * @description
+     * Only call it from the GLFW callbacks.
+     */
+    public void pushKey(int key, int action)
+    {
+        // GLFW_KEY_UNKNOWN is -1
+        if(key >= 0 && key <= GLFW_KEY_LAST)
+        {
+            push(key, action);
+        }
+    }
+
+    /**
+     * @description
+     * Only call it from the GLFW callbacks.
+     */
+    public void pushMouseButton(int button, int action)
+    {
+        if(button >= 0 && button <= GLFW_MOUSE_BUTTON_LAST)
+        {
+            push(InputState.MOUSE_BUTTON_OFFSET + button, action);
+        }
+    }
+
+    private void push(int code, int action)
+    {
+        int event = InputState.event(code, action);
+        long time = System.nanoTime();
+        frameQueue.offer(event, time);
+        tickQueue.offer(event, time);
+    }
+
+    /**
+     * @description
+     * Applies all new events to the frame state. Only call it from the render thread.
+     */
+    public InputState pollFrame()
+    {
+        frameState.clearChanges();
+        frameQueue.drainTo(frameState, Long.MAX_VALUE);
+        return frameState;
+    }
+
+    /**
+     * @description
+     * Applies the new events up to a time to the tick state. Only call it from the thread that runs the updates.
+     *
+     * @param untilTime time in nanoseconds the next tick is due, see FixedStep.getNextTickTime
+     */
+    public InputState pollTick(long untilTime)
+    {
+        tickState.clearChanges();
+        tickQueue.drainTo(tickState, untilTime);
+        return tickState;
+    }
+
+    public long getDroppedEvents()
+    {
+        return frameQueue.getDroppedEvents() + tickQueue.getDroppedEvents();
+    }
+}
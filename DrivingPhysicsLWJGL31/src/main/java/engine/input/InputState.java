@@ -0,0 +1,116 @@
+package engine.input;
+
+import java.util.Arrays;
+
+import static org.lwjgl.glfw.GLFW.*;
+
+/**
+ * @description
+ * Keys and mouse buttons as bit sets: which ones are held and which ones were pressed or released since the
+ * last poll. A key that is pressed and released between two polls shows up in both, so a short tap is not lost.
+ * Only the events change bits, polling without events does not touch the sets.
+ * Key repeats do not change anything.
+ */
+public class InputState {
+
+    public static final int MOUSE_BUTTON_OFFSET = GLFW_KEY_LAST + 1;
+    public static final int CODES = MOUSE_BUTTON_OFFSET + GLFW_MOUSE_BUTTON_LAST + 1;
+
+    private static final int ACTION_BITS = 2;
+    private static final int ACTION_MASK = (1 << ACTION_BITS) - 1;
+
+    private final long[] held = new long[(CODES + 63) / 64];
+    private final long[] pressed = new long[held.length];
+    private final long[] released = new long[held.length];
+    private boolean changed;
+    private long lastEventTime;
+
+    /**
+     * @param code key or MOUSE_BUTTON_OFFSET + mouse button
+     * @param action GLFW_PRESS, GLFW_RELEASE or GLFW_REPEAT
+     * @return the event packed into an int for the InputEventQueue
+     */
+    public static int event(int code, int action)
+    {
+        return code << ACTION_BITS | action;
+    }
+
+    /**
+     * @description
+     * Forgets what was pressed and released before, held keys stay held.
+     */
+    void clearChanges()
+    {
+        if(changed)
+        {
+            Arrays.fill(pressed, 0);
+            Arrays.fill(released, 0);
+            changed = false;
+        }
+    }
+
+    void apply(int event, long time)
+    {
+        int code = event >>> ACTION_BITS;
+        int action = event & ACTION_MASK;
+        int word = code >>> 6;
+        long bit = 1L << code;
+
+        if(action == GLFW_PRESS)
+        {
+            held[word] |= bit;
+            pressed[word] |= bit;
+            changed = true;
+        }
+        else if(action == GLFW_RELEASE)
+        {
+            held[word] &= ~bit;
+            released[word] |= bit;
+            changed = true;
+        }
+        lastEventTime = time;
+    }
+
+    private static boolean isSet(long[] bits, int code)
+    {
+        return (bits[code >>> 6] & (1L << code)) != 0;
+    }
+
+    public boolean isKeyDown(int key)
+    {
+        return isSet(held, key);
+    }
+
+    public boolean wasKeyPressed(int key)
+    {
+        return isSet(pressed, key);
+    }
+
+    public boolean wasKeyReleased(int key)
+    {
+        return isSet(released, key);
+    }
+
+    public boolean isMouseButtonDown(int button)
+    {
+        return isSet(held, MOUSE_BUTTON_OFFSET + button);
+    }
+
+    public boolean wasMouseButtonPressed(int button)
+    {
+        return isSet(pressed, MOUSE_BUTTON_OFFSET + button);
+    }
+
+    public boolean wasMouseButtonReleased(int button)
+    {
+        return isSet(released, MOUSE_BUTTON_OFFSET + button);
+    }
+
+    /**
+     * @return time of the newest applied event in nanoseconds, 0 if there was none
+     */
+    public long getLastEventTime()
+    {
+        return lastEventTime;
+    }
+}
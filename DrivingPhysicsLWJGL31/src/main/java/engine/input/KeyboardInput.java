@@ -2,49 +2,22 @@ package engine.input;
 
 import org.lwjgl.glfw.GLFWKeyCallback;
 
-import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
-import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
-import static org.lwjgl.glfw.GLFW.GLFW_REPEAT;
-
+/**
+ * @description
+ * Key callback of the window, it only queues the events, see InputEvents.
+ */
 public class KeyboardInput extends GLFWKeyCallback {
 
-    public static int[] keys = new int[65536];
-    public static final int IDLE_STATE = -1;
-    // The GLFWKeyCallback class is an abstract method that
-    // can't be instantiated by itself and must instead be extended
-    //
-    @Override
-    public void invoke(long window, int key, int scancode, int action, int mods) {
-        // TODO Auto-generated method stub
-        keys[key] = action;
-    }
-
-    // boolean method that returns true if a given key
-    // is pressed.
-    public static boolean isKeyDown(int keycode)
-    {
-        return keys[keycode] == GLFW_PRESS;
-    }
+    private final InputEvents inputEvents;
 
-    public static boolean isKeyReleased(int keycode)
+    public KeyboardInput(InputEvents inputEvents)
     {
-        return keys[keycode] == GLFW_RELEASE;
+        this.inputEvents = inputEvents;
     }
 
-    public static boolean isKeyPressed(int keycode)
-    {
-        return keys[keycode] == GLFW_REPEAT;
-    }
-
-    public static void update()
+    @Override
+    public void invoke(long window, int key, int scancode, int action, int mods)
     {
-        for(int i = 0; i < keys.length; i++)
-        {
-            if(keys[i] == GLFW_RELEASE)
-            {
-                keys[i] = IDLE_STATE;
-            }
-        }
+        inputEvents.pushKey(key, action);
     }
-
 }
@@ -32,6 +32,8 @@ public class MouseInput {
 
     public void init(Window window)
     {
+        InputEvents inputEvents = window.getInputEvents();
+
         glfwSetCursorPosCallback(window.getWindowHandle(), cursorPosCallback = new GLFWCursorPosCallback() {
             @Override
             public void invoke(long window, double xpos, double ypos) {
@@ -48,8 +50,16 @@ public class MouseInput {
         glfwSetMouseButtonCallback(window.getWindowHandle(), mouseButtonCallback = new GLFWMouseButtonCallback() {
             @Override
             public void invoke(long window, int button, int action, int mods) {
-                leftButtonPressed = button == GLFW_MOUSE_BUTTON_1 && action == GLFW_PRESS;
-                rightButtonPressed = button == GLFW_MOUSE_BUTTON_2 && action == GLFW_PRESS;
+                // every button keeps its own state, an event of one button does not release the other
+                if(button == GLFW_MOUSE_BUTTON_1)
+                {
+                    leftButtonPressed = action == GLFW_PRESS;
+                }
+                else if(button == GLFW_MOUSE_BUTTON_2)
+                {
+                    rightButtonPressed = action == GLFW_PRESS;
+                }
+                inputEvents.pushMouseButton(button, action);
             }
         });
     }
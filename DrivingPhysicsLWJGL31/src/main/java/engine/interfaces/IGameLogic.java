@@ -1,17 +1,33 @@
 package engine.interfaces;
 
 import engine.core.Window;
+import engine.gameEntities.TransformSnapshots;
+import engine.input.InputState;
 import engine.input.MouseInput;
 
+/**
+ * @description
+ * init, input, render and cleanup run on the thread that owns the window and the GL context.
+ * update runs on the SimulationLoop thread if EngineOptions.SIMULATION_THREAD is set, so it must not touch
+ * GL, window or mouse state and has to hand everything the renderer needs over to the render thread.
+ * The engine captures the TransformSnapshots of the game logic after every update and interpolates them before
+ * every render, alpha is the blend factor it used between the previous and the newest tick.
+ * Keys and mouse buttons are polled for both: input gets the events of the frame, update the events of the tick.
+ */
 public interface IGameLogic {
 
     void init(Window window) throws Exception;
 
-    void input(Window window, MouseInput mouseInput);
+    void input(Window window, MouseInput mouseInput, InputState input);
 
-    void update(float interval, MouseInput mouseInput);
+    void update(float interval, InputState input);
 
-    void render(Window window);
+    void render(Window window, float alpha);
+
+    /**
+     * @return the entities moved by update(), created in init(), or null
+     */
+    TransformSnapshots getTransformSnapshots();
 
     void cleanup();
 }
@@ -0,0 +1,216 @@
+package engine.mesh;
+
+import org.lwjgl.BufferUtils;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+
+/**
+ * @description
+ * Fixed capacity ring buffer of flat quads lying on the ground, like skid marks, drawn with one instanced call.
+ * Every decal is one instance with position, yaw and a sequence number. When the ring is full the oldest decal
+ * is overwritten. The shader fades decals out by their age in sequence numbers, so nothing has to be updated
+ * for existing decals.
+ *
+ * add() only writes into a CPU side buffer and can be called from the update, also on the simulation thread.
+ * upload() copies the decals that were added since the last frame (at most two ranges of the ring) to the GPU,
+ * render() draws all uploaded decals. add() and upload() lock the buffer, everything else belongs to the render thread.
+ *
+ * Instance layout: float x, float y, float z, float yaw in radians, int sequence.
+ */
+public class DecalRingBuffer {
+
+    private static final int INSTANCE_SIZE = 5 * 4;
+    private static final int SEQUENCE_OFFSET = 4 * 4;
+
+    private final int capacity;
+    private final float halfSize;
+    private final Vector3f colour;
+    private final ByteBuffer instances;
+
+    private int vaoId;
+    private int cornerVboId;
+    private int instanceVboId;
+
+    // sequence number of the next decal, only differences of sequence numbers are used so it may wrap around
+    private int sequence;
+    private int nextSlot;
+    private int liveCount;
+    private int pendingCount;
+
+    // state of the last upload, used by the render thread
+    private int uploadedSequence = -1;
+    private int uploadedCount;
+
+    public DecalRingBuffer(int capacity, float halfSize, Vector3f colour)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity has to be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.halfSize = halfSize;
+        this.colour = colour;
+        instances = BufferUtils.createByteBuffer(capacity * INSTANCE_SIZE);
+    }
+
+    /**
+     * @description
+     * Creates the GL buffers, has to be called on the render thread before the first render().
+     */
+    public void init()
+    {
+        vaoId = glGenVertexArrays();
+        glBindVertexArray(vaoId);
+
+        // corners of the quad as a triangle strip, scaled by halfSize in the shader
+        cornerVboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, cornerVboId);
+        FloatBuffer corners = BufferUtils.createFloatBuffer(8);
+        corners.put(new float[]{-1, -1, -1, 1, 1, -1, 1, 1}).flip();
+        glBufferData(GL_ARRAY_BUFFER, corners, GL_STATIC_DRAW);
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, 0, 0);
+        glEnableVertexAttribArray(0);
+
+        instanceVboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+        glBufferData(GL_ARRAY_BUFFER, (long) capacity * INSTANCE_SIZE, GL_DYNAMIC_DRAW);
+        glVertexAttribPointer(1, 4, GL_FLOAT, false, INSTANCE_SIZE, 0);
+        glVertexAttribDivisor(1, 1);
+        glEnableVertexAttribArray(1);
+        glVertexAttribIPointer(2, 1, GL_INT, INSTANCE_SIZE, SEQUENCE_OFFSET);
+        glVertexAttribDivisor(2, 1);
+        glEnableVertexAttribArray(2);
+
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindVertexArray(0);
+    }
+
+    /**
+     * @description
+     * Adds a decal and overwrites the oldest one if the ring is full.
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @param yaw in radians
+     */
+    public synchronized void add(float x, float y, float z, float yaw)
+    {
+        int offset = nextSlot * INSTANCE_SIZE;
+        instances.putFloat(offset, x);
+        instances.putFloat(offset + 4, y);
+        instances.putFloat(offset + 8, z);
+        instances.putFloat(offset + 12, yaw);
+        instances.putInt(offset + SEQUENCE_OFFSET, sequence);
+        sequence++;
+        nextSlot = (nextSlot + 1) % capacity;
+        liveCount = Math.min(liveCount + 1, capacity);
+        pendingCount = Math.min(pendingCount + 1, capacity);
+    }
+
+    /**
+     * @description
+     * Draws all uploaded decals. The decal shader has to be bound.
+     */
+    public void render()
+    {
+        if(uploadedCount == 0)
+        {
+            return;
+        }
+
+        glBindVertexArray(vaoId);
+        glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, 4, uploadedCount);
+        glBindVertexArray(0);
+    }
+
+    /**
+     * @description
+     * Uploads the decals that were added since the last upload, call it once per frame before render().
+     */
+    public synchronized void upload()
+    {
+        uploadedSequence = sequence - 1;
+        uploadedCount = liveCount;
+        if(pendingCount == 0)
+        {
+            return;
+        }
+
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+        int firstSlot = nextSlot - pendingCount;
+        if(firstSlot >= 0)
+        {
+            uploadSlots(firstSlot, nextSlot);
+        }
+        else
+        {
+            // the new decals wrap around the end of the ring
+            uploadSlots(firstSlot + capacity, capacity);
+            uploadSlots(0, nextSlot);
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        pendingCount = 0;
+    }
+
+    private void uploadSlots(int from, int to)
+    {
+        if(from == to)
+        {
+            return;
+        }
+        instances.limit(to * INSTANCE_SIZE).position(from * INSTANCE_SIZE);
+        glBufferSubData(GL_ARRAY_BUFFER, (long) from * INSTANCE_SIZE, instances);
+        instances.clear();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public float getHalfSize()
+    {
+        return halfSize;
+    }
+
+    public Vector3f getColour()
+    {
+        return colour;
+    }
+
+    /**
+     * @return sequence number of the newest uploaded decal
+     */
+    public int getNewestSequence()
+    {
+        return uploadedSequence;
+    }
+
+    /**
+     * @return number of uploaded decals
+     */
+    public int getLiveCount()
+    {
+        return uploadedCount;
+    }
+
+    public void cleanup()
+    {
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glDeleteBuffers(cornerVboId);
+        glDeleteBuffers(instanceVboId);
+        glBindVertexArray(0);
+        glDeleteVertexArrays(vaoId);
+    }
+}
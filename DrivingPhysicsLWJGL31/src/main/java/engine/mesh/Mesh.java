@@ -3,6 +3,7 @@ package engine.mesh;
 import engine.gameEntities.GameEntity;
 import engine.shading.Material;
 import engine.texture.Texture;
+import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.lwjgl.BufferUtils;
 
@@ -10,7 +11,7 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
@@ -23,19 +24,40 @@ import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
 
 public class Mesh {
 
     private static final Vector3f DEFAULT_COLOR = new Vector3f(0.8f, 0.8f, 1.0f);
+    // model matrix per instance at the attribute locations 3 to 6, one column each
+    private static final int MODEL_MATRIX_LOCATION = 3;
+    private static final int MATRIX_FLOATS = 16;
+    private static final int INITIAL_INSTANCES = 16;
 
     private final int vaoId;
     private final List<Integer> vboIdList;
     private final int vertexCount;
+    private final MeshBounds bounds;
     private Material material;
 
+    // created by the first renderList()
+    private int instanceVboId;
+    private FloatBuffer instanceData;
+
+    public Mesh(MeshData meshData)
+    {
+        this(meshData.getPositions(), meshData.getTexCoords(), meshData.getNormals(), meshData.getIndices(), meshData.getBounds());
+    }
 
     public Mesh(float[] positions, float[] texCoords, float[] normals, int[] indices)
     {
+        this(positions, texCoords, normals, indices, new MeshBounds(positions));
+    }
+
+    private Mesh(float[] positions, float[] texCoords, float[] normals, int[] indices, MeshBounds bounds)
+    {
+        this.bounds = bounds;
         vertexCount = indices.length;
         vboIdList = new ArrayList();
 
@@ -101,6 +123,14 @@ public class Mesh {
         return vertexCount;
     }
 
+    /**
+     * @return bounds of the vertex positions in model space
+     */
+    public MeshBounds getBounds()
+    {
+        return bounds;
+    }
+
     private void initRender()
     {
         Texture texture = material.getTexture();
@@ -148,20 +178,68 @@ public class Mesh {
         endRender();
     }
 
-    public void renderList(List<GameEntity> gameEntities, Consumer<GameEntity> consumer)
+    /**
+     * @description
+     * Draws all entities with one instanced call. Their model matrices are streamed into an instance VBO
+     * every call, the buffer is orphaned so the driver does not have to wait for the draw of the last frame.
+     * The bound shader has to take the model matrix as instanced attribute at location 3, see scene.vs.
+     *
+     * @param gameEntities entities that use this mesh
+     * @param modelMatrix returns the model matrix of an entity, it is copied right away
+     */
+    public void renderList(List<GameEntity> gameEntities, Function<GameEntity, Matrix4f> modelMatrix)
     {
-        initRender();
+        int instanceCount = gameEntities.size();
+        if(instanceCount == 0)
+        {
+            return;
+        }
 
-        for (GameEntity gameEntity : gameEntities) {
-            // Set up data requiered by gameEntity
-            consumer.accept(gameEntity);
-            // Render this game item
-            glDrawElements(GL_TRIANGLES, getVertexCount(), GL_UNSIGNED_INT, 0);
+        prepareInstanceData(instanceCount);
+        for(int i = 0; i < instanceCount; i++)
+        {
+            modelMatrix.apply(gameEntities.get(i)).get(i * MATRIX_FLOATS, instanceData);
         }
+        instanceData.limit(instanceCount * MATRIX_FLOATS);
+
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+        glBufferData(GL_ARRAY_BUFFER, instanceData.capacity() * 4L, GL_STREAM_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, instanceData);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        instanceData.clear();
 
+        initRender();
+        glDrawElementsInstanced(GL_TRIANGLES, getVertexCount(), GL_UNSIGNED_INT, 0, instanceCount);
         endRender();
     }
 
+    private void prepareInstanceData(int instanceCount)
+    {
+        if(instanceVboId == 0)
+        {
+            instanceVboId = glGenBuffers();
+            vboIdList.add(instanceVboId);
+
+            glBindVertexArray(vaoId);
+            glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+            for(int column = 0; column < 4; column++)
+            {
+                int location = MODEL_MATRIX_LOCATION + column;
+                glVertexAttribPointer(location, 4, GL_FLOAT, false, MATRIX_FLOATS * 4, column * 4 * 4);
+                glVertexAttribDivisor(location, 1);
+                glEnableVertexAttribArray(location);
+            }
+            glBindBuffer(GL_ARRAY_BUFFER, 0);
+            glBindVertexArray(0);
+        }
+
+        if(instanceData == null || instanceData.capacity() < instanceCount * MATRIX_FLOATS)
+        {
+            int capacity = Math.max(INITIAL_INSTANCES, Integer.highestOneBit(instanceCount - 1) << 1);
+            instanceData = BufferUtils.createFloatBuffer(capacity * MATRIX_FLOATS);
+        }
+    }
+
     public void cleanUp()
     {
         glDisableVertexAttribArray(0);
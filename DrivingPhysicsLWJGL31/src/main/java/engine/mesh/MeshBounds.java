@@ -0,0 +1,112 @@
+package engine.mesh;
+
+/**
+ * @description
+ * Axis aligned bounding box and bounding sphere of the vertex positions of a mesh, in model space.
+ * The sphere is centered in the box and just large enough for the vertex furthest from that center,
+ * so it is usually tighter than the sphere around the box. Culling uses the sphere, it does not change
+ * when the entity rotates.
+ */
+public class MeshBounds {
+
+    private final float minX;
+    private final float minY;
+    private final float minZ;
+    private final float maxX;
+    private final float maxY;
+    private final float maxZ;
+    private final float radius;
+
+    /**
+     * @param positions xyz of every vertex
+     */
+    public MeshBounds(float[] positions)
+    {
+        if(positions.length < 3)
+        {
+            minX = minY = minZ = maxX = maxY = maxZ = radius = 0;
+            return;
+        }
+
+        float lowX = Float.POSITIVE_INFINITY, lowY = Float.POSITIVE_INFINITY, lowZ = Float.POSITIVE_INFINITY;
+        float highX = Float.NEGATIVE_INFINITY, highY = Float.NEGATIVE_INFINITY, highZ = Float.NEGATIVE_INFINITY;
+        for(int i = 0; i + 2 < positions.length; i += 3)
+        {
+            lowX = Math.min(lowX, positions[i]);
+            lowY = Math.min(lowY, positions[i + 1]);
+            lowZ = Math.min(lowZ, positions[i + 2]);
+            highX = Math.max(highX, positions[i]);
+            highY = Math.max(highY, positions[i + 1]);
+            highZ = Math.max(highZ, positions[i + 2]);
+        }
+        minX = lowX;
+        minY = lowY;
+        minZ = lowZ;
+        maxX = highX;
+        maxY = highY;
+        maxZ = highZ;
+
+        float centerX = getCenterX();
+        float centerY = getCenterY();
+        float centerZ = getCenterZ();
+        float radiusSquared = 0;
+        for(int i = 0; i + 2 < positions.length; i += 3)
+        {
+            float dx = positions[i] - centerX;
+            float dy = positions[i + 1] - centerY;
+            float dz = positions[i + 2] - centerZ;
+            radiusSquared = Math.max(radiusSquared, dx * dx + dy * dy + dz * dz);
+        }
+        radius = (float) Math.sqrt(radiusSquared);
+    }
+
+    public float getMinX()
+    {
+        return minX;
+    }
+
+    public float getMinY()
+    {
+        return minY;
+    }
+
+    public float getMinZ()
+    {
+        return minZ;
+    }
+
+    public float getMaxX()
+    {
+        return maxX;
+    }
+
+    public float getMaxY()
+    {
+        return maxY;
+    }
+
+    public float getMaxZ()
+    {
+        return maxZ;
+    }
+
+    public float getCenterX()
+    {
+        return (minX + maxX) * 0.5f;
+    }
+
+    public float getCenterY()
+    {
+        return (minY + maxY) * 0.5f;
+    }
+
+    public float getCenterZ()
+    {
+        return (minZ + maxZ) * 0.5f;
+    }
+
+    public float getRadius()
+    {
+        return radius;
+    }
+}
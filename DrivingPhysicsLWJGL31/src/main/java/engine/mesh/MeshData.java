@@ -0,0 +1,50 @@
+package engine.mesh;
+
+/**
+ * @description
+ * Vertex data of a mesh before it is uploaded to the GPU.
+ * Loaders build a MeshData without touching OpenGL, so parsing can run and be measured without a render context.
+ * The bounds are computed once here, at load time.
+ */
+public class MeshData {
+
+    private final float[] positions;
+    private final float[] texCoords;
+    private final float[] normals;
+    private final int[] indices;
+    private final MeshBounds bounds;
+
+    public MeshData(float[] positions, float[] texCoords, float[] normals, int[] indices)
+    {
+        this.positions = positions;
+        this.texCoords = texCoords;
+        this.normals = normals;
+        this.indices = indices;
+        bounds = new MeshBounds(positions);
+    }
+
+    public float[] getPositions()
+    {
+        return positions;
+    }
+
+    public float[] getTexCoords()
+    {
+        return texCoords;
+    }
+
+    public float[] getNormals()
+    {
+        return normals;
+    }
+
+    public int[] getIndices()
+    {
+        return indices;
+    }
+
+    public MeshBounds getBounds()
+    {
+        return bounds;
+    }
+}
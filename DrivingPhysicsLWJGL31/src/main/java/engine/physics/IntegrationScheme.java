@@ -0,0 +1,14 @@
+package engine.physics;
+
+/**
+ * @description
+ * Integration schemes for the velocity of a body, see Integrator.
+ *
+ * SEMI_IMPLICIT_EULER: one evaluation of the acceleration per step. The caller moves the body with the
+ * updated velocity, which makes it semi-implicit (symplectic) Euler.
+ * RK4: classic fourth order Runge-Kutta, four evaluations of the acceleration per step.
+ */
+public enum IntegrationScheme {
+    SEMI_IMPLICIT_EULER,
+    RK4
+}
@@ -0,0 +1,133 @@
+package engine.physics;
+
+/**
+ * @description
+ * Integrates the velocity of a body under a constant force and quadratic air drag:
+ * dv/dt = (force - dragCoefficient * v^2) / mass
+ * and decides how many substeps a body needs for the next update.
+ *
+ * The number of substeps grows with the speed (one more substep every substepSpeed m/s) and with the
+ * estimated local error of the step, and is limited by maxSubsteps. The error of a step is estimated
+ * from how much the acceleration changed since the last update: 0.5 * h^2 * |da/dt|.
+ * A threshold of 0 disables that criterion, so DEFAULT always runs a single step.
+ *
+ * Integrators are immutable and can be shared by many bodies.
+ */
+public class Integrator {
+
+    public static final Integrator DEFAULT = new Integrator(IntegrationScheme.SEMI_IMPLICIT_EULER, 1, 0, 0);
+
+    private final IntegrationScheme scheme;
+    private final int maxSubsteps;
+    private final float substepSpeed;
+    private final float errorTolerance;
+
+    /**
+     * @param scheme
+     * @param maxSubsteps at least 1
+     * @param substepSpeed speed in m/s per additional substep, 0 to disable
+     * @param errorTolerance allowed velocity error per substep in m/s, 0 to disable
+     */
+    public Integrator(IntegrationScheme scheme, int maxSubsteps, float substepSpeed, float errorTolerance)
+    {
+        if(maxSubsteps < 1)
+        {
+            throw new IllegalArgumentException("maxSubsteps has to be at least 1: " + maxSubsteps);
+        }
+        if(substepSpeed < 0 || errorTolerance < 0)
+        {
+            throw new IllegalArgumentException("Thresholds must not be negative");
+        }
+
+        this.scheme = scheme;
+        this.maxSubsteps = maxSubsteps;
+        this.substepSpeed = substepSpeed;
+        this.errorTolerance = errorTolerance;
+    }
+
+    /**
+     * @description
+     * Returns the number of substeps to split the next update into.
+     *
+     * @param speed current speed in m/s
+     * @param accelerationChange change of the acceleration over the last update in m/s^2
+     * @param interval length of the whole update in seconds
+     * @return substeps between 1 and maxSubsteps
+     */
+    public int getSubsteps(float speed, float accelerationChange, float interval)
+    {
+        if(maxSubsteps == 1)
+        {
+            return 1;
+        }
+
+        int substeps = 1;
+        if(substepSpeed > 0)
+        {
+            substeps = Math.max(substeps, (int) Math.ceil(Math.abs(speed) / substepSpeed));
+        }
+        if(errorTolerance > 0)
+        {
+            // error of one step with h = interval / n: 0.5 * interval * |accelerationChange| / n^2
+            float estimatedError = 0.5f * interval * Math.abs(accelerationChange);
+            substeps = Math.max(substeps, (int) Math.ceil(Math.sqrt(estimatedError / errorTolerance)));
+        }
+
+        return Math.min(substeps, maxSubsteps);
+    }
+
+    /**
+     * @description
+     * Returns the velocity after one step of the selected scheme.
+     *
+     * @param velocity in m/s
+     * @param force constant part of the force in newton
+     * @param dragCoefficient in kg/m
+     * @param mass in kg
+     * @param interval in seconds
+     * @return new velocity in m/s
+     */
+    public float integrateVelocity(float velocity, float force, float dragCoefficient, float mass, float interval)
+    {
+        switch(scheme)
+        {
+            case RK4:
+                float halfInterval = interval * 0.5f;
+                float k1 = calcAcceleration(velocity, force, dragCoefficient, mass);
+                float k2 = calcAcceleration(velocity + k1 * halfInterval, force, dragCoefficient, mass);
+                float k3 = calcAcceleration(velocity + k2 * halfInterval, force, dragCoefficient, mass);
+                float k4 = calcAcceleration(velocity + k3 * interval, force, dragCoefficient, mass);
+                return velocity + (k1 + 2f * k2 + 2f * k3 + k4) * (interval / 6f);
+
+            case SEMI_IMPLICIT_EULER:
+            default:
+                return velocity + calcAcceleration(velocity, force, dragCoefficient, mass) * interval;
+        }
+    }
+
+    private static float calcAcceleration(float velocity, float force, float dragCoefficient, float mass)
+    {
+        float drag = -dragCoefficient * velocity * velocity;
+        return (force + drag) / mass;
+    }
+
+    public IntegrationScheme getScheme()
+    {
+        return scheme;
+    }
+
+    public int getMaxSubsteps()
+    {
+        return maxSubsteps;
+    }
+
+    public float getSubstepSpeed()
+    {
+        return substepSpeed;
+    }
+
+    public float getErrorTolerance()
+    {
+        return errorTolerance;
+    }
+}
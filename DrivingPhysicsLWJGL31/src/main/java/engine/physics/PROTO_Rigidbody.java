@@ -32,8 +32,7 @@ public class PROTO_Rigidbody {
             float acceleration = Physics.calcAcceleration(mass, force);
             speed += acceleration * interval;
 
-            Vector3f velocity = new Vector3f(direction).mul(speed);
-            position.add(velocity.mul(interval));
+            position.fma(speed * interval, direction);
         }
         else
         {
@@ -0,0 +1,1371 @@
+package engine.physics;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * @description
+ * Rigid body solver for props like cones and barriers. Every body is a box with linear and angular state,
+ * stored as structure of arrays like a CarFleet, so stepping does not allocate.
+ *
+ * Contacts: box corners against the ground plane at y = 0, box corners against other boxes and boxes against
+ * kinematic boxes (cars). Kinematic boxes stand on the ground and are only moved by their owner, they push the
+ * bodies but do not feel them. Body pairs are found with a SpatialHashGrid.
+ *
+ * Solver: sequential impulses with friction and position correction, warm started with the accumulated
+ * impulses of the contacts that existed in the previous step. Contacts are matched by bodies and feature.
+ *
+ * Sleeping: bodies touching each other form islands. When every body of an island was slower than the sleep
+ * thresholds for SLEEP_TIME the island goes to sleep. Sleeping bodies are not integrated and get no contacts,
+ * so a step where nothing moves only checks the cells around the kinematic boxes. An island wakes up completely
+ * when an awake body or a moving kinematic box touches one of its bodies, or a body is changed from outside.
+ *
+ * A world is not thread safe.
+ */
+public class RigidBodyWorld {
+
+    public static final int GROUND = -1;
+    public static final float DEFAULT_FRICTION = 0.6f;
+    public static final float DEFAULT_RESTITUTION = 0.2f;
+    public static final int DEFAULT_ITERATIONS = 8;
+
+    private static final int NONE = SpatialHashGrid.NONE;
+    private static final int CONTACTS_PER_BODY = 16;
+    private static final int MAX_BODIES = 1 << 24;
+
+    // contacts are created a bit before the shapes touch, so resting contacts exist in every step
+    private static final float CONTACT_MARGIN = 0.02f;
+    private static final float PENETRATION_SLOP = 0.005f;
+    private static final float BAUMGARTE = 0.2f;
+    private static final float RESTITUTION_THRESHOLD = 1f;
+    private static final float LINEAR_DAMPING = 0.05f;
+    private static final float ANGULAR_DAMPING = 0.2f;
+    private static final float SLEEP_LINEAR_SPEED = 0.05f;
+    private static final float SLEEP_ANGULAR_SPEED = 0.1f;
+    private static final float SLEEP_TIME = 0.5f;
+    private static final long EMPTY_KEY = -1L;
+
+    private final int capacity;
+    private final SpatialHashGrid grid;
+    private final float cellSize;
+    private int size;
+    private int awakeCount;
+
+    // bodies
+    private final float[] positionX;
+    private final float[] positionY;
+    private final float[] positionZ;
+    private final float[] rotationX;
+    private final float[] rotationY;
+    private final float[] rotationZ;
+    private final float[] rotationW;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] velocityZ;
+    private final float[] angularVelocityX;
+    private final float[] angularVelocityY;
+    private final float[] angularVelocityZ;
+    private final float[] halfX;
+    private final float[] halfY;
+    private final float[] halfZ;
+    private final float[] boundingRadius;
+    private final float[] inverseMass;
+    private final float[] inverseInertiaX;
+    private final float[] inverseInertiaY;
+    private final float[] inverseInertiaZ;
+    // inverse inertia tensor in world space, symmetric
+    private final float[] worldInertiaXX;
+    private final float[] worldInertiaXY;
+    private final float[] worldInertiaXZ;
+    private final float[] worldInertiaYY;
+    private final float[] worldInertiaYZ;
+    private final float[] worldInertiaZZ;
+    private final boolean[] awake;
+    private final float[] sleepTime;
+    // circular list of the island a body fell asleep with
+    private final int[] islandNext;
+    private final int[] islandParent;
+    private final float[] islandSleepTime;
+    private final int[] islandHead;
+    private final int[] visited;
+    private int visitStamp;
+    private float maxBoundingRadius;
+
+    // kinematic boxes
+    private final int kinematicCapacity;
+    private int kinematicCount;
+    private final float[] kinematicX;
+    private final float[] kinematicZ;
+    private final float[] kinematicCos;
+    private final float[] kinematicSin;
+    private final float[] kinematicHalfLength;
+    private final float[] kinematicHalfWidth;
+    private final float[] kinematicHeight;
+    private final float[] kinematicVelocityX;
+    private final float[] kinematicVelocityZ;
+
+    // contacts of the current step
+    private final int contactCapacity;
+    private int contactCount;
+    private final int[] contactA;
+    private final int[] contactB;
+    private final long[] contactKey;
+    private final float[] contactPointX;
+    private final float[] contactPointY;
+    private final float[] contactPointZ;
+    private final float[] contactNormalX;
+    private final float[] contactNormalY;
+    private final float[] contactNormalZ;
+    private final float[] contactTangentX;
+    private final float[] contactTangentY;
+    private final float[] contactTangentZ;
+    private final float[] contactBitangentX;
+    private final float[] contactBitangentY;
+    private final float[] contactBitangentZ;
+    private final float[] contactDepth;
+    private final float[] contactBias;
+    private final float[] contactNormalMass;
+    private final float[] contactTangentMass;
+    private final float[] contactBitangentMass;
+    private final float[] contactNormalImpulse;
+    private final float[] contactTangentImpulse;
+    private final float[] contactBitangentImpulse;
+
+    // accumulated impulses of the previous step, open addressing by contact key
+    private final int cacheMask;
+    private final long[] cacheKeys;
+    private final float[] cacheNormalImpulse;
+    private final float[] cacheTangentImpulse;
+    private final float[] cacheBitangentImpulse;
+    private final int[] cacheUsedSlots;
+    private int cacheUsedCount;
+
+    private final int[] neighbourBuckets = new int[9];
+    private float friction = DEFAULT_FRICTION;
+    private float restitution = DEFAULT_RESTITUTION;
+    private int iterations = DEFAULT_ITERATIONS;
+
+    // results of the vector helpers
+    private float resultX;
+    private float resultY;
+    private float resultZ;
+    private float faceDepth;
+
+    /**
+     * @param capacity maximum number of bodies
+     * @param kinematicCapacity maximum number of kinematic boxes
+     * @param cellSize grid cell size, has to be at least the largest body diagonal
+     */
+    public RigidBodyWorld(int capacity, int kinematicCapacity, float cellSize)
+    {
+        if(capacity < 1 || capacity > MAX_BODIES)
+        {
+            throw new IllegalArgumentException("capacity has to be between 1 and " + MAX_BODIES + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.cellSize = cellSize;
+        grid = new SpatialHashGrid(capacity, cellSize);
+
+        positionX = new float[capacity];
+        positionY = new float[capacity];
+        positionZ = new float[capacity];
+        rotationX = new float[capacity];
+        rotationY = new float[capacity];
+        rotationZ = new float[capacity];
+        rotationW = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        velocityZ = new float[capacity];
+        angularVelocityX = new float[capacity];
+        angularVelocityY = new float[capacity];
+        angularVelocityZ = new float[capacity];
+        halfX = new float[capacity];
+        halfY = new float[capacity];
+        halfZ = new float[capacity];
+        boundingRadius = new float[capacity];
+        inverseMass = new float[capacity];
+        inverseInertiaX = new float[capacity];
+        inverseInertiaY = new float[capacity];
+        inverseInertiaZ = new float[capacity];
+        worldInertiaXX = new float[capacity];
+        worldInertiaXY = new float[capacity];
+        worldInertiaXZ = new float[capacity];
+        worldInertiaYY = new float[capacity];
+        worldInertiaYZ = new float[capacity];
+        worldInertiaZZ = new float[capacity];
+        awake = new boolean[capacity];
+        sleepTime = new float[capacity];
+        islandNext = new int[capacity];
+        islandParent = new int[capacity];
+        islandSleepTime = new float[capacity];
+        islandHead = new int[capacity];
+        visited = new int[capacity];
+
+        this.kinematicCapacity = kinematicCapacity;
+        kinematicX = new float[kinematicCapacity];
+        kinematicZ = new float[kinematicCapacity];
+        kinematicCos = new float[kinematicCapacity];
+        kinematicSin = new float[kinematicCapacity];
+        kinematicHalfLength = new float[kinematicCapacity];
+        kinematicHalfWidth = new float[kinematicCapacity];
+        kinematicHeight = new float[kinematicCapacity];
+        kinematicVelocityX = new float[kinematicCapacity];
+        kinematicVelocityZ = new float[kinematicCapacity];
+
+        contactCapacity = capacity * CONTACTS_PER_BODY;
+        contactA = new int[contactCapacity];
+        contactB = new int[contactCapacity];
+        contactKey = new long[contactCapacity];
+        contactPointX = new float[contactCapacity];
+        contactPointY = new float[contactCapacity];
+        contactPointZ = new float[contactCapacity];
+        contactNormalX = new float[contactCapacity];
+        contactNormalY = new float[contactCapacity];
+        contactNormalZ = new float[contactCapacity];
+        contactTangentX = new float[contactCapacity];
+        contactTangentY = new float[contactCapacity];
+        contactTangentZ = new float[contactCapacity];
+        contactBitangentX = new float[contactCapacity];
+        contactBitangentY = new float[contactCapacity];
+        contactBitangentZ = new float[contactCapacity];
+        contactDepth = new float[contactCapacity];
+        contactBias = new float[contactCapacity];
+        contactNormalMass = new float[contactCapacity];
+        contactTangentMass = new float[contactCapacity];
+        contactBitangentMass = new float[contactCapacity];
+        contactNormalImpulse = new float[contactCapacity];
+        contactTangentImpulse = new float[contactCapacity];
+        contactBitangentImpulse = new float[contactCapacity];
+
+        int cacheSize = 16;
+        while(cacheSize < contactCapacity * 2)
+        {
+            cacheSize <<= 1;
+        }
+        cacheMask = cacheSize - 1;
+        cacheKeys = new long[cacheSize];
+        Arrays.fill(cacheKeys, EMPTY_KEY);
+        cacheNormalImpulse = new float[cacheSize];
+        cacheTangentImpulse = new float[cacheSize];
+        cacheBitangentImpulse = new float[cacheSize];
+        cacheUsedSlots = new int[contactCapacity];
+    }
+
+    /**
+     * @description
+     * Adds an awake box without rotation.
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @param halfX
+     * @param halfY
+     * @param halfZ
+     * @param mass has to be positive
+     * @return id of the body
+     */
+    public int addBox(float x, float y, float z, float halfX, float halfY, float halfZ, float mass)
+    {
+        if(size == capacity)
+        {
+            throw new IllegalStateException("World is full: " + capacity);
+        }
+        if(mass <= 0)
+        {
+            throw new IllegalArgumentException("mass has to be positive: " + mass);
+        }
+        int i = size++;
+        positionX[i] = x;
+        positionY[i] = y;
+        positionZ[i] = z;
+        rotationW[i] = 1;
+        this.halfX[i] = halfX;
+        this.halfY[i] = halfY;
+        this.halfZ[i] = halfZ;
+        boundingRadius[i] = (float) Math.sqrt(halfX * halfX + halfY * halfY + halfZ * halfZ);
+        maxBoundingRadius = Math.max(maxBoundingRadius, boundingRadius[i]);
+        inverseMass[i] = 1f / mass;
+        inverseInertiaX[i] = 3f / (mass * (halfY * halfY + halfZ * halfZ));
+        inverseInertiaY[i] = 3f / (mass * (halfX * halfX + halfZ * halfZ));
+        inverseInertiaZ[i] = 3f / (mass * (halfX * halfX + halfY * halfY));
+        islandNext[i] = i;
+        awake[i] = true;
+        awakeCount++;
+        grid.insert(i, x, z);
+        return i;
+    }
+
+    public void setRotation(int id, Quaternionf rotation)
+    {
+        rotationX[id] = rotation.x;
+        rotationY[id] = rotation.y;
+        rotationZ[id] = rotation.z;
+        rotationW[id] = rotation.w;
+        wake(id);
+    }
+
+    public void setVelocity(int id, float x, float y, float z)
+    {
+        velocityX[id] = x;
+        velocityY[id] = y;
+        velocityZ[id] = z;
+        wake(id);
+    }
+
+    public void setAngularVelocity(int id, float x, float y, float z)
+    {
+        angularVelocityX[id] = x;
+        angularVelocityY[id] = y;
+        angularVelocityZ[id] = z;
+        wake(id);
+    }
+
+    /**
+     * @description
+     * Wakes up the whole island the body fell asleep with.
+     *
+     * @param id
+     */
+    public void wake(int id)
+    {
+        if(awake[id])
+        {
+            sleepTime[id] = 0;
+            return;
+        }
+        int i = id;
+        do
+        {
+            awake[i] = true;
+            sleepTime[i] = 0;
+            awakeCount++;
+            int next = islandNext[i];
+            islandNext[i] = i;
+            i = next;
+        }
+        while(i != id);
+    }
+
+    /**
+     * @description
+     * Sets the number of kinematic boxes, the boxes have to be set with setKinematicBox() before the next step.
+     *
+     * @param count
+     */
+    public void setKinematicBoxCount(int count)
+    {
+        if(count < 0 || count > kinematicCapacity)
+        {
+            throw new IllegalArgumentException("Kinematic box count has to be between 0 and " + kinematicCapacity + ": " + count);
+        }
+        kinematicCount = count;
+    }
+
+    /**
+     * @description
+     * Sets a box that stands on the ground and moves on the x/z plane, like a car.
+     *
+     * @param index
+     * @param x centre
+     * @param z centre
+     * @param heading in radians, the long side points to (cos, sin) on the x/z plane
+     * @param halfLength
+     * @param halfWidth
+     * @param height
+     * @param velocityX
+     * @param velocityZ
+     */
+    public void setKinematicBox(int index, float x, float z, float heading, float halfLength, float halfWidth, float height, float velocityX, float velocityZ)
+    {
+        kinematicX[index] = x;
+        kinematicZ[index] = z;
+        kinematicCos[index] = (float) Math.cos(heading);
+        kinematicSin[index] = (float) Math.sin(heading);
+        kinematicHalfLength[index] = halfLength;
+        kinematicHalfWidth[index] = halfWidth;
+        kinematicHeight[index] = height;
+        kinematicVelocityX[index] = velocityX;
+        kinematicVelocityZ[index] = velocityZ;
+    }
+
+    /**
+     * @description
+     * Advances all awake bodies by one tick.
+     *
+     * @param interval in seconds
+     */
+    public void step(float interval)
+    {
+        contactCount = 0;
+        if(awakeCount == 0 && kinematicCount == 0)
+        {
+            storeImpulses();
+            return;
+        }
+
+        for(int k = 0; k < kinematicCount; k++)
+        {
+            collideKinematicBox(k);
+        }
+        if(awakeCount == 0)
+        {
+            storeImpulses();
+            return;
+        }
+
+        int kinematicContacts = contactCount;
+        while(collideBodies())
+        {
+            // a sleeping island was woken up, its bodies need their contacts with the other bodies as well
+            contactCount = kinematicContacts;
+        }
+        for(int i = 0; i < size; i++)
+        {
+            if(awake[i])
+            {
+                collideGround(i);
+            }
+        }
+
+        float inverseInterval = 1f / interval;
+        integrateVelocities(interval);
+        prepareContacts(inverseInterval);
+        for(int iteration = 0; iteration < iterations; iteration++)
+        {
+            for(int c = 0; c < contactCount; c++)
+            {
+                solveNormal(c);
+            }
+            for(int c = 0; c < contactCount; c++)
+            {
+                solveFriction(c);
+            }
+        }
+        storeImpulses();
+        integratePositions(interval);
+        updateSleep(interval);
+    }
+
+    //----------------------------------------------------------------------------------------------------------------
+    // contact generation
+
+    private void collideKinematicBox(int k)
+    {
+        float x = kinematicX[k];
+        float z = kinematicZ[k];
+        float reach = (float) Math.sqrt(kinematicHalfLength[k] * kinematicHalfLength[k] + kinematicHalfWidth[k] * kinematicHalfWidth[k])
+                + maxBoundingRadius + CONTACT_MARGIN;
+        boolean moving = kinematicVelocityX[k] * kinematicVelocityX[k] + kinematicVelocityZ[k] * kinematicVelocityZ[k]
+                > SLEEP_LINEAR_SPEED * SLEEP_LINEAR_SPEED;
+
+        visitStamp++;
+        int minCellX = toCell(x - reach);
+        int maxCellX = toCell(x + reach);
+        int minCellZ = toCell(z - reach);
+        int maxCellZ = toCell(z + reach);
+        for(int cellX = minCellX; cellX <= maxCellX; cellX++)
+        {
+            for(int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+            {
+                for(int i = grid.getFirst(grid.getBucket(cellX, cellZ)); i != NONE; i = grid.getNext(i))
+                {
+                    if(visited[i] == visitStamp)
+                    {
+                        continue;
+                    }
+                    visited[i] = visitStamp;
+
+                    float dx = positionX[i] - x;
+                    float dz = positionZ[i] - z;
+                    float radius = reach - maxBoundingRadius + boundingRadius[i];
+                    if(dx * dx + dz * dz > radius * radius)
+                    {
+                        continue;
+                    }
+                    if(!awake[i])
+                    {
+                        // a standing kinematic box does not wake up the props resting against it
+                        if(!moving || !isTouchingKinematicBox(i, k))
+                        {
+                            continue;
+                        }
+                        wake(i);
+                    }
+                    collideCornersWithKinematicBox(i, k);
+                    collideKinematicCornersWithBody(k, i);
+                }
+            }
+        }
+    }
+
+    private boolean isTouchingKinematicBox(int i, int k)
+    {
+        int count = contactCount;
+        collideCornersWithKinematicBox(i, k);
+        collideKinematicCornersWithBody(k, i);
+        boolean touching = contactCount > count;
+        contactCount = count;
+        return touching;
+    }
+
+    private void collideCornersWithKinematicBox(int i, int k)
+    {
+        float cos = kinematicCos[k];
+        float sin = kinematicSin[k];
+        for(int corner = 0; corner < 8; corner++)
+        {
+            corner(i, corner);
+            float cornerX = resultX;
+            float cornerY = resultY;
+            float cornerZ = resultZ;
+            float dx = cornerX - kinematicX[k];
+            float dz = cornerZ - kinematicZ[k];
+            float along = dx * cos + dz * sin;
+            float across = -dx * sin + dz * cos;
+
+            float lengthDepth = kinematicHalfLength[k] - Math.abs(along);
+            float widthDepth = kinematicHalfWidth[k] - Math.abs(across);
+            float topDepth = kinematicHeight[k] - cornerY;
+            if(lengthDepth < -CONTACT_MARGIN || widthDepth < -CONTACT_MARGIN || topDepth < -CONTACT_MARGIN)
+            {
+                continue;
+            }
+
+            // push out through the closest face, the bottom face is covered by the ground
+            if(lengthDepth <= widthDepth && lengthDepth <= topDepth)
+            {
+                float sign = along < 0 ? -1 : 1;
+                addContact(i, kinematicId(k), corner, cornerX, cornerY, cornerZ, sign * cos, 0, sign * sin, lengthDepth);
+            }
+            else if(widthDepth <= topDepth)
+            {
+                float sign = across < 0 ? -1 : 1;
+                addContact(i, kinematicId(k), corner, cornerX, cornerY, cornerZ, -sign * sin, 0, sign * cos, widthDepth);
+            }
+            else
+            {
+                addContact(i, kinematicId(k), corner, cornerX, cornerY, cornerZ, 0, 1, 0, topDepth);
+            }
+        }
+    }
+
+    /**
+     * @description
+     * Tests the vertical edges of a kinematic box against a body at the height of the body centre, which catches
+     * the corners of a car hitting the side of a barrier.
+     */
+    private void collideKinematicCornersWithBody(int k, int i)
+    {
+        float cornerY = Math.max(0, Math.min(positionY[i], kinematicHeight[k]));
+        for(int corner = 0; corner < 4; corner++)
+        {
+            float along = (corner & 1) == 0 ? -kinematicHalfLength[k] : kinematicHalfLength[k];
+            float across = (corner & 2) == 0 ? -kinematicHalfWidth[k] : kinematicHalfWidth[k];
+            float cornerX = kinematicX[k] + along * kinematicCos[k] - across * kinematicSin[k];
+            float cornerZ = kinematicZ[k] + along * kinematicSin[k] + across * kinematicCos[k];
+            if(closestFace(i, cornerX, cornerY, cornerZ))
+            {
+                // the face normal points from the body to the corner, the contact normal from the kinematic box to the body
+                addContact(i, kinematicId(k), 8 + corner, cornerX, cornerY, cornerZ, -resultX, -resultY, -resultZ, faceDepth);
+            }
+        }
+    }
+
+    /**
+     * @return true if a sleeping island was woken up and the body contacts have to be generated again
+     */
+    private boolean collideBodies()
+    {
+        boolean wokeUp = false;
+        for(int a = 0; a < size; a++)
+        {
+            if(!awake[a])
+            {
+                continue;
+            }
+
+            int neighbourCount = collectNeighbourBuckets(a);
+            for(int n = 0; n < neighbourCount; n++)
+            {
+                for(int b = grid.getFirst(neighbourBuckets[n]); b != NONE; b = grid.getNext(b))
+                {
+                    // pairs of awake bodies are tested once, from the body with the lower id
+                    if(b == a || (awake[b] && b < a))
+                    {
+                        continue;
+                    }
+                    float dx = positionX[b] - positionX[a];
+                    float dy = positionY[b] - positionY[a];
+                    float dz = positionZ[b] - positionZ[a];
+                    float radius = boundingRadius[a] + boundingRadius[b] + CONTACT_MARGIN;
+                    if(dx * dx + dy * dy + dz * dz > radius * radius)
+                    {
+                        continue;
+                    }
+
+                    int count = contactCount;
+                    collideBoxes(a, b);
+                    if(contactCount > count && !awake[b])
+                    {
+                        wake(b);
+                        wokeUp = true;
+                    }
+                }
+            }
+        }
+        return wokeUp;
+    }
+
+    private int collectNeighbourBuckets(int i)
+    {
+        int count = 0;
+        int centreX = grid.getCellX(i);
+        int centreZ = grid.getCellZ(i);
+        for(int cellX = centreX - 1; cellX <= centreX + 1; cellX++)
+        {
+            for(int cellZ = centreZ - 1; cellZ <= centreZ + 1; cellZ++)
+            {
+                // neighbouring cells may share a bucket, which must not produce the same pair twice
+                int bucket = grid.getBucket(cellX, cellZ);
+                boolean known = false;
+                for(int n = 0; n < count && !known; n++)
+                {
+                    known = neighbourBuckets[n] == bucket;
+                }
+                if(!known)
+                {
+                    neighbourBuckets[count++] = bucket;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @description
+     * Separating axis test on the face normals of both boxes. The face with the smallest overlap is the reference
+     * face, the corners of the other box below it and within its extents become the contacts. Edge against edge
+     * contacts are not detected, which is good enough for props that mostly rest on their faces.
+     */
+    private void collideBoxes(int a, int b)
+    {
+        float dx = positionX[a] - positionX[b];
+        float dy = positionY[a] - positionY[b];
+        float dz = positionZ[a] - positionZ[b];
+
+        int referenceBody = NONE;
+        int referenceAxis = 0;
+        float minOverlap = Float.MAX_VALUE;
+        for(int axis = 0; axis < 6; axis++)
+        {
+            int owner = axis < 3 ? b : a;
+            axis(owner, axis % 3);
+            float axisX = resultX;
+            float axisY = resultY;
+            float axisZ = resultZ;
+            float overlap = projectedHalfSize(a, axisX, axisY, axisZ) + projectedHalfSize(b, axisX, axisY, axisZ)
+                    - Math.abs(dx * axisX + dy * axisY + dz * axisZ);
+            if(overlap < -CONTACT_MARGIN)
+            {
+                return;
+            }
+            // the faces of a have to be clearly better, so the reference face does not flip between steps
+            boolean better = axis < 3 ? overlap < minOverlap : overlap < minOverlap * 0.95f - 0.001f;
+            if(better)
+            {
+                minOverlap = overlap;
+                referenceBody = owner;
+                referenceAxis = axis % 3;
+            }
+        }
+
+        int incidentBody = referenceBody == b ? a : b;
+        axis(referenceBody, referenceAxis);
+        float sign = (dx * resultX + dy * resultY + dz * resultZ) * (referenceBody == b ? 1 : -1) < 0 ? -1 : 1;
+        float normalX = resultX * sign;
+        float normalY = resultY * sign;
+        float normalZ = resultZ * sign;
+        float referenceHalfSize = halfSize(referenceBody, referenceAxis);
+
+        for(int corner = 0; corner < 8; corner++)
+        {
+            corner(incidentBody, corner);
+            float cornerX = resultX;
+            float cornerY = resultY;
+            float cornerZ = resultZ;
+            float offsetX = cornerX - positionX[referenceBody];
+            float offsetY = cornerY - positionY[referenceBody];
+            float offsetZ = cornerZ - positionZ[referenceBody];
+            float depth = referenceHalfSize - (offsetX * normalX + offsetY * normalY + offsetZ * normalZ);
+            if(depth < -CONTACT_MARGIN || !isWithinFace(referenceBody, referenceAxis, offsetX, offsetY, offsetZ))
+            {
+                continue;
+            }
+            addContact(incidentBody, referenceBody, corner, cornerX, cornerY, cornerZ, normalX, normalY, normalZ, depth);
+        }
+    }
+
+    private float projectedHalfSize(int i, float axisX, float axisY, float axisZ)
+    {
+        float size = 0;
+        for(int axis = 0; axis < 3; axis++)
+        {
+            float halfSize = halfSize(i, axis);
+            axis(i, axis);
+            size += halfSize * Math.abs(resultX * axisX + resultY * axisY + resultZ * axisZ);
+        }
+        return size;
+    }
+
+    /**
+     * @return true if the offset from the centre of the body is within the extents of the face along the other two axes
+     */
+    private boolean isWithinFace(int i, int faceAxis, float offsetX, float offsetY, float offsetZ)
+    {
+        inverseRotate(i, offsetX, offsetY, offsetZ);
+        return (faceAxis == 0 || Math.abs(resultX) <= halfX[i] + CONTACT_MARGIN)
+                && (faceAxis == 1 || Math.abs(resultY) <= halfY[i] + CONTACT_MARGIN)
+                && (faceAxis == 2 || Math.abs(resultZ) <= halfZ[i] + CONTACT_MARGIN);
+    }
+
+    private float halfSize(int i, int axis)
+    {
+        return axis == 0 ? halfX[i] : axis == 1 ? halfY[i] : halfZ[i];
+    }
+
+    private void collideGround(int i)
+    {
+        // only the lowest corners can touch the ground, but testing all eight is cheaper than sorting them
+        for(int corner = 0; corner < 8; corner++)
+        {
+            corner(i, corner);
+            if(resultY < CONTACT_MARGIN)
+            {
+                addContact(i, GROUND, corner, resultX, resultY, resultZ, 0, 1, 0, -resultY);
+            }
+        }
+    }
+
+    /**
+     * @description
+     * Finds the face of a body that is closest to a point within the contact margin.
+     * The outward face normal in world space is written to the result and its depth to faceDepth.
+     *
+     * @return false if the point is outside of the body
+     */
+    private boolean closestFace(int i, float x, float y, float z)
+    {
+        inverseRotate(i, x - positionX[i], y - positionY[i], z - positionZ[i]);
+        float localX = resultX;
+        float localY = resultY;
+        float localZ = resultZ;
+        float depthX = halfX[i] - Math.abs(localX);
+        float depthY = halfY[i] - Math.abs(localY);
+        float depthZ = halfZ[i] - Math.abs(localZ);
+        if(depthX < -CONTACT_MARGIN || depthY < -CONTACT_MARGIN || depthZ < -CONTACT_MARGIN)
+        {
+            return false;
+        }
+
+        if(depthX <= depthY && depthX <= depthZ)
+        {
+            faceDepth = depthX;
+            rotate(i, localX < 0 ? -1 : 1, 0, 0);
+        }
+        else if(depthY <= depthZ)
+        {
+            faceDepth = depthY;
+            rotate(i, 0, localY < 0 ? -1 : 1, 0);
+        }
+        else
+        {
+            faceDepth = depthZ;
+            rotate(i, 0, 0, localZ < 0 ? -1 : 1);
+        }
+        return true;
+    }
+
+    /**
+     * @param a body that is pushed along the normal
+     * @param b body, GROUND or kinematic box id
+     * @param feature corner that identifies the contact between a and b over several steps
+     */
+    private void addContact(int a, int b, int feature, float x, float y, float z, float normalX, float normalY, float normalZ, float depth)
+    {
+        if(contactCount == contactCapacity)
+        {
+            return;
+        }
+        int c = contactCount++;
+        contactA[c] = a;
+        contactB[c] = b;
+        long other = b >= 0 ? b + 1L : b == GROUND ? 0L : MAX_BODIES + 1L + (-2 - b);
+        contactKey[c] = (long) a << 40 | other << 8 | feature;
+        contactPointX[c] = x;
+        contactPointY[c] = y;
+        contactPointZ[c] = z;
+        contactNormalX[c] = normalX;
+        contactNormalY[c] = normalY;
+        contactNormalZ[c] = normalZ;
+        contactDepth[c] = depth;
+    }
+
+    private static int kinematicId(int k)
+    {
+        return -2 - k;
+    }
+
+    private int toCell(float coordinate)
+    {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    //----------------------------------------------------------------------------------------------------------------
+    // solver
+
+    private void integrateVelocities(float interval)
+    {
+        float linearDamping = 1f / (1f + interval * LINEAR_DAMPING);
+        float angularDamping = 1f / (1f + interval * ANGULAR_DAMPING);
+        for(int i = 0; i < size; i++)
+        {
+            if(!awake[i])
+            {
+                continue;
+            }
+            velocityX[i] *= linearDamping;
+            velocityY[i] = (velocityY[i] - Physics.G * interval) * linearDamping;
+            velocityZ[i] *= linearDamping;
+            angularVelocityX[i] *= angularDamping;
+            angularVelocityY[i] *= angularDamping;
+            angularVelocityZ[i] *= angularDamping;
+            updateWorldInertia(i);
+        }
+    }
+
+    /**
+     * @description
+     * Rotates the diagonal inverse inertia of the box into world space: R * diag * R^T
+     */
+    private void updateWorldInertia(int i)
+    {
+        float x = rotationX[i];
+        float y = rotationY[i];
+        float z = rotationZ[i];
+        float w = rotationW[i];
+        float r00 = 1 - 2 * (y * y + z * z);
+        float r01 = 2 * (x * y - z * w);
+        float r02 = 2 * (x * z + y * w);
+        float r10 = 2 * (x * y + z * w);
+        float r11 = 1 - 2 * (x * x + z * z);
+        float r12 = 2 * (y * z - x * w);
+        float r20 = 2 * (x * z - y * w);
+        float r21 = 2 * (y * z + x * w);
+        float r22 = 1 - 2 * (x * x + y * y);
+        float dx = inverseInertiaX[i];
+        float dy = inverseInertiaY[i];
+        float dz = inverseInertiaZ[i];
+        worldInertiaXX[i] = r00 * r00 * dx + r01 * r01 * dy + r02 * r02 * dz;
+        worldInertiaXY[i] = r00 * r10 * dx + r01 * r11 * dy + r02 * r12 * dz;
+        worldInertiaXZ[i] = r00 * r20 * dx + r01 * r21 * dy + r02 * r22 * dz;
+        worldInertiaYY[i] = r10 * r10 * dx + r11 * r11 * dy + r12 * r12 * dz;
+        worldInertiaYZ[i] = r10 * r20 * dx + r11 * r21 * dy + r12 * r22 * dz;
+        worldInertiaZZ[i] = r20 * r20 * dx + r21 * r21 * dy + r22 * r22 * dz;
+    }
+
+    private void prepareContacts(float inverseInterval)
+    {
+        for(int c = 0; c < contactCount; c++)
+        {
+            float normalX = contactNormalX[c];
+            float normalY = contactNormalY[c];
+            float normalZ = contactNormalZ[c];
+
+            // fixed tangent basis, so the cached friction impulses still point the same way in the next step
+            float tangentX;
+            float tangentY;
+            float tangentZ;
+            if(Math.abs(normalX) > 0.57735f)
+            {
+                float length = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+                tangentX = normalY / length;
+                tangentY = -normalX / length;
+                tangentZ = 0;
+            }
+            else
+            {
+                float length = (float) Math.sqrt(normalY * normalY + normalZ * normalZ);
+                tangentX = 0;
+                tangentY = normalZ / length;
+                tangentZ = -normalY / length;
+            }
+            contactTangentX[c] = tangentX;
+            contactTangentY[c] = tangentY;
+            contactTangentZ[c] = tangentZ;
+            contactBitangentX[c] = normalY * tangentZ - normalZ * tangentY;
+            contactBitangentY[c] = normalZ * tangentX - normalX * tangentZ;
+            contactBitangentZ[c] = normalX * tangentY - normalY * tangentX;
+
+            contactNormalMass[c] = 1f / effectiveMass(c, normalX, normalY, normalZ);
+            contactTangentMass[c] = 1f / effectiveMass(c, tangentX, tangentY, tangentZ);
+            contactBitangentMass[c] = 1f / effectiveMass(c, contactBitangentX[c], contactBitangentY[c], contactBitangentZ[c]);
+
+            // push out of penetration and let separated shapes close the gap, both softly: closing the gap in one step
+            // lets a falling box land on a single corner and start spinning
+            float depth = contactDepth[c];
+            float error = depth < 0 ? depth : Math.max(depth - PENETRATION_SLOP, 0);
+            float bias = BAUMGARTE * inverseInterval * error;
+            relativeVelocity(c);
+            float normalVelocity = resultX * normalX + resultY * normalY + resultZ * normalZ;
+            if(normalVelocity < -RESTITUTION_THRESHOLD)
+            {
+                bias = Math.max(bias, -restitution * normalVelocity);
+            }
+            contactBias[c] = bias;
+
+            int slot = findCacheSlot(contactKey[c]);
+            if(cacheKeys[slot] == contactKey[c])
+            {
+                contactNormalImpulse[c] = cacheNormalImpulse[slot];
+                contactTangentImpulse[c] = cacheTangentImpulse[slot];
+                contactBitangentImpulse[c] = cacheBitangentImpulse[slot];
+                applyImpulse(c,
+                        normalX * contactNormalImpulse[c] + tangentX * contactTangentImpulse[c] + contactBitangentX[c] * contactBitangentImpulse[c],
+                        normalY * contactNormalImpulse[c] + tangentY * contactTangentImpulse[c] + contactBitangentY[c] * contactBitangentImpulse[c],
+                        normalZ * contactNormalImpulse[c] + tangentZ * contactTangentImpulse[c] + contactBitangentZ[c] * contactBitangentImpulse[c]);
+            }
+            else
+            {
+                contactNormalImpulse[c] = 0;
+                contactTangentImpulse[c] = 0;
+                contactBitangentImpulse[c] = 0;
+            }
+        }
+    }
+
+    private float effectiveMass(int c, float directionX, float directionY, float directionZ)
+    {
+        int a = contactA[c];
+        float mass = inverseMass[a] + angularMass(a, c, directionX, directionY, directionZ);
+        int b = contactB[c];
+        if(b >= 0)
+        {
+            mass += inverseMass[b] + angularMass(b, c, directionX, directionY, directionZ);
+        }
+        return mass;
+    }
+
+    /**
+     * @return (r x d) . I^-1 (r x d) with r from the centre of the body to the contact point
+     */
+    private float angularMass(int i, int c, float directionX, float directionY, float directionZ)
+    {
+        float rx = contactPointX[c] - positionX[i];
+        float ry = contactPointY[c] - positionY[i];
+        float rz = contactPointZ[c] - positionZ[i];
+        float cx = ry * directionZ - rz * directionY;
+        float cy = rz * directionX - rx * directionZ;
+        float cz = rx * directionY - ry * directionX;
+        applyWorldInertia(i, cx, cy, cz);
+        return cx * resultX + cy * resultY + cz * resultZ;
+    }
+
+    private void solveNormal(int c)
+    {
+        relativeVelocity(c);
+        float normalVelocity = resultX * contactNormalX[c] + resultY * contactNormalY[c] + resultZ * contactNormalZ[c];
+        float impulse = (contactBias[c] - normalVelocity) * contactNormalMass[c];
+        float accumulated = Math.max(contactNormalImpulse[c] + impulse, 0);
+        impulse = accumulated - contactNormalImpulse[c];
+        contactNormalImpulse[c] = accumulated;
+        applyImpulse(c, contactNormalX[c] * impulse, contactNormalY[c] * impulse, contactNormalZ[c] * impulse);
+    }
+
+    /**
+     * @description
+     * Friction along both tangents, limited by the current normal impulse.
+     */
+    private void solveFriction(int c)
+    {
+        float maxFriction = friction * contactNormalImpulse[c];
+
+        relativeVelocity(c);
+        float impulse = -(resultX * contactTangentX[c] + resultY * contactTangentY[c] + resultZ * contactTangentZ[c]) * contactTangentMass[c];
+        float accumulated = Math.max(-maxFriction, Math.min(contactTangentImpulse[c] + impulse, maxFriction));
+        impulse = accumulated - contactTangentImpulse[c];
+        contactTangentImpulse[c] = accumulated;
+        applyImpulse(c, contactTangentX[c] * impulse, contactTangentY[c] * impulse, contactTangentZ[c] * impulse);
+
+        relativeVelocity(c);
+        impulse = -(resultX * contactBitangentX[c] + resultY * contactBitangentY[c] + resultZ * contactBitangentZ[c]) * contactBitangentMass[c];
+        accumulated = Math.max(-maxFriction, Math.min(contactBitangentImpulse[c] + impulse, maxFriction));
+        impulse = accumulated - contactBitangentImpulse[c];
+        contactBitangentImpulse[c] = accumulated;
+        applyImpulse(c, contactBitangentX[c] * impulse, contactBitangentY[c] * impulse, contactBitangentZ[c] * impulse);
+    }
+
+    /**
+     * @description
+     * Velocity of the contact point on body a relative to b, written to the result.
+     */
+    private void relativeVelocity(int c)
+    {
+        int a = contactA[c];
+        float x = pointVelocityX(a, c);
+        float y = pointVelocityY(a, c);
+        float z = pointVelocityZ(a, c);
+        int b = contactB[c];
+        if(b >= 0)
+        {
+            x -= pointVelocityX(b, c);
+            y -= pointVelocityY(b, c);
+            z -= pointVelocityZ(b, c);
+        }
+        else if(b != GROUND)
+        {
+            x -= kinematicVelocityX[-2 - b];
+            z -= kinematicVelocityZ[-2 - b];
+        }
+        resultX = x;
+        resultY = y;
+        resultZ = z;
+    }
+
+    private float pointVelocityX(int i, int c)
+    {
+        return velocityX[i] + angularVelocityY[i] * (contactPointZ[c] - positionZ[i]) - angularVelocityZ[i] * (contactPointY[c] - positionY[i]);
+    }
+
+    private float pointVelocityY(int i, int c)
+    {
+        return velocityY[i] + angularVelocityZ[i] * (contactPointX[c] - positionX[i]) - angularVelocityX[i] * (contactPointZ[c] - positionZ[i]);
+    }
+
+    private float pointVelocityZ(int i, int c)
+    {
+        return velocityZ[i] + angularVelocityX[i] * (contactPointY[c] - positionY[i]) - angularVelocityY[i] * (contactPointX[c] - positionX[i]);
+    }
+
+    /**
+     * @description
+     * Applies the impulse to body a at the contact point and the opposite impulse to body b.
+     */
+    private void applyImpulse(int c, float impulseX, float impulseY, float impulseZ)
+    {
+        applyImpulse(contactA[c], c, impulseX, impulseY, impulseZ);
+        int b = contactB[c];
+        if(b >= 0)
+        {
+            applyImpulse(b, c, -impulseX, -impulseY, -impulseZ);
+        }
+    }
+
+    private void applyImpulse(int i, int c, float impulseX, float impulseY, float impulseZ)
+    {
+        velocityX[i] += impulseX * inverseMass[i];
+        velocityY[i] += impulseY * inverseMass[i];
+        velocityZ[i] += impulseZ * inverseMass[i];
+
+        float rx = contactPointX[c] - positionX[i];
+        float ry = contactPointY[c] - positionY[i];
+        float rz = contactPointZ[c] - positionZ[i];
+        applyWorldInertia(i, ry * impulseZ - rz * impulseY, rz * impulseX - rx * impulseZ, rx * impulseY - ry * impulseX);
+        angularVelocityX[i] += resultX;
+        angularVelocityY[i] += resultY;
+        angularVelocityZ[i] += resultZ;
+    }
+
+    private void applyWorldInertia(int i, float x, float y, float z)
+    {
+        resultX = worldInertiaXX[i] * x + worldInertiaXY[i] * y + worldInertiaXZ[i] * z;
+        resultY = worldInertiaXY[i] * x + worldInertiaYY[i] * y + worldInertiaYZ[i] * z;
+        resultZ = worldInertiaXZ[i] * x + worldInertiaYZ[i] * y + worldInertiaZZ[i] * z;
+    }
+
+    //----------------------------------------------------------------------------------------------------------------
+    // warm starting
+
+    private int findCacheSlot(long key)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash >>> 32) & cacheMask;
+        while(cacheKeys[slot] != EMPTY_KEY && cacheKeys[slot] != key)
+        {
+            slot = (slot + 1) & cacheMask;
+        }
+        return slot;
+    }
+
+    /**
+     * @description
+     * Replaces the cached impulses with the ones of this step. Only the slots used in the last step are cleared.
+     */
+    private void storeImpulses()
+    {
+        for(int n = 0; n < cacheUsedCount; n++)
+        {
+            cacheKeys[cacheUsedSlots[n]] = EMPTY_KEY;
+        }
+        cacheUsedCount = 0;
+        for(int c = 0; c < contactCount; c++)
+        {
+            int slot = findCacheSlot(contactKey[c]);
+            if(cacheKeys[slot] == EMPTY_KEY)
+            {
+                cacheUsedSlots[cacheUsedCount++] = slot;
+            }
+            cacheKeys[slot] = contactKey[c];
+            cacheNormalImpulse[slot] = contactNormalImpulse[c];
+            cacheTangentImpulse[slot] = contactTangentImpulse[c];
+            cacheBitangentImpulse[slot] = contactBitangentImpulse[c];
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------------------------
+    // integration and sleeping
+
+    private void integratePositions(float interval)
+    {
+        for(int i = 0; i < size; i++)
+        {
+            if(!awake[i])
+            {
+                continue;
+            }
+            positionX[i] += velocityX[i] * interval;
+            positionY[i] += velocityY[i] * interval;
+            positionZ[i] += velocityZ[i] * interval;
+
+            // q += 0.5 * (w, 0) * q * dt
+            float x = rotationX[i];
+            float y = rotationY[i];
+            float z = rotationZ[i];
+            float w = rotationW[i];
+            float halfStep = 0.5f * interval;
+            float wx = angularVelocityX[i] * halfStep;
+            float wy = angularVelocityY[i] * halfStep;
+            float wz = angularVelocityZ[i] * halfStep;
+            float newX = x + wx * w + wy * z - wz * y;
+            float newY = y + wy * w + wz * x - wx * z;
+            float newZ = z + wz * w + wx * y - wy * x;
+            float newW = w - wx * x - wy * y - wz * z;
+            float inverseLength = 1f / (float) Math.sqrt(newX * newX + newY * newY + newZ * newZ + newW * newW);
+            rotationX[i] = newX * inverseLength;
+            rotationY[i] = newY * inverseLength;
+            rotationZ[i] = newZ * inverseLength;
+            rotationW[i] = newW * inverseLength;
+
+            grid.move(i, positionX[i], positionZ[i]);
+        }
+    }
+
+    /**
+     * @description
+     * Builds the islands of touching awake bodies with union find and puts the islands to sleep where every body
+     * was at rest for SLEEP_TIME.
+     */
+    private void updateSleep(float interval)
+    {
+        for(int i = 0; i < size; i++)
+        {
+            if(!awake[i])
+            {
+                continue;
+            }
+            float linear = velocityX[i] * velocityX[i] + velocityY[i] * velocityY[i] + velocityZ[i] * velocityZ[i];
+            float angular = angularVelocityX[i] * angularVelocityX[i] + angularVelocityY[i] * angularVelocityY[i] + angularVelocityZ[i] * angularVelocityZ[i];
+            if(linear < SLEEP_LINEAR_SPEED * SLEEP_LINEAR_SPEED && angular < SLEEP_ANGULAR_SPEED * SLEEP_ANGULAR_SPEED)
+            {
+                sleepTime[i] += interval;
+            }
+            else
+            {
+                sleepTime[i] = 0;
+            }
+            islandParent[i] = i;
+            islandSleepTime[i] = Float.MAX_VALUE;
+            islandHead[i] = NONE;
+        }
+
+        for(int c = 0; c < contactCount; c++)
+        {
+            int b = contactB[c];
+            if(b >= 0)
+            {
+                int rootA = findIsland(contactA[c]);
+                int rootB = findIsland(b);
+                if(rootA != rootB)
+                {
+                    islandParent[rootA] = rootB;
+                }
+            }
+        }
+
+        for(int i = 0; i < size; i++)
+        {
+            if(awake[i])
+            {
+                int root = findIsland(i);
+                islandSleepTime[root] = Math.min(islandSleepTime[root], sleepTime[i]);
+            }
+        }
+
+        for(int i = 0; i < size; i++)
+        {
+            if(!awake[i])
+            {
+                continue;
+            }
+            int root = findIsland(i);
+            if(islandSleepTime[root] < SLEEP_TIME)
+            {
+                continue;
+            }
+
+            awake[i] = false;
+            awakeCount--;
+            velocityX[i] = 0;
+            velocityY[i] = 0;
+            velocityZ[i] = 0;
+            angularVelocityX[i] = 0;
+            angularVelocityY[i] = 0;
+            angularVelocityZ[i] = 0;
+
+            // link the bodies of the island into a ring, so touching one of them wakes up all of them
+            int head = islandHead[root];
+            if(head == NONE)
+            {
+                islandHead[root] = i;
+                islandNext[i] = i;
+            }
+            else
+            {
+                islandNext[i] = islandNext[head];
+                islandNext[head] = i;
+            }
+        }
+    }
+
+    private int findIsland(int i)
+    {
+        while(islandParent[i] != i)
+        {
+            islandParent[i] = islandParent[islandParent[i]];
+            i = islandParent[i];
+        }
+        return i;
+    }
+
+    //----------------------------------------------------------------------------------------------------------------
+    // vector helpers, the results are written to resultX, resultY and resultZ
+
+    private void corner(int i, int corner)
+    {
+        rotate(i,
+                (corner & 1) == 0 ? -halfX[i] : halfX[i],
+                (corner & 2) == 0 ? -halfY[i] : halfY[i],
+                (corner & 4) == 0 ? -halfZ[i] : halfZ[i]);
+        resultX += positionX[i];
+        resultY += positionY[i];
+        resultZ += positionZ[i];
+    }
+
+    private void axis(int i, int axis)
+    {
+        rotate(i, axis == 0 ? 1 : 0, axis == 1 ? 1 : 0, axis == 2 ? 1 : 0);
+    }
+
+    private void rotate(int i, float x, float y, float z)
+    {
+        rotate(rotationX[i], rotationY[i], rotationZ[i], rotationW[i], x, y, z);
+    }
+
+    private void inverseRotate(int i, float x, float y, float z)
+    {
+        rotate(-rotationX[i], -rotationY[i], -rotationZ[i], rotationW[i], x, y, z);
+    }
+
+    private void rotate(float qx, float qy, float qz, float qw, float x, float y, float z)
+    {
+        float tx = 2 * (qy * z - qz * y);
+        float ty = 2 * (qz * x - qx * z);
+        float tz = 2 * (qx * y - qy * x);
+        resultX = x + qw * tx + qy * tz - qz * ty;
+        resultY = y + qw * ty + qz * tx - qx * tz;
+        resultZ = z + qw * tz + qx * ty - qy * tx;
+    }
+
+    //----------------------------------------------------------------------------------------------------------------
+
+    public Vector3f getPosition(int id, Vector3f destination)
+    {
+        return destination.set(positionX[id], positionY[id], positionZ[id]);
+    }
+
+    public Quaternionf getRotation(int id, Quaternionf destination)
+    {
+        return destination.set(rotationX[id], rotationY[id], rotationZ[id], rotationW[id]);
+    }
+
+    public Vector3f getVelocity(int id, Vector3f destination)
+    {
+        return destination.set(velocityX[id], velocityY[id], velocityZ[id]);
+    }
+
+    public Vector3f getHalfExtents(int id, Vector3f destination)
+    {
+        return destination.set(halfX[id], halfY[id], halfZ[id]);
+    }
+
+    public boolean isAwake(int id)
+    {
+        return awake[id];
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public int getAwakeCount()
+    {
+        return awakeCount;
+    }
+
+    public int getContactCount()
+    {
+        return contactCount;
+    }
+
+    public float getFriction()
+    {
+        return friction;
+    }
+
+    public void setFriction(float friction)
+    {
+        this.friction = friction;
+    }
+
+    public float getRestitution()
+    {
+        return restitution;
+    }
+
+    public void setRestitution(float restitution)
+    {
+        this.restitution = restitution;
+    }
+
+    public int getIterations()
+    {
+        return iterations;
+    }
+
+    public void setIterations(int iterations)
+    {
+        this.iterations = iterations;
+    }
+}
@@ -0,0 +1,181 @@
+package engine.physics;
+
+import java.util.Arrays;
+
+/**
+ * @description
+ * Uniform grid on the x/z plane for broadphase queries, stored as a hash table of linked lists in int arrays.
+ * Each object id lives in the bucket of its cell. Cells are hashed into a power of two number of buckets,
+ * so the grid is unbounded and its memory only depends on the capacity. Different cells can share a bucket,
+ * the narrowphase has to filter those candidates anyway.
+ *
+ * The lists are doubly linked, so moving an object to another cell is O(1) and objects that stay in their cell
+ * are not touched at all. Objects that are closer than cellSize are always in the same or in neighbouring cells.
+ */
+public class SpatialHashGrid {
+
+    public static final int NONE = -1;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final int bucketMask;
+
+    private final int[] bucketHeads;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] buckets;
+    private final int[] cellX;
+    private final int[] cellZ;
+
+    public SpatialHashGrid(int capacity, float cellSize)
+    {
+        if(cellSize <= 0)
+        {
+            throw new IllegalArgumentException("cellSize has to be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        inverseCellSize = 1f / cellSize;
+
+        int bucketCount = 16;
+        while(bucketCount < capacity * 2)
+        {
+            bucketCount <<= 1;
+        }
+        bucketMask = bucketCount - 1;
+
+        bucketHeads = new int[bucketCount];
+        Arrays.fill(bucketHeads, NONE);
+        next = new int[capacity];
+        previous = new int[capacity];
+        buckets = new int[capacity];
+        Arrays.fill(buckets, NONE);
+        cellX = new int[capacity];
+        cellZ = new int[capacity];
+    }
+
+    public void insert(int id, float x, float z)
+    {
+        if(buckets[id] != NONE)
+        {
+            throw new IllegalStateException("Object is already in the grid: " + id);
+        }
+        cellX[id] = toCell(x);
+        cellZ[id] = toCell(z);
+        link(id, getBucket(cellX[id], cellZ[id]));
+    }
+
+    /**
+     * @description
+     * Updates the cell of an object. The lists are only changed if the object entered another cell.
+     *
+     * @param id
+     * @param x
+     * @param z
+     */
+    public void move(int id, float x, float z)
+    {
+        int newCellX = toCell(x);
+        int newCellZ = toCell(z);
+        if(newCellX == cellX[id] && newCellZ == cellZ[id])
+        {
+            return;
+        }
+
+        cellX[id] = newCellX;
+        cellZ[id] = newCellZ;
+        int bucket = getBucket(newCellX, newCellZ);
+        if(bucket != buckets[id])
+        {
+            unlink(id);
+            link(id, bucket);
+        }
+    }
+
+    public void remove(int id)
+    {
+        if(buckets[id] != NONE)
+        {
+            unlink(id);
+        }
+    }
+
+    private void link(int id, int bucket)
+    {
+        int head = bucketHeads[bucket];
+        next[id] = head;
+        previous[id] = NONE;
+        if(head != NONE)
+        {
+            previous[head] = id;
+        }
+        bucketHeads[bucket] = id;
+        buckets[id] = bucket;
+    }
+
+    private void unlink(int id)
+    {
+        int bucket = buckets[id];
+        if(previous[id] != NONE)
+        {
+            next[previous[id]] = next[id];
+        }
+        else
+        {
+            bucketHeads[bucket] = next[id];
+        }
+        if(next[id] != NONE)
+        {
+            previous[next[id]] = previous[id];
+        }
+        buckets[id] = NONE;
+    }
+
+    private int toCell(float coordinate)
+    {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    public int getBucket(int cellX, int cellZ)
+    {
+        int hash = cellX * 73856093 ^ cellZ * 19349663;
+        return (hash ^ (hash >>> 16)) & bucketMask;
+    }
+
+    public int getBucketCount()
+    {
+        return bucketMask + 1;
+    }
+
+    /**
+     * @param bucket
+     * @return first object id in the bucket or NONE
+     */
+    public int getFirst(int bucket)
+    {
+        return bucketHeads[bucket];
+    }
+
+    /**
+     * @param id
+     * @return next object id in the same bucket or NONE
+     */
+    public int getNext(int id)
+    {
+        return next[id];
+    }
+
+    public int getCellX(int id)
+    {
+        return cellX[id];
+    }
+
+    public int getCellZ(int id)
+    {
+        return cellZ[id];
+    }
+
+    public float getCellSize()
+    {
+        return cellSize;
+    }
+}
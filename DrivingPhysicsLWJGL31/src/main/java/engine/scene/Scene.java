@@ -1,5 +1,6 @@
 package engine.scene;
 
+import engine.mesh.DecalRingBuffer;
 import engine.mesh.Mesh;
 import engine.gameEntities.GameEntity;
 
@@ -11,11 +12,13 @@ import java.util.Map;
 public class Scene {
 
     private Map<Mesh, List<GameEntity>> meshMap;
+    private List<DecalRingBuffer> decals;
     private SceneLight sceneLight;
 
     public Scene()
     {
         meshMap = new HashMap();
+        decals = new ArrayList<>();
     }
 
     public Map<Mesh, List<GameEntity>> getGameMeshes()
@@ -39,12 +42,27 @@ public class Scene {
         }
     }
 
+    public List<DecalRingBuffer> getDecals()
+    {
+        return decals;
+    }
+
+    public void addDecals(DecalRingBuffer decalRingBuffer)
+    {
+        decals.add(decalRingBuffer);
+    }
+
     public void cleanup()
     {
         for (Mesh mesh : meshMap.keySet())
         {
             mesh.cleanUp();
         }
+
+        for (DecalRingBuffer decalRingBuffer : decals)
+        {
+            decalRingBuffer.cleanup();
+        }
     }
 
     public SceneLight getSceneLight()
@@ -12,6 +12,11 @@ public class Conversions {
 
     //Waterflames, http://stackoverflow.com/questions/12088610/conversion-between-euler-quaternion-like-in-unity3d-engine, 15.02.2015
     public static Quaternionf convertEulerToQuaternion(float xRot, float yRot, float zRot) {
+        return convertEulerToQuaternion(xRot, yRot, zRot, new Quaternionf());
+    }
+
+    // writes the result into dest instead of allocating a new quaternion
+    public static Quaternionf convertEulerToQuaternion(float xRot, float yRot, float zRot, Quaternionf dest) {
         xRot = (float) Math.toRadians(xRot);
         yRot = (float)Math.toRadians(yRot);
         zRot = (float)Math.toRadians(zRot);
@@ -25,12 +30,11 @@ public class Conversions {
         double rollOver2 = zRot * 0.5f;
         float cosRollOver2 = (float)Math.cos(rollOver2);
         float sinRollOver2 = (float)Math.sin(rollOver2);
-        Quaternionf result = new Quaternionf();
-        result.w = cosYawOver2 * cosPitchOver2 * cosRollOver2 + sinYawOver2 * sinPitchOver2 * sinRollOver2;
-        result.x = sinYawOver2 * cosPitchOver2 * cosRollOver2 + cosYawOver2 * sinPitchOver2 * sinRollOver2;
-        result.y = cosYawOver2 * sinPitchOver2 * cosRollOver2 - sinYawOver2 * cosPitchOver2 * sinRollOver2;
-        result.z = cosYawOver2 * cosPitchOver2 * sinRollOver2 - sinYawOver2 * sinPitchOver2 * cosRollOver2;
+        dest.w = cosYawOver2 * cosPitchOver2 * cosRollOver2 + sinYawOver2 * sinPitchOver2 * sinRollOver2;
+        dest.x = sinYawOver2 * cosPitchOver2 * cosRollOver2 + cosYawOver2 * sinPitchOver2 * sinRollOver2;
+        dest.y = cosYawOver2 * sinPitchOver2 * cosRollOver2 - sinYawOver2 * cosPitchOver2 * sinRollOver2;
+        dest.z = cosYawOver2 * cosPitchOver2 * sinRollOver2 - sinYawOver2 * sinPitchOver2 * cosRollOver2;
 
-        return result;
+        return dest;
     }
 }
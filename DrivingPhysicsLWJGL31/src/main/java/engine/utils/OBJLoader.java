@@ -1,6 +1,7 @@
 package engine.utils;
 
 import engine.mesh.Mesh;
+import engine.mesh.MeshData;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
@@ -11,8 +12,24 @@ public class OBJLoader {
 
     public static Mesh loadMesh(String fileName) throws Exception
     {
-        List<String> lines = Utils.readAllLines(fileName);
+        return new Mesh(loadMeshData(fileName));
+    }
+
+    /**
+     * @description
+     * Reads and parses an OBJ resource without creating any OpenGL objects.
+     *
+     * @param fileName
+     * @return meshData
+     * @throws Exception
+     */
+    public static MeshData loadMeshData(String fileName) throws Exception
+    {
+        return parseMeshData(Utils.readAllLines(fileName));
+    }
 
+    public static MeshData parseMeshData(List<String> lines)
+    {
         List<Vector3f> vertices = new ArrayList<>();
         List<Vector2f> textures = new ArrayList<>();
         List<Vector3f> normals = new ArrayList<>();
@@ -61,7 +78,7 @@ public class OBJLoader {
         return reorderLists(vertices, textures, normals, faces);
     }
 
-    private static Mesh reorderLists(List<Vector3f> posList, List<Vector2f> textCoordList,
+    private static MeshData reorderLists(List<Vector3f> posList, List<Vector2f> textCoordList,
                                      List<Vector3f> normList, List<Face> facesList)
     {
         List<Integer> indices = new ArrayList();
@@ -89,9 +106,7 @@ public class OBJLoader {
 
         int[] indicesArr = new int[indices.size()];
         indicesArr = indices.stream().mapToInt((Integer v) -> v).toArray();
-        Mesh mesh = new Mesh(posArr, textCoordArr, normArr, indicesArr);
-
-        return mesh;
+        return new MeshData(posArr, textCoordArr, normArr, indicesArr);
     }
 
     private static void processFaceVertex(IdxGroup indices, List<Vector2f> textCoordList,
@@ -12,7 +12,7 @@ public class Utils {
     public static String loadResource(String fileName) throws Exception
     {
         String result = "";
-        try (InputStream in = Utils.class.getClass().getResourceAsStream(fileName))
+        try (InputStream in = Utils.class.getResourceAsStream(fileName))
         {
             result = new Scanner(in, "UTF-8").useDelimiter("\\A").next();
         }
@@ -23,7 +23,7 @@ public class Utils {
     public static List<String> readAllLines(String fileName) throws Exception
     {
         List<String> list = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(Utils.class.getClass().getResourceAsStream(fileName))))
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(Utils.class.getResourceAsStream(fileName))))
         {
             String line;
             while ((line = br.readLine()) != null)
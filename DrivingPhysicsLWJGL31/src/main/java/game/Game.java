@@ -2,10 +2,14 @@ package game;
 
 import engine.camera.Camera;
 import engine.core.EngineOptions;
+import engine.core.FrameProfiler;
+import engine.core.Timer;
 import engine.core.Window;
 import engine.core.Renderer;
 import engine.gameEntities.GameEntity;
-import engine.input.KeyboardInput;
+import engine.gameEntities.TransformSnapshots;
+import engine.input.InputState;
+import engine.mesh.DecalRingBuffer;
 import engine.mesh.Mesh;
 import engine.interfaces.IGameLogic;
 import engine.scene.Scene;
@@ -13,29 +17,41 @@ import engine.shading.Material;
 import engine.texture.Texture;
 import engine.input.MouseInput;
 import engine.utils.Conversions;
-import engine.utils.DebugMeshes;
 import engine.utils.OBJLoader;
 import engine.physics.Physics;
+import engine.physics.RigidBodyWorld;
 import game.car.Car;
+import game.car.CarConfig;
+import game.car.CarFleet;
+import game.car.CarFleetDetail;
+import game.car.CarFleetStepper;
+import game.car.CarVisuals;
 import engine.light.DirectionalLight;
 import engine.scene.SceneLight;
-import game.car.DriveTrain;
-import game.car.Engine;
 import game.environment.GroundType;
+import game.environment.SurfaceMap;
+import game.replay.InputRecorder;
+import game.replay.InputReplay;
+import game.telemetry.TelemetryRing;
+import game.telemetry.TelemetryWriter;
 import org.joml.Math;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 
 import static org.lwjgl.glfw.GLFW.*;
 
 public class Game implements IGameLogic {
 
     private static final float MOUSE_SENSITIVITY = 0.2f;
-    private static final float INPUT_PEDAL_INCREASE = 0.02f;
-    private static final float INPUT_PEDAL_DECREASE = 0.06f;
-    private static final float INPUT_STEERING_SPEED = 0.1f;
+    // per tick, the same rates per second the former per frame values had at 60 fps
+    private static final float INPUT_PEDAL_INCREASE = 0.016f;
+    private static final float INPUT_PEDAL_DECREASE = 0.048f;
+    private static final float INPUT_STEERING_SPEED = 0.08f;
     private static final float INPUT_MAX_VALUE = 1.0f;
 
     private static final float CAMERA_SPEED = 5f;
@@ -43,21 +59,64 @@ public class Game implements IGameLogic {
     private static final float FOLLOW_CAMERA_LERP_SPEED = 5f;
     private static final float MAX_CAMERA_DISTANCE = 100;
     private static final float MIN_CAMERA_DISTANCE = 2.5f;
+    private static final int SKID_MARK_CAPACITY = 500;
+    private static final float SKID_MARK_HALF_SIZE = 0.25f;
+
+    // start with -Dinput.record=<file> to record the car inputs or -Dinput.replay=<file> to replay them
+    private static final String INPUT_RECORD_PROPERTY = "input.record";
+    private static final String INPUT_REPLAY_PROPERTY = "input.replay";
+    private static final String SURFACE_MAP_PROPERTY = "surface.map";
+    // start with -Dtelemetry.file=<file> to stream the per tick car state, see TelemetryCsv to convert it
+    private static final String TELEMETRY_PROPERTY = "telemetry.file";
+    private static final int TELEMETRY_RING_CAPACITY = 16 * 1024;
+
+    // props are boxes in the rigid body world, cars push them as kinematic boxes around their wheels
+    private static final int PROP_CAPACITY = 256;
+    private static final float PROP_CELL_SIZE = 2.5f;
+    private static final float CAR_BODY_OVERHANG = 0.6f;
+    private static final float CAR_BODY_HEIGHT = 1.5f;
+
+    // traffic circling on the sand, every fourth car is parked
+    private static final int TRAFFIC_COLUMNS = 8;
+    private static final int TRAFFIC_ROWS = 6;
+    private static final float TRAFFIC_ORIGIN_X = 150;
+    private static final float TRAFFIC_ORIGIN_Z = -100;
+    private static final float TRAFFIC_SPACING = 40;
+    private static final float TRAFFIC_THROTTLE = 0.6f;
+    private static final float TRAFFIC_STEERING = 0.3f;
 
     private final Renderer renderer;
     private final Camera camera;
     private final Vector3f cameraIncrement;
+    private final Timer frameTimer;
 
     private GroundType road;
     private GroundType sandHard;
     private GroundType sandSoft;
     private GroundType ice;
+    private SurfaceMap surfaceMap;
 
     private int cameraMode;
     private float followCameraDistance = 15f;
 
     private Car[] cars;
-    private int activeCar;
+    private CarVisuals[] carVisuals;
+    private TransformSnapshots transformSnapshots;
+    // only written by update(), the render thread reads it for the follow camera
+    private volatile int activeCar;
+
+    private RigidBodyWorld props;
+    private GameEntity[] propEntities;
+    private boolean[] propsAwake;
+    private final Vector3f propPosition = new Vector3f();
+    private float[] previousCarX;
+    private float[] previousCarZ;
+
+    private CarFleet traffic;
+    private CarFleetDetail trafficDetail;
+    private CarFleetStepper trafficStepper;
+    private float[] trafficInputs;
+    private GameEntity[] trafficEntities;
 
     private Vector3f lightDirection;
     private float directionalLightAngle;
@@ -65,12 +124,22 @@ public class Game implements IGameLogic {
 
     private Scene scene;
     private Hud hud;
+    // published by update(), shown by render()
+    private volatile HudState hudState;
+    private HudState shownHudState;
 
+    // driving controls, only used by update()
     private float throttleInput = 0;
     private float brakeInput = 0;
     private float steeringInput = 0;
     private float handbrakeInput = 0;
 
+    private InputRecorder inputRecorder;
+    private InputReplay inputReplay;
+    private TelemetryRing telemetryRing;
+    private TelemetryWriter telemetryWriter;
+    private long tick;
+
     //DEBUG VALUES
     private int totalUpdates = 0;
     private int totalRenderCycles = 0;
@@ -81,6 +150,7 @@ public class Game implements IGameLogic {
         renderer = new Renderer();
         camera = new Camera();
         cameraIncrement = new Vector3f(0, 0, 0);
+        frameTimer = new Timer();
         directionalLightAngle = 35;
     }
 
@@ -94,6 +164,9 @@ public class Game implements IGameLogic {
         setupLight();
         setupCamera();
         setupHUD();
+        setupInputRecording();
+        setupTelemetry();
+        frameTimer.init();
 
         if(EngineOptions.DEBUG)
         {
@@ -101,6 +174,45 @@ public class Game implements IGameLogic {
         }
     }
 
+    private void setupInputRecording() throws Exception
+    {
+        String replayFile = System.getProperty(INPUT_REPLAY_PROPERTY);
+        String recordFile = System.getProperty(INPUT_RECORD_PROPERTY);
+
+        if(replayFile != null)
+        {
+            inputReplay = new InputReplay(Paths.get(replayFile));
+            if(EngineOptions.DEBUG)
+            {
+                System.out.println("Replaying inputs from: " + replayFile);
+            }
+        }
+        else if(recordFile != null)
+        {
+            inputRecorder = new InputRecorder(Paths.get(recordFile), 1f / EngineOptions.TARGET_UPS);
+            if(EngineOptions.DEBUG)
+            {
+                System.out.println("Recording inputs to: " + recordFile);
+            }
+        }
+    }
+
+    private void setupTelemetry() throws Exception
+    {
+        String telemetryFile = System.getProperty(TELEMETRY_PROPERTY);
+        if(telemetryFile == null)
+        {
+            return;
+        }
+
+        telemetryRing = new TelemetryRing(TELEMETRY_RING_CAPACITY, surfaceMap.getPalette());
+        telemetryWriter = new TelemetryWriter(telemetryRing, Paths.get(telemetryFile), 1f / EngineOptions.TARGET_UPS);
+        if(EngineOptions.DEBUG)
+        {
+            System.out.println("Writing telemetry to: " + telemetryFile);
+        }
+    }
+
     private void setupGameObjects() throws Exception
     {
         ArrayList<GameEntity> gameEntities = new ArrayList<>();
@@ -166,80 +278,163 @@ public class Game implements IGameLogic {
         gameEntities.add(rearLeft_Mesh_Sport);
         gameEntities.add(rearRight_Mesh_Sport);
 
-        // create effect meshes
-        GameEntity[] skidMeshesRoad = new GameEntity[500];
-        GameEntity[] skidMeshesIce = new GameEntity[500];
-        GameEntity[] skidMeshesSand = new GameEntity[500];
-        Mesh meshSkidRoad = DebugMeshes.buildQuad();
-        meshSkidRoad.setMaterial(Materials.DARK_GREY);
-        Mesh meshSkidSand = DebugMeshes.buildQuad();
-        meshSkidSand.setMaterial(Materials.BROWN);
-        Mesh meshSkidIce = DebugMeshes.buildQuad();
-        meshSkidIce.setMaterial(Materials.WHITE);
+        // create skid marks, one instanced ring buffer per surface
+        DecalRingBuffer skidMarksRoad = new DecalRingBuffer(SKID_MARK_CAPACITY, SKID_MARK_HALF_SIZE, Materials.DARK_GREY.getColour());
+        DecalRingBuffer skidMarksSand = new DecalRingBuffer(SKID_MARK_CAPACITY, SKID_MARK_HALF_SIZE, Materials.BROWN.getColour());
+        DecalRingBuffer skidMarksIce = new DecalRingBuffer(SKID_MARK_CAPACITY, SKID_MARK_HALF_SIZE, Materials.WHITE.getColour());
+        skidMarksRoad.init();
+        skidMarksSand.init();
+        skidMarksIce.init();
+        scene.addDecals(skidMarksRoad);
+        scene.addDecals(skidMarksSand);
+        scene.addDecals(skidMarksIce);
+
+        road = new GroundType("road", 0.013f, 0.5f, 0.8f, skidMarksRoad);
+        sandHard = new GroundType("sandHard", 0.08f, 0.25f, 0.4f, skidMarksSand);
+        sandSoft = new GroundType("sandSoft", 0.2f, 0.5f, 0.6f, skidMarksSand);
+        ice = new GroundType("ice", 0.015f, 0.05f, 0.10f, skidMarksIce);
+
+        setupSurfaceMap();
+        setupProps(material, gameEntities);
 
-        for(int i = 0; i < skidMeshesRoad.length; i++)
+        if(EngineOptions.DEBUG)
         {
-            skidMeshesRoad[i] = new GameEntity(meshSkidRoad);
-            skidMeshesRoad[i].setScale(0.5f, 1f, 0.5f);
-            skidMeshesRoad[i].getPosition().y = -1f;
-            gameEntities.add(skidMeshesRoad[i]);
+            // use this section to create and add gameItem for debug purposes
         }
+        // add objects to scene and cars
+        scene.setGameItems(gameEntities);
+
+        Car car_Offroad = CarConfig.OFFROAD.createCar(new Vector3f(0, 0, -2.5f));
+        Car car_Sport = CarConfig.SPORT.createCar(new Vector3f(0, 0, 2.5f));
+        cars = new Car[] {car_Offroad, car_Sport};
+        carVisuals = new CarVisuals[] {new CarVisuals(car_Offroad, meshes_Offroad), new CarVisuals(car_Sport, meshes_Sport)};
 
-        for(int i = 0; i < skidMeshesSand.length; i++)
+        for(int i = 0; i < cars.length; i++)
         {
-            skidMeshesSand[i] = new GameEntity(meshSkidSand);
-            skidMeshesSand[i].setScale(0.5f, 1f, 0.5f);
-            skidMeshesSand[i].getPosition().y = -1f;
-            gameEntities.add(skidMeshesSand[i]);
+            cars[i].setGroundType(road);
+            cars[i].update(0,0,0,0,0);
+            cars[i].update(0,0,0,0,0); //TODO: somehow the wheels are not in the right place after first update
+            carVisuals[i].update();
         }
+        activeCar = 0;
 
-        for(int i = 0; i < skidMeshesIce.length; i++)
+        props.setKinematicBoxCount(cars.length);
+        previousCarX = new float[cars.length];
+        previousCarZ = new float[cars.length];
+        for(int i = 0; i < cars.length; i++)
         {
-            skidMeshesIce[i] = new GameEntity(meshSkidIce);
-            skidMeshesIce[i].setScale(0.5f, 1f, 0.5f);
-            skidMeshesIce[i].getPosition().y = -1f;
-            gameEntities.add(skidMeshesIce[i]);
+            previousCarX[i] = cars[i].getPosition().x;
+            previousCarZ[i] = cars[i].getPosition().z;
         }
 
-        road = new GroundType("road", 0.013f, 0.5f, 0.8f, skidMeshesRoad);
-        sandHard = new GroundType("sandHard", 0.08f, 0.25f, 0.4f, skidMeshesSand);
-        sandSoft = new GroundType("sandSoft", 0.2f, 0.5f, 0.6f, skidMeshesSand);
-        ice = new GroundType("ice", 0.015f, 0.05f, 0.10f, skidMeshesIce);
+        setupTraffic(car_Mesh_Offroad.getMesh(), car_Mesh_Sport.getMesh(), gameEntities);
 
-        if(EngineOptions.DEBUG)
+        // everything update() moves is handed to the renderer through snapshots
+        ArrayList<GameEntity> movingEntities = new ArrayList<>();
+        Collections.addAll(movingEntities, meshes_Offroad);
+        Collections.addAll(movingEntities, meshes_Sport);
+        Collections.addAll(movingEntities, propEntities);
+        Collections.addAll(movingEntities, trafficEntities);
+        transformSnapshots = new TransformSnapshots(movingEntities);
+    }
+
+    private void setupProps(Material material, ArrayList<GameEntity> gameEntities) throws Exception
+    {
+        props = new RigidBodyWorld(PROP_CAPACITY, 2, PROP_CELL_SIZE);
+
+        // cone slalom on the road in front of the cars
+        for(int i = 0; i < 12; i++)
         {
-            // use this section to create and add gameItem for debug purposes
+            props.addBox(10 + i * 5, 0.35f, (i % 2) * 4 - 2, 0.15f, 0.35f, 0.15f, 3f);
+        }
+        // barrier wall on the sand, two rows high
+        for(int row = 0; row < 2; row++)
+        {
+            for(int i = 0; i < 6 - row; i++)
+            {
+                props.addBox(100, 0.45f + row * 0.9f, -5.4f + i * 1.8f + row * 0.9f, 0.15f, 0.45f, 0.9f, 30f);
+            }
         }
-        // add objects to scene and cars
-        scene.setGameItems(gameEntities);
 
-        float[] torqueChart_Offroad = new float[] {0, 395, 435, 455, 480, 470, 395, 300};           //from 0 to 7000 rpm in 1000rpm steps
-        Engine engine_Offroad = new Engine(800, 6400, torqueChart_Offroad);
+        Mesh mesh = OBJLoader.loadMesh("/models/REF_ONE_CUBIC_METER.obj");
+        mesh.setMaterial(material);
+        Vector3f halfExtents = new Vector3f();
+        propEntities = new GameEntity[props.getSize()];
+        propsAwake = new boolean[props.getSize()];
+        for(int i = 0; i < propEntities.length; i++)
+        {
+            GameEntity entity = new GameEntity(mesh);
+            props.getHalfExtents(i, halfExtents);
+            entity.setScale(halfExtents.x * 2, halfExtents.y * 2, halfExtents.z * 2);
+            propEntities[i] = entity;
+            propsAwake[i] = true;
+            gameEntities.add(entity);
+        }
+        updatePropEntities();
+    }
 
-        float[] gearRatios_Offroad = new float[] {-2.90f, 2.66f, 1.78f, 1.30f, 1.0f, 0.74f, 0.50f }; //index 0 = reverse gear
-        DriveTrain driveTrain_Offroad = new DriveTrain(0.7f, 3.42f, gearRatios_Offroad);
+    private void setupTraffic(Mesh offroadBody, Mesh sportBody, ArrayList<GameEntity> gameEntities)
+    {
+        traffic = new CarFleet(TRAFFIC_COLUMNS * TRAFFIC_ROWS);
+        trafficDetail = new CarFleetDetail(traffic);
+        trafficStepper = new CarFleetStepper();
+        trafficInputs = new float[traffic.getCapacity() * CarFleet.INPUT_STRIDE];
+        trafficEntities = new GameEntity[traffic.getCapacity()];
 
-        float[] torqueChart_Sport = new float[] {0, 250, 400, 445, 465, 500, 490, 460};             //from 0 to 7000 rpm in 1000rpm steps
-        Engine engine_Sport = new Engine(800, 6900, torqueChart_Sport);
+        for(int row = 0; row < TRAFFIC_ROWS; row++)
+        {
+            for(int column = 0; column < TRAFFIC_COLUMNS; column++)
+            {
+                boolean isOffroad = (row + column) % 2 == 0;
+                Vector3f position = new Vector3f(TRAFFIC_ORIGIN_X + column * TRAFFIC_SPACING, 0, TRAFFIC_ORIGIN_Z + row * TRAFFIC_SPACING);
+                Car car = (isOffroad ? CarConfig.OFFROAD : CarConfig.SPORT).createCar(position);
+                car.setGroundType(surfaceMap.getGroundType(position.x, position.z));
+                int i = traffic.add(car);
+
+                int offset = i * CarFleet.INPUT_STRIDE;
+                trafficInputs[offset + CarFleet.INPUT_THROTTLE] = i % 4 == 3 ? 0 : TRAFFIC_THROTTLE;
+                trafficInputs[offset + CarFleet.INPUT_STEERING] = i % 2 == 0 ? TRAFFIC_STEERING : -TRAFFIC_STEERING;
+
+                GameEntity entity = new GameEntity(isOffroad ? offroadBody : sportBody);
+                trafficEntities[i] = entity;
+                gameEntities.add(entity);
+            }
+        }
+        updateTrafficEntities();
+    }
 
-        float[] gearRatios_Sport = new float[] {-2.13f, 2.27f, 1.77f, 1.31f, 0.99f, 0.78f, 0.78f };   //index 0 = reverse gear
-        DriveTrain driveTrain_Sport = new DriveTrain(0.7f, 4.09f, gearRatios_Sport);
+    private void setupSurfaceMap() throws Exception
+    {
+        // surface ids: 0 = road; 1 = sandHard; 2 = sandSoft; 3 = ice
+        GroundType[] palette = new GroundType[] {road, sandHard, sandSoft, ice};
 
-        Car car_Offroad = new Car(0.41f, 2.75f, 32.5f, 3.2f,
-                1.57f, 0.1f, 2450, 0.43f,
-                new Vector3f(0, 0, -2.5f), engine_Offroad, driveTrain_Offroad, meshes_Offroad, true, true);
-        Car car_Sport = new Car(0.42f, 1.95f, 28.5f, 2.45f,
-                1.6f, -0.15f, 1490, 0.3f,
-                new Vector3f(0,0, 2.5f), engine_Sport, driveTrain_Sport, meshes_Sport, false, true);
-        cars = new Car[] {car_Offroad, car_Sport};
+        String surfaceMapFile = System.getProperty(SURFACE_MAP_PROPERTY);
+        if(surfaceMapFile != null)
+        {
+            surfaceMap = SurfaceMap.loadBinary(Paths.get(surfaceMapFile), palette);
+            if(EngineOptions.DEBUG)
+            {
+                System.out.println("Loaded surface map: " + surfaceMapFile);
+            }
+            return;
+        }
 
-        for(int i = 0; i < cars.length; i++)
+        // default track: bands along the x axis of the 1000m x 1000m ground plane, 1m per cell
+        surfaceMap = new SurfaceMap(1000, 1000, -500, -500, 1, palette);
+        for(int column = 0; column < surfaceMap.getWidth(); column++)
         {
-            cars[i].setGroundType(road);
-            cars[i].update(0,0,0,0,0);
-            cars[i].update(0,0,0,0,0); //TODO: somehow the wheels are not in the right place after first update
+            float x = surfaceMap.getOriginX() + column + 0.5f;
+            int id;
+            if(x <= -250){ id = 3; }
+            else if(x <= 25) { id = 0; }
+            else if(x <= 250) { id = 1; }
+            else { id = 2; }
+
+            for(int row = 0; row < surfaceMap.getHeight(); row++)
+            {
+                surfaceMap.setId(column, row, id);
+            }
         }
-        activeCar = 0;
     }
 
     private void setupLight()
@@ -267,22 +462,28 @@ public class Game implements IGameLogic {
     }
 
     @Override
-    public void input(Window window, MouseInput mouseInput)
+    public void input(Window window, MouseInput mouseInput, InputState input)
     {
         // Camera controls
-        float cameraSpeed = window.isKeyPressed(GLFW_KEY_LEFT_SHIFT) ? CAMERA_SPEED_FAST : CAMERA_SPEED;
+        if (mouseInput.isRightButtonPressed())
+        {
+            Vector2f rotVec = mouseInput.getDisplVec();
+            camera.moveRotation(rotVec.x * MOUSE_SENSITIVITY, rotVec.y * MOUSE_SENSITIVITY, 0);
+        }
+
+        float cameraSpeed = input.isKeyDown(GLFW_KEY_LEFT_SHIFT) ? CAMERA_SPEED_FAST : CAMERA_SPEED;
         cameraIncrement.set(0, 0, 0);
 
-        if (window.isKeyPressed(GLFW_KEY_W)) { cameraIncrement.z = -cameraSpeed; }
-        else if (window.isKeyPressed(GLFW_KEY_S)) { cameraIncrement.z = cameraSpeed; }
+        if (input.isKeyDown(GLFW_KEY_W)) { cameraIncrement.z = -cameraSpeed; }
+        else if (input.isKeyDown(GLFW_KEY_S)) { cameraIncrement.z = cameraSpeed; }
 
-        if (window.isKeyPressed(GLFW_KEY_A)) { cameraIncrement.x = -cameraSpeed; }
-        else if (window.isKeyPressed(GLFW_KEY_D)) { cameraIncrement.x = cameraSpeed; }
+        if (input.isKeyDown(GLFW_KEY_A)) { cameraIncrement.x = -cameraSpeed; }
+        else if (input.isKeyDown(GLFW_KEY_D)) { cameraIncrement.x = cameraSpeed; }
 
-        if (window.isKeyPressed(GLFW_KEY_Q)) { cameraIncrement.y = -cameraSpeed; }
-        else if (window.isKeyPressed(GLFW_KEY_E)) { cameraIncrement.y = cameraSpeed; }
+        if (input.isKeyDown(GLFW_KEY_Q)) { cameraIncrement.y = -cameraSpeed; }
+        else if (input.isKeyDown(GLFW_KEY_E)) { cameraIncrement.y = cameraSpeed; }
 
-        if(KeyboardInput.isKeyReleased(GLFW_KEY_C))
+        if(input.wasKeyReleased(GLFW_KEY_C))
         {
             cameraMode++;
             cameraMode %= 2;
@@ -295,14 +496,14 @@ public class Game implements IGameLogic {
         if(cameraMode == 1)
         {
             float distanceIncrease = 0.1f;
-            if (window.isKeyPressed(GLFW_KEY_R))
+            if (input.isKeyDown(GLFW_KEY_R))
             {
                 if(followCameraDistance > MIN_CAMERA_DISTANCE)
                 {
                     followCameraDistance -= distanceIncrease;
                 }
             }
-            else if (window.isKeyPressed(GLFW_KEY_F))
+            else if (input.isKeyDown(GLFW_KEY_F))
             {
                 if(followCameraDistance < MAX_CAMERA_DISTANCE)
                 {
@@ -311,27 +512,111 @@ public class Game implements IGameLogic {
             }
         }
 
-        // Toggle active cars
-        if(KeyboardInput.isKeyReleased(GLFW_KEY_V))
+        // Performance overlay
+        if(input.wasKeyReleased(GLFW_KEY_F3))
         {
-            activeCar++;
-            activeCar %= cars.length;
-            if(EngineOptions.DEBUG)
-            {
-                System.out.println("Active Car: " + activeCar);
-            }
+            hud.setPerformanceOverlayVisible(!hud.isPerformanceOverlayVisible());
+            hud.setPerformanceOverlay(FrameProfiler.getSummaryLines());
         }
 
         // Light
-        if(window.isKeyPressed(GLFW_KEY_1)) { directionalLightAngle += 1.0f; }
-        else if(window.isKeyPressed(GLFW_KEY_2)) { directionalLightAngle -= 1.0f;}
+        if(input.isKeyDown(GLFW_KEY_1)) { directionalLightAngle += 1.0f; }
+        else if(input.isKeyDown(GLFW_KEY_2)) { directionalLightAngle -= 1.0f;}
 
-        if(KeyboardInput.isKeyReleased(GLFW_KEY_ESCAPE))
+        if(input.wasKeyReleased(GLFW_KEY_ESCAPE))
         {
             glfwSetWindowShouldClose(window.getWindowHandle(), true);
         }
 
-        if (window.isKeyPressed(GLFW_KEY_UP))
+        if(EngineOptions.DEBUG)
+        {
+            totalInputCalls++;
+        }
+    }
+
+    @Override
+    public void update(float interval, InputState input)
+    {
+        updateControls(input);
+
+        // the replay replaces the controls of the tick
+        int currentCar = activeCar;
+        float throttle = throttleInput;
+        float brake = brakeInput;
+        float steering = steeringInput;
+        float handbrake = handbrakeInput;
+
+        float carInterval = interval;
+        if(inputReplay != null)
+        {
+            if(inputReplay.next())
+            {
+                currentCar = inputReplay.getActiveCar();
+                activeCar = currentCar;
+                throttle = inputReplay.getThrottleInput();
+                brake = inputReplay.getBrakeInput();
+                steering = inputReplay.getSteeringInput();
+                handbrake = inputReplay.getHandbrakeInput();
+                carInterval = inputReplay.getInterval();
+            }
+            else
+            {
+                stopInputReplay();
+            }
+        }
+        else if(inputRecorder != null)
+        {
+            inputRecorder.record(currentCar, throttle, brake, steering, handbrake);
+        }
+
+        Car car = cars[currentCar];
+
+        for(int i = 0; i < cars.length; i++)
+        {
+            updateGroundTypes(cars[i]);
+        }
+        car.update(throttle, brake, steering, handbrake, carInterval);
+        cars[1].update(0, 0, steering, handbrake, carInterval);
+        if(telemetryRing != null)
+        {
+            for(int i = 0; i < cars.length; i++)
+            {
+                telemetryRing.record(tick, i, cars[i]);
+            }
+        }
+        tick++;
+        updateProps(carInterval);
+        updateTraffic(carInterval, car);
+
+        for(int i = 0; i < carVisuals.length; i++)
+        {
+            carVisuals[i].update();
+        }
+        hudState = new HudState(car);
+
+        if(EngineOptions.DEBUG)
+        {
+            totalUpdates++;
+        }
+    }
+
+    /**
+     * @description
+     * Switches the active car on V and moves pedals and steering towards the keys held in this tick.
+     */
+    private void updateControls(InputState input)
+    {
+        // Toggle active cars
+        if(input.wasKeyReleased(GLFW_KEY_V))
+        {
+            activeCar = (activeCar + 1) % cars.length;
+            if(EngineOptions.DEBUG)
+            {
+                System.out.println("Active Car: " + activeCar);
+            }
+        }
+
+        if (input.isKeyDown(GLFW_KEY_UP))
         {
             throttleInput += INPUT_PEDAL_INCREASE;
             if(throttleInput > INPUT_MAX_VALUE)
@@ -348,7 +633,7 @@ public class Game implements IGameLogic {
             }
         }
 
-        if (window.isKeyPressed(GLFW_KEY_DOWN))
+        if (input.isKeyDown(GLFW_KEY_DOWN))
         {
             brakeInput += INPUT_PEDAL_INCREASE;
             if(brakeInput > INPUT_MAX_VALUE)
@@ -365,7 +650,7 @@ public class Game implements IGameLogic {
             }
         }
 
-        if (window.isKeyPressed(GLFW_KEY_LEFT))
+        if (input.isKeyDown(GLFW_KEY_LEFT))
         {
             steeringInput += INPUT_STEERING_SPEED;
             if(steeringInput > INPUT_MAX_VALUE)
@@ -373,7 +658,7 @@ public class Game implements IGameLogic {
                 steeringInput = INPUT_MAX_VALUE;
             }
         }
-        else if (window.isKeyPressed(GLFW_KEY_RIGHT))
+        else if (input.isKeyDown(GLFW_KEY_RIGHT))
         {
             steeringInput -= INPUT_STEERING_SPEED;
             if(steeringInput < -INPUT_MAX_VALUE)
@@ -396,49 +681,113 @@ public class Game implements IGameLogic {
                 steeringInput = 0;
             }
         }
+    }
 
-        if(EngineOptions.DEBUG)
+    private void updateProps(float interval)
+    {
+        for(int i = 0; i < cars.length; i++)
         {
-            totalInputCalls++;
+            Car car = cars[i];
+            Vector3f position = car.getPosition();
+            float velocityX = interval > 0 ? (position.x - previousCarX[i]) / interval : 0;
+            float velocityZ = interval > 0 ? (position.z - previousCarZ[i]) / interval : 0;
+            previousCarX[i] = position.x;
+            previousCarZ[i] = position.z;
+            props.setKinematicBox(i, position.x, position.z, (float) Math.toRadians(-car.getRotation().y),
+                    car.getWheelBase() / 2f + CAR_BODY_OVERHANG, car.getHalfTrackWidth() + car.getWheelRadius() / 2f,
+                    CAR_BODY_HEIGHT, velocityX, velocityZ);
         }
+        props.step(interval);
+        updatePropEntities();
     }
 
-    @Override
-    public void update(float interval, MouseInput mouseInput)
+    private void updatePropEntities()
     {
-        Car car = cars[activeCar];
-        updateCamera(mouseInput, interval);
-        hud.updateCompass(camera.getRotation().y);
-        updateDirectionalLight();
+        // sleeping props do not move, only props that were awake during the last step need a new transform
+        for(int i = 0; i < propEntities.length; i++)
+        {
+            boolean awake = props.isAwake(i);
+            if(awake || propsAwake[i])
+            {
+                propEntities[i].setPosition(props.getPosition(i, propPosition));
+                props.getRotation(i, propEntities[i].getRotation());
+            }
+            propsAwake[i] = awake;
+        }
+    }
 
-        float xPosition = car.getPosition().x;
-        if(xPosition <= -250){ car.setGroundType(ice); }
-        else if(xPosition > -250 && xPosition <= 25) {car.setGroundType(road); }
-        else if(xPosition > 25 && xPosition <= 250) {car.setGroundType(sandHard); }
-        else {car.setGroundType(sandSoft); }
-        cars[activeCar].update(throttleInput, brakeInput, steeringInput, handbrakeInput, interval);
-        cars[1].update(0, 0, steeringInput, handbrakeInput, interval);
-        hud.setStatusText("Speed: " + (int) Conversions.convertMPStoKMH(cars[activeCar].getSpeed()) + "KM/H // CameraMode: c // Switch Car: v");
+    private void updateTraffic(float interval, Car car)
+    {
+        for(int i = 0; i < traffic.size(); i++)
+        {
+            traffic.setGroundType(i, surfaceMap.getGroundType(traffic.getPositionX(i), traffic.getPositionZ(i)));
+        }
 
-        if(EngineOptions.DEBUG)
+        // detail by the distance to the active car, the camera belongs to the render thread
+        Vector3f position = car.getPosition();
+        trafficDetail.update(trafficInputs, position.x, position.z);
+        trafficStepper.step(traffic, trafficInputs, interval);
+        updateTrafficEntities();
+    }
+
+    private void updateTrafficEntities()
+    {
+        for(int i = 0; i < traffic.size(); i++)
         {
-            totalUpdates++;
-            hud.updateDebugHUD(cars[activeCar].frontCombinedForces, cars[activeCar].rearCombinedForces, cars[activeCar].maxFrontAxleForce, cars[activeCar].maxRearAxleForce);
+            GameEntity entity = trafficEntities[i];
+            entity.setPosition(traffic.getPositionX(i), traffic.getPositionY(i), traffic.getPositionZ(i));
+            entity.setRotation(0, -traffic.getHeading(i), 0);
         }
     }
 
-    private void updateCamera(MouseInput mouseInput, float interval)
+    private void updateGroundTypes(Car car)
     {
-        if (mouseInput.isRightButtonPressed())
+        Vector3f[] wheelPositions = car.getWheelPositions();
+        boolean changed = car.setGroundTypes(surfaceMap.getGroundType(wheelPositions[0].x, wheelPositions[0].z),
+                surfaceMap.getGroundType(wheelPositions[1].x, wheelPositions[1].z),
+                surfaceMap.getGroundType(wheelPositions[2].x, wheelPositions[2].z),
+                surfaceMap.getGroundType(wheelPositions[3].x, wheelPositions[3].z));
+
+        if(changed && EngineOptions.DEBUG)
         {
-            Vector2f rotVec = mouseInput.getDisplVec();
-            camera.moveRotation(rotVec.x * MOUSE_SENSITIVITY, rotVec.y * MOUSE_SENSITIVITY, 0);
+            GroundType frontLeft = car.getGroundType(0);
+            GroundType frontRight = car.getGroundType(1);
+            GroundType rearLeft = car.getGroundType(2);
+            GroundType rearRight = car.getGroundType(3);
+            System.out.println();
+            System.out.println("Current ground types: " + frontLeft.getType() + " " + frontRight.getType() + " " + rearLeft.getType() + " " + rearRight.getType());
+            System.out.println("C_ROLL: " + frontLeft.getRollingFriction() + " " + frontRight.getRollingFriction() + " " + rearLeft.getRollingFriction() + " " + rearRight.getRollingFriction());
+            System.out.println("U_SLIDE: " + frontLeft.getSlidingFriction() + " " + frontRight.getSlidingFriction() + " " + rearLeft.getSlidingFriction() + " " + rearRight.getSlidingFriction());
+            System.out.println("U_STATIC: " + frontLeft.getStaticFriction() + " " + frontRight.getStaticFriction() + " " + rearLeft.getStaticFriction() + " " + rearRight.getStaticFriction());
+            System.out.println();
         }
+    }
 
+    private void stopInputReplay()
+    {
+        if(EngineOptions.DEBUG)
+        {
+            System.out.println("Input replay finished after " + inputReplay.getReplayedTicks() + " ticks");
+        }
+
+        try
+        {
+            inputReplay.close();
+        }
+        catch(IOException e)
+        {
+            e.printStackTrace();
+        }
+        inputReplay = null;
+    }
+
+    private void updateCamera(float interval)
+    {
         if(cameraMode == 1)
         {
+            // follows the car where it is drawn, not where the simulation is
             Vector3f position = camera.getPosition();
-            Vector3f carPosition = cars[activeCar].getPosition();
+            Vector3f carPosition = carVisuals[activeCar].getBody().getRenderPosition();
             position.x += (carPosition.x - position.x) * FOLLOW_CAMERA_LERP_SPEED * interval;
             position.z += (carPosition.z + followCameraDistance - position.z) * FOLLOW_CAMERA_LERP_SPEED * interval;
         }
@@ -511,8 +860,19 @@ public class Game implements IGameLogic {
     }
 
     @Override
-    public void render(Window window)
+    public void render(Window window, float alpha)
     {
+        float frameInterval = frameTimer.getElapsedTime();
+
+        updateCamera(frameInterval);
+        hud.updateCompass(camera.getRotation().y);
+        updateDirectionalLight();
+        updateHud();
+        if(FrameProfiler.summarize() && hud.isPerformanceOverlayVisible())
+        {
+            hud.setPerformanceOverlay(FrameProfiler.getSummaryLines());
+        }
+
         hud.updateSize(window);
         renderer.render(window, camera, scene, hud);
 
@@ -522,6 +882,32 @@ public class Game implements IGameLogic {
         }
     }
 
+    @Override
+    public TransformSnapshots getTransformSnapshots()
+    {
+        return transformSnapshots;
+    }
+
+    private void updateHud()
+    {
+        HudState state = hudState;
+        if(state == null || state == shownHudState)
+        {
+            return;
+        }
+
+        // the text mesh is only rebuilt if the text changed
+        if(shownHudState == null || !state.statusText.equals(shownHudState.statusText))
+        {
+            hud.setStatusText(state.statusText);
+        }
+        if(EngineOptions.DEBUG)
+        {
+            hud.updateDebugHUD(state.frontCombinedForces, state.rearCombinedForces, state.maxFrontAxleForce, state.maxRearAxleForce);
+        }
+        shownHudState = state;
+    }
+
     @Override
     public void cleanup()
     {
@@ -529,12 +915,57 @@ public class Game implements IGameLogic {
         scene.cleanup();
         hud.cleanup();
 
+        try
+        {
+            if(inputRecorder != null)
+            {
+                inputRecorder.close();
+            }
+            if(inputReplay != null)
+            {
+                inputReplay.close();
+            }
+            if(telemetryWriter != null)
+            {
+                telemetryWriter.close();
+            }
+        }
+        catch(IOException e)
+        {
+            e.printStackTrace();
+        }
+
         if(EngineOptions.DEBUG)
         {
             System.out.println("Input Cycles: " + totalInputCalls);
             System.out.println("Update Cycles: " + totalUpdates);
             System.out.println("Render Cycles: " + totalRenderCycles);
+            if(telemetryRing != null)
+            {
+                System.out.println("Telemetry Records: " + telemetryWriter.getWrittenRecords() + " written, " + telemetryRing.getDroppedRecords() + " dropped");
+            }
         }
     }
 
+    /**
+     * @description
+     * What the HUD shows about the active car after a tick. Immutable, so update() can publish it to the render thread.
+     */
+    private static final class HudState {
+
+        private final String statusText;
+        private final Vector2f frontCombinedForces;
+        private final Vector2f rearCombinedForces;
+        private final float maxFrontAxleForce;
+        private final float maxRearAxleForce;
+
+        private HudState(Car car)
+        {
+            statusText = "Speed: " + (int) Conversions.convertMPStoKMH(car.getSpeed()) + "KM/H // Gear: " + car.getGear() + " // RPM: " + (int) car.getRpm() + " // CameraMode: c // Switch Car: v";
+            frontCombinedForces = new Vector2f(car.frontCombinedForces);
+            rearCombinedForces = new Vector2f(car.rearCombinedForces);
+            maxFrontAxleForce = car.maxFrontAxleForce;
+            maxRearAxleForce = car.maxRearAxleForce;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package game;
 
 import engine.core.EngineOptions;
+import engine.core.FrameProfiler;
 import engine.gameEntities.GameEntity;
 import engine.interfaces.IHud;
 import engine.gameEntities.TextEntity;
@@ -11,6 +12,8 @@ import org.joml.Math;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 
+import java.util.Arrays;
+
 
 public class Hud implements IHud {
 
@@ -19,9 +22,13 @@ public class Hud implements IHud {
     private static final float COMPASS_NEEDLE_SIZE = 30.0f;
     private static final float DEBUG_DETAILS_SIZE = 30.0f;
     private static final float TEXT_SIZE = 30f;
+    private static final float PERFORMANCE_TEXT_SIZE = 18f;
 
     private static final String FONT_TEXTURE = "/textures/Font_Menlo.png";
     private final GameEntity[] gameEntities;
+    private final GameEntity[] gameEntitiesWithOverlay;
+    private final TextEntity[] performanceLines;
+    private boolean performanceOverlayVisible;
     private final TextEntity statusTextItem;
     private final GameEntity compassItem;
     private  GameEntity debugCircle_maxFrontAxleForce;
@@ -72,6 +79,17 @@ public class Hud implements IHud {
             gameEntities = new GameEntity[]{statusTextItem, compassItem};
         }
 
+        // Create performance overlay, one text per line of the profiler summary
+        performanceLines = new TextEntity[FrameProfiler.SUMMARY_LINES];
+        gameEntitiesWithOverlay = Arrays.copyOf(gameEntities, gameEntities.length + performanceLines.length);
+        for(int i = 0; i < performanceLines.length; i++)
+        {
+            performanceLines[i] = new TextEntity(" ", FONT_TEXTURE, FONT_COLS, FONT_ROWS);
+            performanceLines[i].getMesh().getMaterial().setColor(new Vector3f(1, 1, 0));
+            performanceLines[i].setScale(PERFORMANCE_TEXT_SIZE);
+            gameEntitiesWithOverlay[gameEntities.length + i] = performanceLines[i];
+        }
+
         updateCompass(0);
     }
 
@@ -80,6 +98,31 @@ public class Hud implements IHud {
         this.statusTextItem.setText(statusText);
     }
 
+    /**
+     * @description
+     * Shows the lines of a FrameProfiler summary, only the lines that changed are rebuilt.
+     */
+    public void setPerformanceOverlay(String[] lines)
+    {
+        for(int i = 0; i < performanceLines.length && i < lines.length; i++)
+        {
+            if(!lines[i].equals(performanceLines[i].getText()))
+            {
+                performanceLines[i].setText(lines[i]);
+            }
+        }
+    }
+
+    public void setPerformanceOverlayVisible(boolean performanceOverlayVisible)
+    {
+        this.performanceOverlayVisible = performanceOverlayVisible;
+    }
+
+    public boolean isPerformanceOverlayVisible()
+    {
+        return performanceOverlayVisible;
+    }
+
     public void updateCompass(float angle)
     {
         compassItem.setRotation(0, 0, -angle + 180);
@@ -108,7 +151,17 @@ public class Hud implements IHud {
     //@Override
     public GameEntity[] getGameEntities()
     {
-        return gameEntities;
+        return performanceOverlayVisible ? gameEntitiesWithOverlay : gameEntities;
+    }
+
+    @Override
+    public void cleanup()
+    {
+        // the overlay has to be cleaned up too if it is hidden
+        for(GameEntity gameEntity : gameEntitiesWithOverlay)
+        {
+            gameEntity.getMesh().cleanUp();
+        }
     }
 
     public void updateSize(Window window)
@@ -120,6 +173,11 @@ public class Hud implements IHud {
         finalMargin = margin + TEXT_SIZE;
         this.statusTextItem.setPosition(margin, window.getHeight() - finalMargin, 0);
 
+        for(int i = 0; i < performanceLines.length; i++)
+        {
+            performanceLines[i].setPosition(margin, margin + i * PERFORMANCE_TEXT_SIZE, 0);
+        }
+
         if(EngineOptions.DEBUG)
         {
             finalMargin = margin + DEBUG_DETAILS_SIZE;
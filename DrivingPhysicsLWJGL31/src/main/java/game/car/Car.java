@@ -1,7 +1,6 @@
 package game.car;
 
-import engine.core.EngineOptions;
-import engine.gameEntities.GameEntity;
+import engine.physics.Integrator;
 import engine.physics.Physics;
 import game.environment.GroundType;
 import org.joml.Math;
@@ -26,7 +25,9 @@ import org.joml.Vector3f;
 * ---------------------------------------------------------*/
 public class Car {
 
-    private final GameEntity[] gameEntities;
+    // the steering angle is reduced at least by this step when steering, like the former iterative search did
+    static final float STEERING_STEP = 0.1f;
+
     private final float maxSteeringAngle;
     private final float wheelBase;
     private final float halfWheelBase;
@@ -36,36 +37,38 @@ public class Car {
     private final float wheelRadius;
     private final float wheelDiameter;
     private final float suspensionOffset;
-    private final Engine engine;
-    private final DriveTrain driveTrain;
+    private final DriveForceTable driveForceTable;
+    private final ShiftSchedule shiftSchedule;
     private final boolean isFrontAxlePowered;
     private final boolean isRearAxlePowered;
 
+    private int gear;
     private float carDirectionAngle;
+    private float steeringAngle;
     private float frontWheelSpinAngle;
     private float rearWheelSpinAngle;
 
-    private Vector3f frontWheelsPosition;
-    private Vector3f rearWheelsPosition;
-    private Vector3f frontWheelsForward;
-    private Vector3f frontWheelsLeft;
-    private Vector3f rearWheelsForward;
-    private Vector3f rearWheelsLeft;
-    private Vector3f carUp;
-    private Vector3f rotation;
-    private Vector3f frontSlideDirection;
-    private Vector3f rearSlideDirection;
-
-    private GroundType currentGround;
-    private GameEntity[] currentSkidMeshes;
-    private int skidMeshesIndexCounter = 0;
-
-    private Vector3f position;
-    public Vector2f frontCombinedForces;
-    public Vector2f rearCombinedForces;
+    // all vectors are allocated once and updated in place, so update() does not produce garbage
+    private final Vector3f frontWheelsPosition;
+    private final Vector3f rearWheelsPosition;
+    private final Vector3f frontWheelsForward;
+    private final Vector3f frontWheelsLeft;
+    private final Vector3f rearWheelsForward;
+    private final Vector3f rearWheelsLeft;
+    private final Vector3f carUp;
+    private final Vector3f rotation;
+    private final Vector3f frontSlideDirection;
+    private final Vector3f rearSlideDirection;
+
+    // index: 0 = front left; 1 = front right; 2 = rear left; 3 = rear right
+    private final GroundType[] groundTypes;
+
+    private final Vector3f position;
+    public final Vector2f frontCombinedForces;
+    public final Vector2f rearCombinedForces;
     public float maxFrontAxleForce;
     public float maxRearAxleForce;
-    private Vector3f[] wheelPositions;
+    private final Vector3f[] wheelPositions;
     private boolean isFrontBlocking;
     private boolean isRearBlocking;
     private boolean isFrontSliding;
@@ -77,14 +80,22 @@ public class Car {
     private float speed;
     private float slideSpeed;
     private float weightInNewton;
-    private float rollFrictionForce;
-    private float slideFrictionForce;
+    // roll and slide friction of the whole car with the averaged friction of the axle's wheels
+    private float frontRollFrictionForce;
+    private float rearRollFrictionForce;
+    private float frontSlideFrictionForce;
+    private float rearSlideFrictionForce;
+    private float steeringLimitFactor;
+
+    private Integrator integrator = Integrator.DEFAULT;
+    private float forwardAcceleration;
+    private float accelerationChange;
 
 
     public Car(float cw, float frontArea, float maxSteeringAngle, float wheelBase,
                float trackWidth, float suspensionOffset,
                float mass, float wheelRadius, Vector3f position, Engine engine,
-               DriveTrain driveTrain, GameEntity[] gameEntities, boolean isFrontAxlePowered, boolean isRearAxlePowered)
+               DriveTrain driveTrain, boolean isFrontAxlePowered, boolean isRearAxlePowered)
     {
         float airDensity = 1.23f;
         cDrag = 0.5f * cw * frontArea * airDensity;
@@ -105,31 +116,58 @@ public class Car {
         weightInNewton = mass * Physics.G;
 
         this.position = new Vector3f(position);
-        this.gameEntities = gameEntities;
-        this.engine = engine;
-        this.driveTrain = driveTrain;
+        driveForceTable = DriveForceTable.get(engine, driveTrain, wheelRadius);
+        shiftSchedule = new ShiftSchedule(driveForceTable);
+        gear = ShiftSchedule.FIRST_GEAR;
 
         this.isFrontAxlePowered = isFrontAxlePowered;
         this.isRearAxlePowered = isRearAxlePowered;
 
         maxBrakeForce = mass * 10;
+        frontWheelsPosition = new Vector3f();
+        rearWheelsPosition = new Vector3f();
         frontWheelsForward = new Vector3f();
         frontWheelsLeft = new Vector3f();
         rearWheelsForward = new Vector3f();
         rearWheelsLeft = new Vector3f();
         carUp = new Vector3f(0,1,0);
         rotation = new Vector3f(0,0,0);
-        frontSlideDirection = null;
-        rearSlideDirection = null;
+        frontSlideDirection = new Vector3f();
+        rearSlideDirection = new Vector3f();
         isFrontSliding = false;
         isRearSliding = false;
-        wheelPositions = new Vector3f[4];
+        frontCombinedForces = new Vector2f();
+        rearCombinedForces = new Vector2f();
+        wheelPositions = new Vector3f[] {new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f()};
+        groundTypes = new GroundType[4];
     }
 
+    /**
+     * @description
+     * Advances the car by the interval, split into as many substeps as the integrator asks for.
+     *
+     * @param throttleInput
+     * @param brakeInput
+     * @param steeringInput
+     * @param handbrake
+     * @param interval in seconds
+     */
     public void update(float throttleInput, float brakeInput, float steeringInput, float handbrake, float interval)
     {
-        int gear = driveTrain.getGear(speed);
-        float maxTorque = getDrivingForce(4400, gear);
+        int substeps = integrator.getSubsteps(speed, accelerationChange, interval);
+        float substepInterval = interval / substeps;
+        float startAcceleration = forwardAcceleration;
+        for(int i = 0; i < substeps; i++)
+        {
+            step(throttleInput, brakeInput, steeringInput, substepInterval);
+        }
+        accelerationChange = forwardAcceleration - startAcceleration;
+    }
+
+    private void step(float throttleInput, float brakeInput, float steeringInput, float interval)
+    {
+        gear = shiftSchedule.getGear(speed, gear);
+        float maxTorque = driveForceTable.getDrivingForce(speed, gear);
 
         boolean breaking = brakeInput > 0;
         isFrontBlocking = false;
@@ -158,8 +196,8 @@ public class Car {
             {
                 isFrontSpinning = true;
                 isRearSpinning = true;
-                frontForwardForce = slideFrictionForce  * 0.5f;
-                rearForwardForce = slideFrictionForce * 0.5f;
+                frontForwardForce = frontSlideFrictionForce * 0.5f;
+                rearForwardForce = rearSlideFrictionForce * 0.5f;
             }
             else
             {
@@ -172,7 +210,7 @@ public class Car {
             if(motorForce > maxFrontAxleForce)
             {
                 isFrontSpinning = true;
-                frontForwardForce = slideFrictionForce * 0.5f;
+                frontForwardForce = frontSlideFrictionForce * 0.5f;
             }
             else
             {
@@ -184,7 +222,7 @@ public class Car {
             if(motorForce > maxRearAxleForce)
             {
                 isRearSpinning = true;
-                rearForwardForce = slideFrictionForce * 0.5f;
+                rearForwardForce = rearSlideFrictionForce * 0.5f;
             }
             else
             {
@@ -198,16 +236,16 @@ public class Car {
             if(tempForce > maxFrontAxleForce)
             {
                 isFrontBlocking = true;
-                tempForce = slideFrictionForce * 0.5f;
+                tempForce = frontSlideFrictionForce * 0.5f;
             }
         }
         else if(isFrontSliding)
         {
-            tempForce = slideFrictionForce * 0.5f;
+            tempForce = frontSlideFrictionForce * 0.5f;
         }
         else
         {
-            tempForce = rollFrictionForce * 0.5f;
+            tempForce = frontRollFrictionForce * 0.5f;
         }
         frontForwardForce -= tempForce;
 
@@ -218,31 +256,29 @@ public class Car {
             {
                 isRearBlocking = true;
 
-                tempForce = slideFrictionForce * 0.5f;
+                tempForce = rearSlideFrictionForce * 0.5f;
             }
         }
         else if(isRearSliding)
         {
-            tempForce = slideFrictionForce * 0.5f;
+            tempForce = rearSlideFrictionForce * 0.5f;
         }
         else
         {
-            tempForce = rollFrictionForce * 0.5f;
+            tempForce = rearRollFrictionForce * 0.5f;
         }
         rearForwardForce -= tempForce;
 
-        float fDrag = -cDrag * speed * speed;
-        float forwardForce = frontForwardForce + rearForwardForce + fDrag;
-
-        float forwardAcceleration = forwardForce / mass;
-        speed += forwardAcceleration * interval;
+        float previousSpeed = speed;
+        speed = integrator.integrateVelocity(speed, frontForwardForce + rearForwardForce, cDrag, mass, interval);
+        if(interval > 0)
+        {
+            forwardAcceleration = (speed - previousSpeed) / interval;
+        }
 
         if(isFrontSliding || isRearSliding)
         {
-            float slideDrag = -cDrag * slideSpeed * slideSpeed;
-            float slideForce = -slideFrictionForce + slideDrag;
-            float slideAcceleration = slideForce / mass;
-            slideSpeed += slideAcceleration * interval;
+            slideSpeed = integrator.integrateVelocity(slideSpeed, -(frontSlideFrictionForce + rearSlideFrictionForce) * 0.5f, cDrag, mass, interval);
         }
 
         if(speed < 0 )
@@ -257,8 +293,6 @@ public class Car {
             isRearSliding = false;
             isFrontBlocking = false;
             isRearBlocking = false;
-            frontSlideDirection = null;
-            rearSlideDirection = null;
         }
 
         /*
@@ -284,28 +318,17 @@ public class Car {
         //speed sensitive steering adjustment
         float lateralForce = 0;
         float turnRadius = 0;
-        float steeringAngle = steeringInput * maxSteeringAngle;
+        steeringAngle = steeringInput * maxSteeringAngle;
         if(steeringInput != 0)
         {
-            do
-            {
-                if (steeringInput > 0)
-                {
-                    steeringAngle -= 0.1f;
-                }
-                else
-                {
-                    steeringAngle += 0.1f;
-                }
-                turnRadius = wheelBase / (float) Math.sin(Math.toRadians(steeringAngle));
-                float lateralAcceleration = (speed * speed) / turnRadius;
-                lateralForce = mass * lateralAcceleration;
-            }
-            while (Math.abs(lateralForce) * 0.5f > maxFrontAxleForce);
+            steeringAngle = limitSteeringAngle(steeringAngle, speed, steeringLimitFactor);
+            turnRadius = wheelBase / (float) Math.sin(Math.toRadians(steeringAngle));
+            float lateralAcceleration = (speed * speed) / turnRadius;
+            lateralForce = mass * lateralAcceleration;
         }
 
-        frontCombinedForces = new Vector2f(frontForwardForce, -lateralForce * 0.5f);
-        rearCombinedForces = new Vector2f(rearForwardForce, -lateralForce * 0.5f);
+        frontCombinedForces.set(frontForwardForce, -lateralForce * 0.5f);
+        rearCombinedForces.set(rearForwardForce, -lateralForce * 0.5f);
 
         /*
         float gierRate;
@@ -324,55 +347,55 @@ public class Car {
 
         frontWheelsForward.x = (float) Math.cos(carRotationInclSteeringDegToRad);
         frontWheelsForward.z = (float) Math.sin(carRotationInclSteeringDegToRad);
-        frontWheelsLeft = new Vector3f(new Vector3f(carUp).cross(new Vector3f(frontWheelsForward)));
-        frontWheelsPosition = new Vector3f(position).add(new Vector3f(rearWheelsForward).mul(halfWheelBase));
+        carUp.cross(frontWheelsForward, frontWheelsLeft);
+        frontWheelsPosition.set(position).fma(halfWheelBase, rearWheelsForward);
 
         if(isFrontBlocking && steeringInput != 0)
         {
-            if(frontSlideDirection == null)
+            if(!isFrontSliding)
             {
                 isFrontSliding = true;
                 slideSpeed = speed;
                 speed = 0;
-                frontSlideDirection = new Vector3f(rearWheelsForward).add(new Vector3f(rearWheelsLeft).mul(steeringInput * 0.5f));
+                frontSlideDirection.set(rearWheelsForward).fma(steeringInput * 0.5f, rearWheelsLeft);
                 frontSlideDirection.normalize();
             }
 
-            frontWheelsPosition.add(new Vector3f(frontSlideDirection).mul(slideSpeed * interval));
+            frontWheelsPosition.fma(slideSpeed * interval, frontSlideDirection);
         }
         else if(isFrontSliding)
         {
-            frontWheelsPosition.add(new Vector3f(frontSlideDirection).mul(slideSpeed * interval));
-            frontWheelsPosition.add(new Vector3f(frontWheelsForward).mul(speed * interval));
+            frontWheelsPosition.fma(slideSpeed * interval, frontSlideDirection);
+            frontWheelsPosition.fma(speed * interval, frontWheelsForward);
         }
         else
         {
-            frontWheelsPosition.add(new Vector3f(frontWheelsForward).mul(speed * interval));
+            frontWheelsPosition.fma(speed * interval, frontWheelsForward);
         }
 
         rearWheelsForward.x = (float) Math.cos(carRotationDegToRad);
         rearWheelsForward.z = (float) Math.sin(carRotationDegToRad);
-        rearWheelsLeft = new Vector3f(new Vector3f(carUp).cross(new Vector3f(rearWheelsForward)));
-        rearWheelsPosition = new Vector3f(position).add(new Vector3f(rearWheelsForward).mul(-halfWheelBase));
+        carUp.cross(rearWheelsForward, rearWheelsLeft);
+        rearWheelsPosition.set(position).fma(-halfWheelBase, rearWheelsForward);
         if(isRearBlocking && steeringInput != 0)
         {
-            if(rearSlideDirection == null)
+            if(!isRearSliding)
             {
                 isRearSliding = true;
-                rearSlideDirection = new Vector3f(rearWheelsForward);
+                rearSlideDirection.set(rearWheelsForward);
                 rearSlideDirection.normalize();
             }
 
-            rearWheelsPosition.add(new Vector3f(rearSlideDirection).mul(slideSpeed * interval));
+            rearWheelsPosition.fma(slideSpeed * interval, rearSlideDirection);
         }
         else if(isRearSliding)
         {
-            rearWheelsPosition.add(new Vector3f(rearSlideDirection).mul(slideSpeed * interval));
-            rearWheelsPosition.add(new Vector3f(rearWheelsForward).mul(speed * interval));
+            rearWheelsPosition.fma(slideSpeed * interval, rearSlideDirection);
+            rearWheelsPosition.fma(speed * interval, rearWheelsForward);
         }
         else
         {
-            rearWheelsPosition.add(new Vector3f(rearWheelsForward).mul(speed * interval));
+            rearWheelsPosition.fma(speed * interval, rearWheelsForward);
         }
 
         // set car angles
@@ -383,67 +406,129 @@ public class Car {
         calcWheelPositions();
         setWheelSpinAngle(interval);
         applyPositionRotationAndFakeDynamics(throttleInput, brakeInput, steeringInput);
-        updateVisuals(steeringAngle);
-        updateGroundEffects();
     }
 
-    private float getDrivingForce(float rpm, int gear)
+    /**
+     * @description
+     * The lateral force on the front axle is mass * speed^2 * sin(steeringAngle) / wheelBase / 2.
+     * It has to stay below maxFrontAxleForce, so the steering angle is limited by
+     * sin(steeringAngle) <= steeringLimitFactor / speed^2.
+     * The factor only depends on the car and the ground, so it is calculated when the ground changes.
+     *
+     * @param maxFrontAxleForce
+     * @param wheelBase
+     * @param mass
+     * @return steeringLimitFactor in m^2/s^2
+     */
+    static float calcSteeringLimitFactor(float maxFrontAxleForce, float wheelBase, float mass)
     {
-        if(rpm < engine.idleRpm)
+        return 2f * maxFrontAxleForce * wheelBase / mass;
+    }
+
+    /**
+     * @description
+     * Reduces the steering angle in STEERING_STEP steps (at least one) until the lateral force fits on the front axle.
+     * The number of steps is solved directly instead of searching for it, so the cost is the same at any speed.
+     * If the steps would reach or cross zero and reverse the steering, the result is the largest angle in the
+     * requested direction that fits instead: at high speed on low grip the allowed angle can be smaller than one step.
+     *
+     * @param steeringAngle requested steering angle in degrees, not 0
+     * @param speed
+     * @param steeringLimitFactor see calcSteeringLimitFactor
+     * @return limited steering angle in degrees
+     */
+    static float limitSteeringAngle(float steeringAngle, float speed, float steeringLimitFactor)
+    {
+        float absoluteAngle = Math.abs(steeringAngle);
+        float speedSquared = speed * speed;
+        float maxAngle = absoluteAngle;
+        int steps = 1;
+        if(speedSquared > steeringLimitFactor)
         {
-            rpm = engine.idleRpm;
+            maxAngle = (float) Math.toDegrees(java.lang.Math.asin(steeringLimitFactor / speedSquared));
+            steps = java.lang.Math.max(1, (int) java.lang.Math.ceil((absoluteAngle - maxAngle) / STEERING_STEP));
         }
-        if(rpm > engine.maxRpm)
+        float limitedAngle = absoluteAngle - steps * STEERING_STEP;
+        if(limitedAngle <= 0)
         {
-            rpm = engine.maxRpm;
+            limitedAngle = java.lang.Math.min(absoluteAngle, maxAngle);
         }
-        int index = (int)(rpm / 1000);
 
-        // interpolate torque
-        float torque_1 = engine.torqueChart[index];
-        float torque_2 = engine.torqueChart[index + 1];
-        float rpm_1 = (index) * 1000;
-        float rpm_2 = (index + 1) * 1000;
+        return steeringAngle > 0 ? limitedAngle : -limitedAngle;
+    }
 
-        float torque = torque_1 + (((rpm - rpm_1) / (rpm_2 - rpm_1)) * (torque_2 - torque_1));
+    /**
+     * @description
+     * Sets the integration scheme and substep thresholds used by update(), default is Integrator.DEFAULT.
+     * CarFleet does not copy it and always steps its vehicles with the default.
+     *
+     * @param integrator
+     */
+    public void setIntegrator(Integrator integrator)
+    {
+        this.integrator = integrator;
+    }
 
-        return torque * driveTrain.gearRatios[gear] * driveTrain.diffRatio * driveTrain.driveTrainEfficiency / wheelRadius;
+    public Integrator getIntegrator()
+    {
+        return integrator;
     }
 
+    /**
+     * @description
+     * Sets the same ground type for all four wheels.
+     *
+     * @param groundType
+     */
     public void setGroundType(GroundType groundType)
     {
-        // get the current ground surface to calculate friction forces
-        if(currentGround != groundType)
-        {
-            currentGround = groundType;
-            currentSkidMeshes = groundType.getSkidMeshes();
-
-            // calculate friction forces
-            maxFrontAxleForce = currentGround.getStaticFriction() * (weightInNewton * 0.5f);
-            maxRearAxleForce = currentGround.getStaticFriction() * (weightInNewton * 0.5f);
-            rollFrictionForce = currentGround.getRollingFriction() * weightInNewton;
-            slideFrictionForce = currentGround.getSlidingFriction() * weightInNewton;
+        setGroundTypes(groundType, groundType, groundType, groundType);
+    }
 
-            if(EngineOptions.DEBUG)
-            {
-                System.out.println();
-                System.out.println("Current ground type: " + currentGround.getType());
-                System.out.println("C_ROLL: " + currentGround.getRollingFriction());
-                System.out.println("U_SLIDE: " + currentGround.getSlidingFriction());
-                System.out.println("U_STATIC: " + currentGround.getStaticFriction());
-                System.out.println();
-            }
-        }
+    /**
+     * @description
+     * Sets the ground type under each wheel. Each wheel carries a quarter of the weight,
+     * so the friction of an axle is the average of its two wheels.
+     *
+     * @param frontLeft
+     * @param frontRight
+     * @param rearLeft
+     * @param rearRight
+     * @return true if the ground type under any wheel changed
+     */
+    public boolean setGroundTypes(GroundType frontLeft, GroundType frontRight, GroundType rearLeft, GroundType rearRight)
+    {
+        if(groundTypes[0] == frontLeft && groundTypes[1] == frontRight && groundTypes[2] == rearLeft && groundTypes[3] == rearRight)
+        {
+            return false;
+        }
+        groundTypes[0] = frontLeft;
+        groundTypes[1] = frontRight;
+        groundTypes[2] = rearLeft;
+        groundTypes[3] = rearRight;
+
+        // calculate friction forces
+        float frontStaticFriction = (frontLeft.getStaticFriction() + frontRight.getStaticFriction()) * 0.5f;
+        float rearStaticFriction = (rearLeft.getStaticFriction() + rearRight.getStaticFriction()) * 0.5f;
+        maxFrontAxleForce = frontStaticFriction * (weightInNewton * 0.5f);
+        maxRearAxleForce = rearStaticFriction * (weightInNewton * 0.5f);
+        frontRollFrictionForce = ((frontLeft.getRollingFriction() + frontRight.getRollingFriction()) * 0.5f) * weightInNewton;
+        rearRollFrictionForce = ((rearLeft.getRollingFriction() + rearRight.getRollingFriction()) * 0.5f) * weightInNewton;
+        frontSlideFrictionForce = ((frontLeft.getSlidingFriction() + frontRight.getSlidingFriction()) * 0.5f) * weightInNewton;
+        rearSlideFrictionForce = ((rearLeft.getSlidingFriction() + rearRight.getSlidingFriction()) * 0.5f) * weightInNewton;
+        steeringLimitFactor = calcSteeringLimitFactor(maxFrontAxleForce, wheelBase, mass);
+
+        return true;
     }
 
     private void calcWheelPositions()
     {
         frontWheelsPosition.y = wheelRadius;
         rearWheelsPosition.y = wheelRadius;
-        wheelPositions[0] = new Vector3f(frontWheelsPosition).add(new Vector3f(rearWheelsLeft).mul(halfTrackWidth));
-        wheelPositions[1] = new Vector3f(frontWheelsPosition).add(new Vector3f(rearWheelsLeft).mul(-halfTrackWidth));
-        wheelPositions[2] = new Vector3f(rearWheelsPosition).add(new Vector3f(rearWheelsLeft).mul(halfTrackWidth));
-        wheelPositions[3] = new Vector3f(rearWheelsPosition).add(new Vector3f(rearWheelsLeft).mul(-halfTrackWidth));
+        wheelPositions[0].set(frontWheelsPosition).fma(halfTrackWidth, rearWheelsLeft);
+        wheelPositions[1].set(frontWheelsPosition).fma(-halfTrackWidth, rearWheelsLeft);
+        wheelPositions[2].set(rearWheelsPosition).fma(halfTrackWidth, rearWheelsLeft);
+        wheelPositions[3].set(rearWheelsPosition).fma(-halfTrackWidth, rearWheelsLeft);
     }
 
     private void setWheelSpinAngle(float interval)
@@ -492,97 +577,196 @@ public class Car {
         }
         weightShiftLeftRightAngle *= steeringInput;
 
-        Vector3f tempV = new Vector3f(frontWheelsPosition).add(rearWheelsPosition);
-        tempV.div(2f);
-        position = new Vector3f(tempV);
+        position.set(frontWheelsPosition).add(rearWheelsPosition);
+        position.div(2f);
 
         position.y = wheelRadius + suspensionOffset;
         rotation.set(weightShiftLeftRightAngle, -carDirectionAngle, weightShiftFrontBackAngle);
     }
 
-    private void updateVisuals(float steeringAngle)
+    public Vector3f getPosition()
     {
-        //index: 0 = car_body; 1 = car_Axles; 2 = front left wheel; 3 = front right wheel; 4 = rear left wheel; 5 = rear right wheel;
+        return position;
+    }
 
-        GameEntity carPart = gameEntities[0];
-        carPart.setPosition(position);
-        carPart.setRotation(rotation);
+    public float getSpeed()
+    {
+        return speed;
+    }
 
-        carPart = gameEntities[1];
-        carPart.setPosition(position);
-        carPart.getPosition().y = wheelRadius;
-        carPart.setRotation(0, rotation.y, 0);
+    public float getSlideSpeed()
+    {
+        return slideSpeed;
+    }
 
-        carPart = gameEntities[2];
-        carPart.setPosition(wheelPositions[0]);
-        carPart.setRotation(0, rotation.y + steeringAngle, frontWheelSpinAngle);
-        carPart.setScale(wheelDiameter);
+    public Vector3f getRotation()
+    {
+        return rotation;
+    }
 
-        carPart = gameEntities[3];
-        carPart.setPosition(wheelPositions[1]);
-        carPart.setRotation(0, rotation.y + 180 + steeringAngle, -frontWheelSpinAngle);
-        carPart.setScale(wheelDiameter);
+    public Vector3f[] getWheelPositions()
+    {
+        return wheelPositions;
+    }
 
-        carPart = gameEntities[4];
-        carPart.setPosition(wheelPositions[2]);
-        carPart.setRotation(0, rotation.y, rearWheelSpinAngle);
-        carPart.setScale(wheelDiameter);
+    public float getSteeringAngle()
+    {
+        return steeringAngle;
+    }
 
-        carPart = gameEntities[5];
-        carPart.setPosition(wheelPositions[3]);
-        carPart.setRotation(0, rotation.y + 180, -rearWheelSpinAngle);
-        carPart.setScale(wheelDiameter);
+    public float getFrontWheelSpinAngle()
+    {
+        return frontWheelSpinAngle;
     }
 
-    private void updateGroundEffects()
+    public float getRearWheelSpinAngle()
     {
-        float skidMeshesHeight = 0.05f;
-        GameEntity skidMesh;
-        if(isFrontBlocking || isFrontSliding || isFrontSpinning)
-        {
-            int index = skidMeshesIndexCounter %= currentSkidMeshes.length;
-            skidMesh = currentSkidMeshes[index];
-            skidMesh.setPosition(wheelPositions[0]);
-            skidMesh.getPosition().y = skidMeshesHeight;
-            skidMesh.setRotation(rotation);
+        return rearWheelSpinAngle;
+    }
 
-            skidMeshesIndexCounter++;
-            index = skidMeshesIndexCounter %= currentSkidMeshes.length;
-            skidMesh = currentSkidMeshes[index];
-            skidMesh.setPosition(wheelPositions[1]);
-            skidMesh.getPosition().y = skidMeshesHeight;
-            skidMesh.setRotation(rotation);
-        }
+    public int getGear()
+    {
+        return gear;
+    }
 
-        if(isRearBlocking || isRearSliding || isRearSpinning)
-        {
-            skidMeshesIndexCounter++;
-            int index = skidMeshesIndexCounter %= currentSkidMeshes.length;
-            skidMesh = currentSkidMeshes[index];
-            skidMesh.setPosition(wheelPositions[2]);
-            skidMesh.getPosition().y = skidMeshesHeight;
-            skidMesh.setRotation(rotation);
+    public float getRpm()
+    {
+        return driveForceTable.getRpm(speed, gear);
+    }
 
-            skidMeshesIndexCounter++;
-            index = skidMeshesIndexCounter %= currentSkidMeshes.length;
-            skidMesh = currentSkidMeshes[index];
-            skidMesh.setPosition(wheelPositions[3]);
-            skidMesh.getPosition().y = skidMeshesHeight;
-            skidMesh.setRotation(rotation);
+    public float getWheelRadius()
+    {
+        return wheelRadius;
+    }
 
-            skidMeshesIndexCounter++;
-        }
+    public float getWheelDiameter()
+    {
+        return wheelDiameter;
     }
 
-    public Vector3f getPosition()
+    public float getWheelBase()
     {
-        return position;
+        return wheelBase;
     }
 
-    public float getSpeed()
+    public float getHalfTrackWidth()
     {
-        return speed;
+        return halfTrackWidth;
     }
 
-}
+    /**
+     * @param wheel 0 = front left; 1 = front right; 2 = rear left; 3 = rear right
+     * @return ground type under the wheel
+     */
+    public GroundType getGroundType(int wheel)
+    {
+        return groundTypes[wheel];
+    }
 
+    public boolean isFrontSkidding()
+    {
+        return isFrontBlocking || isFrontSliding || isFrontSpinning;
+    }
+
+    public boolean isRearSkidding()
+    {
+        return isRearBlocking || isRearSliding || isRearSpinning;
+    }
+
+    public boolean isFrontSliding()
+    {
+        return isFrontSliding;
+    }
+
+    public boolean isRearSliding()
+    {
+        return isRearSliding;
+    }
+
+    public boolean isFrontBlocking()
+    {
+        return isFrontBlocking;
+    }
+
+    public boolean isRearBlocking()
+    {
+        return isRearBlocking;
+    }
+
+    public boolean isFrontSpinning()
+    {
+        return isFrontSpinning;
+    }
+
+    public boolean isRearSpinning()
+    {
+        return isRearSpinning;
+    }
+
+    // package private accessors used to copy a car into a CarFleet
+
+    float getCDrag()
+    {
+        return cDrag;
+    }
+
+    float getMaxSteeringAngle()
+    {
+        return maxSteeringAngle;
+    }
+
+    float getSuspensionOffset()
+    {
+        return suspensionOffset;
+    }
+
+    float getMass()
+    {
+        return mass;
+    }
+
+    float getMaxBrakeForce()
+    {
+        return maxBrakeForce;
+    }
+
+    DriveForceTable getDriveForceTable()
+    {
+        return driveForceTable;
+    }
+
+    ShiftSchedule getShiftSchedule()
+    {
+        return shiftSchedule;
+    }
+
+    boolean isFrontAxlePowered()
+    {
+        return isFrontAxlePowered;
+    }
+
+    boolean isRearAxlePowered()
+    {
+        return isRearAxlePowered;
+    }
+
+    float getCarDirectionAngle()
+    {
+        return carDirectionAngle;
+    }
+
+    Vector3f getRearWheelsForward()
+    {
+        return rearWheelsForward;
+    }
+
+    Vector3f getFrontSlideDirection()
+    {
+        return frontSlideDirection;
+    }
+
+    Vector3f getRearSlideDirection()
+    {
+        return rearSlideDirection;
+    }
+}
@@ -0,0 +1,134 @@
+package game.car;
+
+import org.joml.Vector3f;
+
+/**
+ * @description
+ * The construction parameters of a car, so a variant can be described, copied with single changes
+ * and built as many times as needed, for example by the game and by a parameter sweep.
+ * See the Car constructor for the meaning and units of the parameters.
+ */
+public class CarConfig {
+
+    public static final CarConfig OFFROAD = new CarConfig("offroad", 0.41f, 2.75f, 32.5f, 3.2f,
+            1.57f, 0.1f, 2450, 0.43f,
+            new Engine(800, 6400, new float[] {0, 395, 435, 455, 480, 470, 395, 300}),               //from 0 to 7000 rpm in 1000rpm steps
+            new DriveTrain(0.7f, 3.42f, new float[] {-2.90f, 2.66f, 1.78f, 1.30f, 1.0f, 0.74f, 0.50f }), //index 0 = reverse gear
+            true, true);
+
+    public static final CarConfig SPORT = new CarConfig("sport", 0.42f, 1.95f, 28.5f, 2.45f,
+            1.6f, -0.15f, 1490, 0.3f,
+            new Engine(800, 6900, new float[] {0, 250, 400, 445, 465, 500, 490, 460}),               //from 0 to 7000 rpm in 1000rpm steps
+            new DriveTrain(0.7f, 4.09f, new float[] {-2.13f, 2.27f, 1.77f, 1.31f, 0.99f, 0.78f, 0.78f }), //index 0 = reverse gear
+            false, true);
+
+    public final String name;
+    public final float cw;
+    public final float frontArea;
+    public final float maxSteeringAngle;
+    public final float wheelBase;
+    public final float trackWidth;
+    public final float suspensionOffset;
+    public final float mass;
+    public final float wheelRadius;
+    public final Engine engine;
+    public final DriveTrain driveTrain;
+    public final boolean isFrontAxlePowered;
+    public final boolean isRearAxlePowered;
+
+    public CarConfig(String name, float cw, float frontArea, float maxSteeringAngle, float wheelBase,
+                     float trackWidth, float suspensionOffset, float mass, float wheelRadius,
+                     Engine engine, DriveTrain driveTrain, boolean isFrontAxlePowered, boolean isRearAxlePowered)
+    {
+        this.name = name;
+        this.cw = cw;
+        this.frontArea = frontArea;
+        this.maxSteeringAngle = maxSteeringAngle;
+        this.wheelBase = wheelBase;
+        this.trackWidth = trackWidth;
+        this.suspensionOffset = suspensionOffset;
+        this.mass = mass;
+        this.wheelRadius = wheelRadius;
+        this.engine = engine;
+        this.driveTrain = driveTrain;
+        this.isFrontAxlePowered = isFrontAxlePowered;
+        this.isRearAxlePowered = isRearAxlePowered;
+    }
+
+    public Car createCar(Vector3f position)
+    {
+        return new Car(cw, frontArea, maxSteeringAngle, wheelBase,
+                trackWidth, suspensionOffset, mass, wheelRadius,
+                position, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    public CarConfig withName(String name)
+    {
+        return new CarConfig(name, cw, frontArea, maxSteeringAngle, wheelBase, trackWidth, suspensionOffset,
+                mass, wheelRadius, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    public CarConfig withCw(float cw)
+    {
+        return new CarConfig(name, cw, frontArea, maxSteeringAngle, wheelBase, trackWidth, suspensionOffset,
+                mass, wheelRadius, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    public CarConfig withFrontArea(float frontArea)
+    {
+        return new CarConfig(name, cw, frontArea, maxSteeringAngle, wheelBase, trackWidth, suspensionOffset,
+                mass, wheelRadius, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    public CarConfig withMass(float mass)
+    {
+        return new CarConfig(name, cw, frontArea, maxSteeringAngle, wheelBase, trackWidth, suspensionOffset,
+                mass, wheelRadius, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    public CarConfig withWheelRadius(float wheelRadius)
+    {
+        return new CarConfig(name, cw, frontArea, maxSteeringAngle, wheelBase, trackWidth, suspensionOffset,
+                mass, wheelRadius, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    public CarConfig withEngine(Engine engine)
+    {
+        return new CarConfig(name, cw, frontArea, maxSteeringAngle, wheelBase, trackWidth, suspensionOffset,
+                mass, wheelRadius, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    public CarConfig withDriveTrain(DriveTrain driveTrain)
+    {
+        return new CarConfig(name, cw, frontArea, maxSteeringAngle, wheelBase, trackWidth, suspensionOffset,
+                mass, wheelRadius, engine, driveTrain, isFrontAxlePowered, isRearAxlePowered);
+    }
+
+    /**
+     * @param factor
+     * @return copy with every value of the torque chart multiplied by factor
+     */
+    public CarConfig withTorqueScale(float factor)
+    {
+        float[] torqueChart = new float[engine.torqueChart.length];
+        for(int i = 0; i < torqueChart.length; i++)
+        {
+            torqueChart[i] = engine.torqueChart[i] * factor;
+        }
+        return withEngine(new Engine(engine.idleRpm, engine.maxRpm, torqueChart));
+    }
+
+    /**
+     * @param factor
+     * @return copy with every gear ratio multiplied by factor
+     */
+    public CarConfig withGearRatioScale(float factor)
+    {
+        float[] gearRatios = new float[driveTrain.gearRatios.length];
+        for(int i = 0; i < gearRatios.length; i++)
+        {
+            gearRatios[i] = driveTrain.gearRatios[i] * factor;
+        }
+        return withDriveTrain(new DriveTrain(driveTrain.driveTrainEfficiency, driveTrain.diffRatio, gearRatios));
+    }
+}
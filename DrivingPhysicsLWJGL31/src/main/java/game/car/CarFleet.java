@@ -0,0 +1,1080 @@
+package game.car;
+
+import engine.physics.Physics;
+import game.environment.GroundType;
+import org.joml.Math;
+
+/**
+ * @description
+ * Stores the state of many cars in primitive arrays (structure of arrays) and steps all of them at once.
+ * It runs the same force model as Car.update, but without the per car object graph,
+ * so large traffic scenarios stay cache friendly and produce no garbage while stepping.
+ *
+ * Vehicles are added by copying the parameters and the current state of a Car.
+ * Inputs are passed as one float array with INPUT_STRIDE values per vehicle.
+ * Vehicles are always stepped once per interval with semi-implicit Euler, the integrator of a Car is not copied.
+ *
+ * Every vehicle has a physics detail, see setDetail. Vehicles with DETAIL_FULL run the force model above,
+ * DETAIL_KINEMATIC vehicles a cheaper kinematic model and DETAIL_DORMANT vehicles are not stepped at all.
+ *
+ * The longitudinal pass of the batched step runs on a LongitudinalKernel. On Java 17 or later, started with
+ * --add-modules jdk.incubator.vector, that is VectorLongitudinalKernel (src/main/java17) with explicit SIMD
+ * lanes. Everywhere else stepLongitudinalBatch is the scalar fallback. The fields without access modifier
+ * are the arrays the kernels read and write.
+ */
+public class CarFleet {
+
+    public static final int INPUT_STRIDE = 4;
+    public static final int INPUT_THROTTLE = 0;
+    public static final int INPUT_BRAKE = 1;
+    public static final int INPUT_STEERING = 2;
+    public static final int INPUT_HANDBRAKE = 3;
+
+    public static final int FRONT_AXLE_POWERED = 1;
+    public static final int REAR_AXLE_POWERED = 1 << 1;
+    public static final int FRONT_SLIDING = 1 << 2;
+    public static final int REAR_SLIDING = 1 << 3;
+    public static final int FRONT_BLOCKING = 1 << 4;
+    public static final int REAR_BLOCKING = 1 << 5;
+    public static final int FRONT_SPINNING = 1 << 6;
+    public static final int REAR_SPINNING = 1 << 7;
+
+    public static final int DETAIL_FULL = 0;
+    public static final int DETAIL_KINEMATIC = 1;
+    public static final int DETAIL_DORMANT = 2;
+
+    static final int TICK_FLAGS = FRONT_BLOCKING | REAR_BLOCKING | FRONT_SPINNING | REAR_SPINNING;
+
+    // vehicles per block of the batched step, small enough that the scratch values of a block stay in cache
+    static final int BATCH_SIZE = 256;
+    // slide velocities below this after a collision are dropped instead of starting a slide, in m/s
+    private static final float MIN_SLIDE_SPEED = 0.01f;
+    // time over which pose and speed of both models are mixed after a switch between full and kinematic detail, in seconds
+    private static final float DETAIL_BLEND_TIME = 0.5f;
+    private static final float KINEMATIC_TURN_RATE = 2f / 3f;
+
+    // null if the runtime can not load it, see LongitudinalKernel
+    private static final LongitudinalKernel VECTOR_KERNEL = loadVectorKernel();
+
+    private final int capacity;
+    private int size;
+
+    // parameters
+    final float[] cDrag;
+    final float[] mass;
+    private final float[] maxSteeringAngle;
+    private final float[] wheelBase;
+    private final float[] halfWheelBase;
+    private final float[] halfTrackWidth;
+    private final float[] rideHeight;
+    final float[] maxBrakeForce;
+    private final float[] weightInNewton;
+    private final ShiftSchedule[] shiftSchedules;
+    private final DriveForceTable[] driveForceTables;
+
+    // per ground friction
+    private final GroundType[] groundTypes;
+    final float[] maxFrontAxleForce;
+    final float[] maxRearAxleForce;
+    final float[] rollFrictionForce;
+    final float[] slideFrictionForce;
+    private final float[] steeringLimitFactor;
+
+    // state
+    private final float[] positionX;
+    private final float[] positionZ;
+    private final float[] heading;
+    final float[] speed;
+    final float[] slideSpeed;
+    private final int[] gears;
+    final int[] flags;
+    private final float[] rearForwardX;
+    private final float[] rearForwardZ;
+    private final float[] frontSlideDirectionX;
+    private final float[] frontSlideDirectionZ;
+    private final float[] rearSlideDirectionX;
+    private final float[] rearSlideDirectionZ;
+
+    // level of detail, the blend is the share of the previous model: 1 right after a switch, 0 once it is done
+    private final byte[] detail;
+    private final float[] detailBlend;
+
+    // scratch values of the batched step, indexed like the vehicles so disjoint ranges can run in parallel
+    final float[] maxDrivingForce;
+    final float[] throttleInputs;
+    final float[] brakeInputs;
+    private boolean batched = true;
+    private boolean vectorized = VECTOR_KERNEL != null;
+
+    public CarFleet(int capacity)
+    {
+        this.capacity = capacity;
+
+        cDrag = new float[capacity];
+        mass = new float[capacity];
+        maxSteeringAngle = new float[capacity];
+        wheelBase = new float[capacity];
+        halfWheelBase = new float[capacity];
+        halfTrackWidth = new float[capacity];
+        rideHeight = new float[capacity];
+        maxBrakeForce = new float[capacity];
+        weightInNewton = new float[capacity];
+        shiftSchedules = new ShiftSchedule[capacity];
+        driveForceTables = new DriveForceTable[capacity];
+
+        groundTypes = new GroundType[capacity];
+        maxFrontAxleForce = new float[capacity];
+        maxRearAxleForce = new float[capacity];
+        rollFrictionForce = new float[capacity];
+        slideFrictionForce = new float[capacity];
+        steeringLimitFactor = new float[capacity];
+
+        positionX = new float[capacity];
+        positionZ = new float[capacity];
+        heading = new float[capacity];
+        speed = new float[capacity];
+        slideSpeed = new float[capacity];
+        gears = new int[capacity];
+        flags = new int[capacity];
+        rearForwardX = new float[capacity];
+        rearForwardZ = new float[capacity];
+        frontSlideDirectionX = new float[capacity];
+        frontSlideDirectionZ = new float[capacity];
+        rearSlideDirectionX = new float[capacity];
+        rearSlideDirectionZ = new float[capacity];
+
+        detail = new byte[capacity];
+        detailBlend = new float[capacity];
+
+        maxDrivingForce = new float[capacity];
+        throttleInputs = new float[capacity];
+        brakeInputs = new float[capacity];
+    }
+
+    /**
+     * @description
+     * Adds a vehicle with the parameters and the current state of the given car.
+     * The car itself is not referenced afterwards.
+     *
+     * @param car
+     * @return index of the vehicle in this fleet
+     */
+    public int add(Car car)
+    {
+        if(size == capacity)
+        {
+            throw new IllegalStateException("CarFleet is full, capacity: " + capacity);
+        }
+        int i = size++;
+
+        cDrag[i] = car.getCDrag();
+        mass[i] = car.getMass();
+        maxSteeringAngle[i] = car.getMaxSteeringAngle();
+        wheelBase[i] = car.getWheelBase();
+        halfWheelBase[i] = car.getWheelBase() / 2f;
+        halfTrackWidth[i] = car.getHalfTrackWidth();
+        rideHeight[i] = car.getWheelRadius() + car.getSuspensionOffset();
+        maxBrakeForce[i] = car.getMaxBrakeForce();
+        weightInNewton[i] = car.getMass() * Physics.G;
+
+        // table and schedule are shared with the car, they only depend on engine, drive train and wheel radius
+        driveForceTables[i] = car.getDriveForceTable();
+        shiftSchedules[i] = car.getShiftSchedule();
+
+        int vehicleFlags = 0;
+        if(car.isFrontAxlePowered()) { vehicleFlags |= FRONT_AXLE_POWERED; }
+        if(car.isRearAxlePowered()) { vehicleFlags |= REAR_AXLE_POWERED; }
+        if(car.isFrontSliding())
+        {
+            vehicleFlags |= FRONT_SLIDING;
+            frontSlideDirectionX[i] = car.getFrontSlideDirection().x;
+            frontSlideDirectionZ[i] = car.getFrontSlideDirection().z;
+        }
+        if(car.isRearSliding())
+        {
+            vehicleFlags |= REAR_SLIDING;
+            rearSlideDirectionX[i] = car.getRearSlideDirection().x;
+            rearSlideDirectionZ[i] = car.getRearSlideDirection().z;
+        }
+        flags[i] = vehicleFlags;
+
+        positionX[i] = car.getPosition().x;
+        positionZ[i] = car.getPosition().z;
+        heading[i] = car.getCarDirectionAngle();
+        speed[i] = car.getSpeed();
+        slideSpeed[i] = car.getSlideSpeed();
+        gears[i] = car.getGear();
+        rearForwardX[i] = car.getRearWheelsForward().x;
+        rearForwardZ[i] = car.getRearWheelsForward().z;
+        detail[i] = DETAIL_FULL;
+        detailBlend[i] = 0;
+
+        // a fleet vehicle has one ground type for all wheels, it takes the one of the front left wheel
+        if(car.getGroundType(0) != null)
+        {
+            setGroundType(i, car.getGroundType(0));
+        }
+
+        return i;
+    }
+
+    public void setGroundType(int i, GroundType groundType)
+    {
+        if(groundTypes[i] != groundType)
+        {
+            groundTypes[i] = groundType;
+            maxFrontAxleForce[i] = groundType.getStaticFriction() * (weightInNewton[i] * 0.5f);
+            maxRearAxleForce[i] = groundType.getStaticFriction() * (weightInNewton[i] * 0.5f);
+            rollFrictionForce[i] = groundType.getRollingFriction() * weightInNewton[i];
+            slideFrictionForce[i] = groundType.getSlidingFriction() * weightInNewton[i];
+            steeringLimitFactor[i] = Car.calcSteeringLimitFactor(maxFrontAxleForce[i], wheelBase[i], mass[i]);
+        }
+    }
+
+    /**
+     * @description
+     * Steps every vehicle of the fleet by one interval.
+     *
+     * @param inputs INPUT_STRIDE values per vehicle: throttle, brake, steering and handbrake
+     * @param interval
+     */
+    public void step(float[] inputs, float interval)
+    {
+        step(inputs, interval, 0, size);
+    }
+
+    /**
+     * @description
+     * Steps the vehicles from index 'from' (inclusive) to index 'to' (exclusive).
+     * Vehicles do not depend on each other, so disjoint ranges can be stepped from different threads.
+     *
+     * @param inputs INPUT_STRIDE values per vehicle: throttle, brake, steering and handbrake
+     * @param interval
+     * @param from
+     * @param to
+     */
+    public void step(float[] inputs, float interval, int from, int to)
+    {
+        if(batched)
+        {
+            for(int blockStart = from; blockStart < to; blockStart += BATCH_SIZE)
+            {
+                int blockEnd = java.lang.Math.min(blockStart + BATCH_SIZE, to);
+                if(!isFullDetail(blockStart, blockEnd))
+                {
+                    // mixed blocks are stepped one vehicle at a time, the batch only pays off for the full model
+                    for(int i = blockStart; i < blockEnd; i++)
+                    {
+                        stepVehicle(inputs, i, interval);
+                    }
+                    continue;
+                }
+                gatherDriveInputs(inputs, blockStart, blockEnd);
+                if(vectorized)
+                {
+                    VECTOR_KERNEL.step(this, interval, blockStart, blockEnd);
+                }
+                else
+                {
+                    stepLongitudinalBatch(interval, blockStart, blockEnd);
+                }
+                for(int i = blockStart; i < blockEnd; i++)
+                {
+                    stepLateral(i, inputs[i * INPUT_STRIDE + INPUT_STEERING], interval);
+                }
+            }
+        }
+        else
+        {
+            for(int i = from; i < to; i++)
+            {
+                stepVehicle(inputs, i, interval);
+            }
+        }
+    }
+
+    private boolean isFullDetail(int from, int to)
+    {
+        for(int i = from; i < to; i++)
+        {
+            if(detail[i] != DETAIL_FULL || detailBlend[i] > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @description
+     * Scalar step of one vehicle with the model of its detail.
+     */
+    private void stepVehicle(float[] inputs, int i, float interval)
+    {
+        int inputIndex = i * INPUT_STRIDE;
+        float throttleInput = inputs[inputIndex + INPUT_THROTTLE];
+        float brakeInput = inputs[inputIndex + INPUT_BRAKE];
+        float steeringInput = inputs[inputIndex + INPUT_STEERING];
+
+        if(detailBlend[i] > 0)
+        {
+            stepBlended(i, throttleInput, brakeInput, steeringInput, interval);
+        }
+        else if(detail[i] == DETAIL_FULL)
+        {
+            stepLongitudinal(i, throttleInput, brakeInput, interval);
+            stepLateral(i, steeringInput, interval);
+        }
+        else if(detail[i] == DETAIL_KINEMATIC)
+        {
+            stepKinematic(i, throttleInput, brakeInput, steeringInput, interval);
+        }
+        // dormant vehicles keep their state until they get a higher detail again
+    }
+
+    /**
+     * @description
+     * Step of a vehicle that switched between full and kinematic detail less than DETAIL_BLEND_TIME ago.
+     * Both models are stepped from the same state. Everything but pose and speed is taken from the model
+     * of the current detail, pose and speed are mixed with the previous model by the remaining blend.
+     */
+    private void stepBlended(int i, float throttleInput, float brakeInput, float steeringInput, float interval)
+    {
+        boolean isFullDetail = detail[i] == DETAIL_FULL;
+
+        float x = positionX[i];
+        float z = positionZ[i];
+        float carDirectionAngle = heading[i];
+        float vehicleSpeed = speed[i];
+        float vehicleSlideSpeed = slideSpeed[i];
+        int gear = gears[i];
+        int vehicleFlags = flags[i];
+        float previousRearForwardX = rearForwardX[i];
+        float previousRearForwardZ = rearForwardZ[i];
+        float frontSlideX = frontSlideDirectionX[i];
+        float frontSlideZ = frontSlideDirectionZ[i];
+        float rearSlideX = rearSlideDirectionX[i];
+        float rearSlideZ = rearSlideDirectionZ[i];
+
+        // previous model first, only its pose and speed are kept
+        if(isFullDetail)
+        {
+            stepKinematic(i, throttleInput, brakeInput, steeringInput, interval);
+        }
+        else
+        {
+            stepLongitudinal(i, throttleInput, brakeInput, interval);
+            stepLateral(i, steeringInput, interval);
+        }
+        float previousModelX = positionX[i];
+        float previousModelZ = positionZ[i];
+        float previousModelHeading = heading[i];
+        float previousModelSpeed = speed[i];
+
+        positionX[i] = x;
+        positionZ[i] = z;
+        heading[i] = carDirectionAngle;
+        speed[i] = vehicleSpeed;
+        slideSpeed[i] = vehicleSlideSpeed;
+        gears[i] = gear;
+        flags[i] = vehicleFlags;
+        rearForwardX[i] = previousRearForwardX;
+        rearForwardZ[i] = previousRearForwardZ;
+        frontSlideDirectionX[i] = frontSlideX;
+        frontSlideDirectionZ[i] = frontSlideZ;
+        rearSlideDirectionX[i] = rearSlideX;
+        rearSlideDirectionZ[i] = rearSlideZ;
+
+        if(isFullDetail)
+        {
+            stepLongitudinal(i, throttleInput, brakeInput, interval);
+            stepLateral(i, steeringInput, interval);
+        }
+        else
+        {
+            stepKinematic(i, throttleInput, brakeInput, steeringInput, interval);
+        }
+
+        float share = detailBlend[i];
+        positionX[i] += (previousModelX - positionX[i]) * share;
+        positionZ[i] += (previousModelZ - positionZ[i]) * share;
+        speed[i] += (previousModelSpeed - speed[i]) * share;
+
+        // shortest way between both headings
+        float headingDifference = previousModelHeading - heading[i];
+        headingDifference -= 360f * java.lang.Math.round(headingDifference / 360f);
+        heading[i] = (heading[i] + headingDifference * share) % 360f;
+
+        detailBlend[i] = java.lang.Math.max(0, share - interval / DETAIL_BLEND_TIME);
+    }
+
+    /**
+     * @description
+     * Reduced step for vehicles with kinematic detail.
+     * The speed follows the same drive, brake, roll and drag forces as the full model, but the forces are
+     * clamped to the grip of the axles instead of letting wheels spin or block. The heading follows a kinematic
+     * bicycle model whose lateral acceleration is limited by the front axle grip, like Car.limitSteeringAngle.
+     * A running slide, e.g. from a collision, decays with the sliding friction in its current direction.
+     */
+    private void stepKinematic(int i, float throttleInput, float brakeInput, float steeringInput, float interval)
+    {
+        int vehicleFlags = flags[i] & ~TICK_FLAGS;
+        boolean isFrontPowered = (vehicleFlags & FRONT_AXLE_POWERED) != 0;
+        boolean isRearPowered = (vehicleFlags & REAR_AXLE_POWERED) != 0;
+        float maxFrontForce = maxFrontAxleForce[i];
+        float maxRearForce = maxRearAxleForce[i];
+        float vehicleSpeed = speed[i];
+        float vehicleMass = mass[i];
+        float vehicleCDrag = cDrag[i];
+
+        int gear = shiftSchedules[i].getGear(vehicleSpeed, gears[i]);
+        gears[i] = gear;
+        float axleLimit = isFrontPowered && isRearPowered ? maxFrontForce + maxRearForce : (isFrontPowered ? maxFrontForce : (isRearPowered ? maxRearForce : 0));
+        float driveForce = java.lang.Math.min(driveForceTables[i].getDrivingForce(vehicleSpeed, gear) * throttleInput, axleLimit);
+        float resistance = brakeInput > 0 ? java.lang.Math.min(maxBrakeForce[i] * brakeInput, maxFrontForce + maxRearForce) : rollFrictionForce[i];
+        float forwardForce = driveForce - resistance - vehicleCDrag * vehicleSpeed * vehicleSpeed;
+        vehicleSpeed += forwardForce / vehicleMass * interval;
+        if(vehicleSpeed < 0)
+        {
+            vehicleSpeed = 0;
+        }
+
+        float x = positionX[i];
+        float z = positionZ[i];
+        if((vehicleFlags & (FRONT_SLIDING | REAR_SLIDING)) != 0)
+        {
+            float vehicleSlideSpeed = slideSpeed[i];
+            float slideForce = -slideFrictionForce[i] - vehicleCDrag * vehicleSlideSpeed * vehicleSlideSpeed;
+            vehicleSlideSpeed += slideForce / vehicleMass * interval;
+            if(vehicleSlideSpeed < 0)
+            {
+                vehicleSlideSpeed = 0;
+                vehicleFlags &= ~(FRONT_SLIDING | REAR_SLIDING);
+            }
+            else
+            {
+                float slideDistance = vehicleSlideSpeed * interval;
+                x += getSlideDirectionX(i) * slideDistance;
+                z += getSlideDirectionZ(i) * slideDistance;
+            }
+            slideSpeed[i] = vehicleSlideSpeed;
+        }
+
+        // heading change of a bicycle with the wheel base as length, in radians
+        // stepLateral places the front axle with the rear direction of the last step, the heading lags behind
+        // by half of the last turn and settles at two thirds of the bicycle rate, KINEMATIC_TURN_RATE matches that
+        float turnAngle = 0;
+        if(steeringInput != 0 && vehicleSpeed > 0)
+        {
+            float steeringSine = (float) Math.sin(Math.toRadians(steeringInput * maxSteeringAngle[i]));
+            float maxSteeringSine = steeringLimitFactor[i] / (vehicleSpeed * vehicleSpeed);
+            steeringSine = java.lang.Math.max(-maxSteeringSine, java.lang.Math.min(steeringSine, maxSteeringSine));
+            turnAngle = -KINEMATIC_TURN_RATE * vehicleSpeed * interval * steeringSine / wheelBase[i];
+        }
+
+        // like stepLateral, the rear axle direction is the one before this step
+        float carDirectionAngle = heading[i];
+        float carRotationDegToRad = (float) Math.toRadians(carDirectionAngle);
+        float currentRearForwardX = (float) Math.cos(carRotationDegToRad);
+        float currentRearForwardZ = (float) Math.sin(carRotationDegToRad);
+        rearForwardX[i] = currentRearForwardX;
+        rearForwardZ[i] = currentRearForwardZ;
+
+        // move along the heading halfway through the turn, rotated by the small angle approximation
+        float halfTurn = turnAngle * 0.5f;
+        float cosHalfTurn = 1f - halfTurn * halfTurn * 0.5f;
+        float forwardDistance = vehicleSpeed * interval;
+        positionX[i] = x + (currentRearForwardX * cosHalfTurn - currentRearForwardZ * halfTurn) * forwardDistance;
+        positionZ[i] = z + (currentRearForwardZ * cosHalfTurn + currentRearForwardX * halfTurn) * forwardDistance;
+        heading[i] = (carDirectionAngle + (float) Math.toDegrees(turnAngle)) % 360f;
+
+        speed[i] = vehicleSpeed;
+        flags[i] = vehicleFlags;
+    }
+
+    /**
+     * @description
+     * First pass of the batched step. Does everything of the longitudinal step that needs per vehicle
+     * objects or strided access: the gear and the force table lookup, and copying throttle and brake
+     * into contiguous arrays.
+     */
+    private void gatherDriveInputs(float[] inputs, int from, int to)
+    {
+        for(int i = from; i < to; i++)
+        {
+            int inputIndex = i * INPUT_STRIDE;
+            int gear = shiftSchedules[i].getGear(speed[i], gears[i]);
+            gears[i] = gear;
+            maxDrivingForce[i] = driveForceTables[i].getDrivingForce(speed[i], gear);
+            throttleInputs[i] = inputs[inputIndex + INPUT_THROTTLE];
+            brakeInputs[i] = inputs[inputIndex + INPUT_BRAKE];
+        }
+    }
+
+    /**
+     * @description
+     * Second pass of the batched step: axle forces, drag and speed integration for a block of vehicles.
+     * It is the same arithmetic as stepLongitudinal, with every branch replaced by a select on primitive
+     * arrays with unit stride and no calls, so the JIT can turn the loop into conditional moves or vector
+     * instructions. Results are bit identical to the scalar version.
+     * It is also the scalar fallback of the vector kernel and handles the lanes that do not fill a vector.
+     */
+    void stepLongitudinalBatch(float interval, int from, int to)
+    {
+        for(int i = from; i < to; i++)
+        {
+            int vehicleFlags = flags[i] & ~TICK_FLAGS;
+            boolean isFrontPowered = (vehicleFlags & FRONT_AXLE_POWERED) != 0;
+            boolean isRearPowered = (vehicleFlags & REAR_AXLE_POWERED) != 0;
+            boolean isAllWheelDrive = isFrontPowered & isRearPowered;
+            boolean isFrontSliding = (vehicleFlags & FRONT_SLIDING) != 0;
+            boolean isRearSliding = (vehicleFlags & REAR_SLIDING) != 0;
+            boolean breaking = brakeInputs[i] > 0;
+
+            float maxFrontForce = maxFrontAxleForce[i];
+            float maxRearForce = maxRearAxleForce[i];
+            float halfSlideFriction = slideFrictionForce[i] * 0.5f;
+            float halfRollFriction = rollFrictionForce[i] * 0.5f;
+            float vehicleMass = mass[i];
+            float vehicleCDrag = cDrag[i];
+            float vehicleSpeed = speed[i];
+            float vehicleSlideSpeed = slideSpeed[i];
+
+            // drive force, clamped to the sliding friction if the powered axles spin
+            float motorForce = maxDrivingForce[i] * throttleInputs[i];
+            float axleLimit = isAllWheelDrive ? maxFrontForce + maxRearForce : (isFrontPowered ? maxFrontForce : maxRearForce);
+            boolean isSpinning = (isFrontPowered | isRearPowered) & motorForce > axleLimit;
+            float driveForce = isSpinning ? halfSlideFriction : (isAllWheelDrive ? motorForce * 0.5f : motorForce);
+            float frontForwardForce = isFrontPowered ? driveForce : 0;
+            float rearForwardForce = isRearPowered ? driveForce : 0;
+
+            // brake or roll resistance, clamped to the sliding friction if the axle blocks
+            float halfBrakeForce = (maxBrakeForce[i] * brakeInputs[i]) * 0.5f;
+            boolean isFrontBlocking = breaking & !isFrontSliding & halfBrakeForce > maxFrontForce;
+            boolean isRearBlocking = breaking & !isRearSliding & halfBrakeForce > maxRearForce;
+            frontForwardForce -= (isFrontBlocking | isFrontSliding) ? halfSlideFriction : (breaking ? halfBrakeForce : halfRollFriction);
+            rearForwardForce -= (isRearBlocking | isRearSliding) ? halfSlideFriction : (breaking ? halfBrakeForce : halfRollFriction);
+
+            float fDrag = -vehicleCDrag * vehicleSpeed * vehicleSpeed;
+            float forwardForce = frontForwardForce + rearForwardForce + fDrag;
+            float forwardAcceleration = forwardForce / vehicleMass;
+            vehicleSpeed += forwardAcceleration * interval;
+
+            float slideDrag = -vehicleCDrag * vehicleSlideSpeed * vehicleSlideSpeed;
+            float slideForce = -slideFrictionForce[i] + slideDrag;
+            float slideAcceleration = slideForce / vehicleMass;
+            float integratedSlideSpeed = vehicleSlideSpeed + slideAcceleration * interval;
+            vehicleSlideSpeed = (isFrontSliding | isRearSliding) ? integratedSlideSpeed : vehicleSlideSpeed;
+
+            boolean isSlideStopped = vehicleSlideSpeed < 0;
+            speed[i] = vehicleSpeed < 0 ? 0 : vehicleSpeed;
+            slideSpeed[i] = isSlideStopped ? 0 : vehicleSlideSpeed;
+
+            vehicleFlags &= isSlideStopped ? ~(FRONT_SLIDING | REAR_SLIDING) : ~0;
+            vehicleFlags |= (isSpinning & isFrontPowered) ? FRONT_SPINNING : 0;
+            vehicleFlags |= (isSpinning & isRearPowered) ? REAR_SPINNING : 0;
+            vehicleFlags |= (isFrontBlocking & !isSlideStopped) ? FRONT_BLOCKING : 0;
+            vehicleFlags |= (isRearBlocking & !isSlideStopped) ? REAR_BLOCKING : 0;
+            flags[i] = vehicleFlags;
+        }
+    }
+
+    /**
+     * @description
+     * Scalar version of the longitudinal part of a step: gear, axle forces, drag and speed integration.
+     * Writes speed, slide speed and the sliding, blocking and spinning flags back for stepLateral.
+     */
+    private void stepLongitudinal(int i, float throttleInput, float brakeInput, float interval)
+    {
+        int vehicleFlags = flags[i] & ~TICK_FLAGS;
+        boolean isFrontSliding = (vehicleFlags & FRONT_SLIDING) != 0;
+        boolean isRearSliding = (vehicleFlags & REAR_SLIDING) != 0;
+        boolean isFrontBlocking = false;
+        boolean isRearBlocking = false;
+
+        float maxFrontForce = maxFrontAxleForce[i];
+        float maxRearForce = maxRearAxleForce[i];
+        float slideFriction = slideFrictionForce[i];
+        float rollFriction = rollFrictionForce[i];
+        float vehicleSpeed = speed[i];
+        float vehicleSlideSpeed = slideSpeed[i];
+        float vehicleMass = mass[i];
+
+        int gear = shiftSchedules[i].getGear(vehicleSpeed, gears[i]);
+        gears[i] = gear;
+        float maxTorque = driveForceTables[i].getDrivingForce(vehicleSpeed, gear);
+        boolean breaking = brakeInput > 0;
+
+        // CALC AXLE FORWARD FORCES
+        float frontForwardForce = 0;
+        float rearForwardForce = 0;
+        float tempForce;
+        float motorForce = (maxTorque * throttleInput);
+        boolean isFrontPowered = (vehicleFlags & FRONT_AXLE_POWERED) != 0;
+        boolean isRearPowered = (vehicleFlags & REAR_AXLE_POWERED) != 0;
+        if(isFrontPowered && isRearPowered)
+        {
+            if(motorForce > maxFrontForce + maxRearForce)
+            {
+                vehicleFlags |= FRONT_SPINNING | REAR_SPINNING;
+                frontForwardForce = slideFriction * 0.5f;
+                rearForwardForce = slideFriction * 0.5f;
+            }
+            else
+            {
+                frontForwardForce = motorForce * 0.5f;
+                rearForwardForce = motorForce * 0.5f;
+            }
+        }
+        else if(isFrontPowered)
+        {
+            if(motorForce > maxFrontForce)
+            {
+                vehicleFlags |= FRONT_SPINNING;
+                frontForwardForce = slideFriction * 0.5f;
+            }
+            else
+            {
+                frontForwardForce = (maxTorque * throttleInput);
+            }
+        }
+        else if(isRearPowered)
+        {
+            if(motorForce > maxRearForce)
+            {
+                vehicleFlags |= REAR_SPINNING;
+                rearForwardForce = slideFriction * 0.5f;
+            }
+            else
+            {
+                rearForwardForce = (maxTorque * throttleInput);
+            }
+        }
+
+        if(breaking && !isFrontSliding)
+        {
+            tempForce = (maxBrakeForce[i] * brakeInput) * 0.5f;
+            if(tempForce > maxFrontForce)
+            {
+                isFrontBlocking = true;
+                tempForce = slideFriction * 0.5f;
+            }
+        }
+        else if(isFrontSliding)
+        {
+            tempForce = slideFriction * 0.5f;
+        }
+        else
+        {
+            tempForce = rollFriction * 0.5f;
+        }
+        frontForwardForce -= tempForce;
+
+        if(breaking && !isRearSliding)
+        {
+            tempForce = (maxBrakeForce[i] * brakeInput) * 0.5f;
+            if(tempForce > maxRearForce)
+            {
+                isRearBlocking = true;
+                tempForce = slideFriction * 0.5f;
+            }
+        }
+        else if(isRearSliding)
+        {
+            tempForce = slideFriction * 0.5f;
+        }
+        else
+        {
+            tempForce = rollFriction * 0.5f;
+        }
+        rearForwardForce -= tempForce;
+
+        float vehicleCDrag = cDrag[i];
+        float fDrag = -vehicleCDrag * vehicleSpeed * vehicleSpeed;
+        float forwardForce = frontForwardForce + rearForwardForce + fDrag;
+
+        float forwardAcceleration = forwardForce / vehicleMass;
+        vehicleSpeed += forwardAcceleration * interval;
+
+        if(isFrontSliding || isRearSliding)
+        {
+            float slideDrag = -vehicleCDrag * vehicleSlideSpeed * vehicleSlideSpeed;
+            float slideForce = -slideFriction + slideDrag;
+            float slideAcceleration = slideForce / vehicleMass;
+            vehicleSlideSpeed += slideAcceleration * interval;
+        }
+
+        if(vehicleSpeed < 0)
+        {
+            vehicleSpeed = 0;
+        }
+
+        if(vehicleSlideSpeed < 0)
+        {
+            vehicleSlideSpeed = 0;
+            isFrontSliding = false;
+            isRearSliding = false;
+            isFrontBlocking = false;
+            isRearBlocking = false;
+        }
+
+        speed[i] = vehicleSpeed;
+        slideSpeed[i] = vehicleSlideSpeed;
+
+        vehicleFlags &= ~(FRONT_SLIDING | REAR_SLIDING);
+        if(isFrontSliding) { vehicleFlags |= FRONT_SLIDING; }
+        if(isRearSliding) { vehicleFlags |= REAR_SLIDING; }
+        if(isFrontBlocking) { vehicleFlags |= FRONT_BLOCKING; }
+        if(isRearBlocking) { vehicleFlags |= REAR_BLOCKING; }
+        flags[i] = vehicleFlags;
+    }
+
+    /**
+     * @description
+     * Steering, axle movement, heading and position, based on the result of the longitudinal step.
+     */
+    private void stepLateral(int i, float steeringInput, float interval)
+    {
+        int vehicleFlags = flags[i];
+        boolean isFrontSliding = (vehicleFlags & FRONT_SLIDING) != 0;
+        boolean isRearSliding = (vehicleFlags & REAR_SLIDING) != 0;
+        boolean isFrontBlocking = (vehicleFlags & FRONT_BLOCKING) != 0;
+        boolean isRearBlocking = (vehicleFlags & REAR_BLOCKING) != 0;
+        float vehicleSpeed = speed[i];
+        float vehicleSlideSpeed = slideSpeed[i];
+
+        //speed sensitive steering adjustment
+        float steeringAngle = steeringInput * maxSteeringAngle[i];
+        if(steeringInput != 0)
+        {
+            steeringAngle = Car.limitSteeringAngle(steeringAngle, vehicleSpeed, steeringLimitFactor[i]);
+        }
+
+        float carDirectionAngle = heading[i];
+        float carRotationDegToRad = (float)Math.toRadians(carDirectionAngle);
+        float carRotationInclSteeringDegToRad = (float)Math.toRadians(carDirectionAngle - steeringAngle);
+
+        float frontForwardX = (float) Math.cos(carRotationInclSteeringDegToRad);
+        float frontForwardZ = (float) Math.sin(carRotationInclSteeringDegToRad);
+
+        // the front axle is placed with the rear axle direction of the last step
+        float previousRearForwardX = rearForwardX[i];
+        float previousRearForwardZ = rearForwardZ[i];
+        float x = positionX[i];
+        float z = positionZ[i];
+        float frontX = x + previousRearForwardX * halfWheelBase[i];
+        float frontZ = z + previousRearForwardZ * halfWheelBase[i];
+        float slideDistance = vehicleSlideSpeed * interval;
+        float forwardDistance = vehicleSpeed * interval;
+
+        if(isFrontBlocking && steeringInput != 0)
+        {
+            if(!isFrontSliding)
+            {
+                isFrontSliding = true;
+                vehicleSlideSpeed = vehicleSpeed;
+                vehicleSpeed = 0;
+                slideDistance = vehicleSlideSpeed * interval;
+                forwardDistance = vehicleSpeed * interval;
+
+                // left vector of the rear axle is up x forward
+                float sideways = steeringInput * 0.5f;
+                float directionX = previousRearForwardX + previousRearForwardZ * sideways;
+                float directionZ = previousRearForwardZ + -previousRearForwardX * sideways;
+                float invLength = 1.0f / (float) Math.sqrt(directionX * directionX + directionZ * directionZ);
+                frontSlideDirectionX[i] = directionX * invLength;
+                frontSlideDirectionZ[i] = directionZ * invLength;
+            }
+
+            frontX += frontSlideDirectionX[i] * slideDistance;
+            frontZ += frontSlideDirectionZ[i] * slideDistance;
+        }
+        else if(isFrontSliding)
+        {
+            frontX += frontSlideDirectionX[i] * slideDistance;
+            frontZ += frontSlideDirectionZ[i] * slideDistance;
+            frontX += frontForwardX * forwardDistance;
+            frontZ += frontForwardZ * forwardDistance;
+        }
+        else
+        {
+            frontX += frontForwardX * forwardDistance;
+            frontZ += frontForwardZ * forwardDistance;
+        }
+
+        float currentRearForwardX = (float) Math.cos(carRotationDegToRad);
+        float currentRearForwardZ = (float) Math.sin(carRotationDegToRad);
+        rearForwardX[i] = currentRearForwardX;
+        rearForwardZ[i] = currentRearForwardZ;
+        float rearX = x + currentRearForwardX * -halfWheelBase[i];
+        float rearZ = z + currentRearForwardZ * -halfWheelBase[i];
+
+        if(isRearBlocking && steeringInput != 0)
+        {
+            if(!isRearSliding)
+            {
+                isRearSliding = true;
+                float invLength = 1.0f / (float) Math.sqrt(currentRearForwardX * currentRearForwardX + currentRearForwardZ * currentRearForwardZ);
+                rearSlideDirectionX[i] = currentRearForwardX * invLength;
+                rearSlideDirectionZ[i] = currentRearForwardZ * invLength;
+            }
+
+            rearX += rearSlideDirectionX[i] * slideDistance;
+            rearZ += rearSlideDirectionZ[i] * slideDistance;
+        }
+        else if(isRearSliding)
+        {
+            rearX += rearSlideDirectionX[i] * slideDistance;
+            rearZ += rearSlideDirectionZ[i] * slideDistance;
+            rearX += currentRearForwardX * forwardDistance;
+            rearZ += currentRearForwardZ * forwardDistance;
+        }
+        else
+        {
+            rearX += currentRearForwardX * forwardDistance;
+            rearZ += currentRearForwardZ * forwardDistance;
+        }
+
+        // set car angle and position
+        float newCarAngleInRad = (float)Math.atan2(frontZ - rearZ, frontX - rearX);
+        carDirectionAngle = (float) Math.toDegrees(newCarAngleInRad);
+        carDirectionAngle %= 360f;
+        heading[i] = carDirectionAngle;
+        positionX[i] = (frontX + rearX) / 2f;
+        positionZ[i] = (frontZ + rearZ) / 2f;
+
+        speed[i] = vehicleSpeed;
+        slideSpeed[i] = vehicleSlideSpeed;
+
+        if(isFrontSliding) { vehicleFlags |= FRONT_SLIDING; }
+        if(isRearSliding) { vehicleFlags |= REAR_SLIDING; }
+        flags[i] = vehicleFlags;
+    }
+
+    /**
+     * @description
+     * Selects the batched longitudinal step (default) or the scalar one, which steps every vehicle
+     * completely before the next. Both give the same results, the scalar step is kept as reference
+     * and as fallback for runtimes that do not compile the batched loop well.
+     *
+     * @param batched
+     */
+    public void setBatched(boolean batched)
+    {
+        this.batched = batched;
+    }
+
+    public boolean isBatched()
+    {
+        return batched;
+    }
+
+    /**
+     * @description
+     * Selects the vector kernel for the longitudinal pass of the batched step, if the runtime provides it.
+     * The vector kernel does the same IEEE operations in the same order as the scalar pass, the results are identical.
+     *
+     * @param vectorized
+     */
+    public void setVectorized(boolean vectorized)
+    {
+        this.vectorized = vectorized && VECTOR_KERNEL != null;
+    }
+
+    public boolean isVectorized()
+    {
+        return vectorized;
+    }
+
+    public static boolean isVectorKernelAvailable()
+    {
+        return VECTOR_KERNEL != null;
+    }
+
+    private static LongitudinalKernel loadVectorKernel()
+    {
+        try
+        {
+            return (LongitudinalKernel) Class.forName(LongitudinalKernel.VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | LinkageError e)
+        {
+            // not compiled (JDK before 17), class version too new for this runtime or jdk.incubator.vector not added
+            return null;
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public float getPositionX(int i)
+    {
+        return positionX[i];
+    }
+
+    public float getPositionY(int i)
+    {
+        return rideHeight[i];
+    }
+
+    public float getPositionZ(int i)
+    {
+        return positionZ[i];
+    }
+
+    public float getHeading(int i)
+    {
+        return heading[i];
+    }
+
+    public float getSpeed(int i)
+    {
+        return speed[i];
+    }
+
+    public float getSlideSpeed(int i)
+    {
+        return slideSpeed[i];
+    }
+
+    public int getGear(int i)
+    {
+        return gears[i];
+    }
+
+    public int getFlags(int i)
+    {
+        return flags[i];
+    }
+
+    public GroundType getGroundType(int i)
+    {
+        return groundTypes[i];
+    }
+
+    /**
+     * @description
+     * Sets the physics detail of a vehicle, see CarFleetDetail for a policy that picks it by distance and activity.
+     * DETAIL_FULL runs the complete force model, DETAIL_KINEMATIC the reduced model of stepKinematic and
+     * DETAIL_DORMANT skips the vehicle in every step until its detail is raised again.
+     * A switch between full and kinematic detail of a moving vehicle mixes pose and speed of both models
+     * over DETAIL_BLEND_TIME, so the vehicle does not jump at the switch.
+     *
+     * @param i
+     * @param vehicleDetail DETAIL_FULL, DETAIL_KINEMATIC or DETAIL_DORMANT
+     */
+    public void setDetail(int i, int vehicleDetail)
+    {
+        int previousDetail = detail[i];
+        if(previousDetail == vehicleDetail)
+        {
+            return;
+        }
+        detail[i] = (byte) vehicleDetail;
+
+        if(previousDetail != DETAIL_DORMANT && vehicleDetail != DETAIL_DORMANT && speed[i] > 0)
+        {
+            // a switch back during a running blend continues from the current mix
+            detailBlend[i] = 1f - detailBlend[i];
+        }
+        else
+        {
+            detailBlend[i] = 0;
+        }
+    }
+
+    public int getDetail(int i)
+    {
+        return detail[i];
+    }
+
+    /**
+     * @return share of the previous model in pose and speed, 0 if no detail switch is being blended
+     */
+    float getDetailBlend(int i)
+    {
+        return detailBlend[i];
+    }
+
+    // package private accessors used by CarFleetCollisions
+
+    float getHalfWheelBase(int i)
+    {
+        return halfWheelBase[i];
+    }
+
+    float getHalfTrackWidth(int i)
+    {
+        return halfTrackWidth[i];
+    }
+
+    float getMass(int i)
+    {
+        return mass[i];
+    }
+
+    /**
+     * @description
+     * Returns the x component of the current slide direction, the rear one if the rear axle slides.
+     */
+    float getSlideDirectionX(int i)
+    {
+        return (flags[i] & REAR_SLIDING) != 0 ? rearSlideDirectionX[i] : frontSlideDirectionX[i];
+    }
+
+    float getSlideDirectionZ(int i)
+    {
+        return (flags[i] & REAR_SLIDING) != 0 ? rearSlideDirectionZ[i] : frontSlideDirectionZ[i];
+    }
+
+    /**
+     * @description
+     * Moves a vehicle and sets its velocity after a collision.
+     * The model can only roll forward, so the velocity is split into the forward speed along the heading
+     * and a slide of both axles that carries everything else and is slowed down by the sliding friction.
+     *
+     * @param i
+     * @param offsetX position correction
+     * @param offsetZ position correction
+     * @param forwardX unit vector of the current heading
+     * @param forwardZ unit vector of the current heading
+     * @param velocityX
+     * @param velocityZ
+     */
+    void applyCollision(int i, float offsetX, float offsetZ, float forwardX, float forwardZ, float velocityX, float velocityZ)
+    {
+        positionX[i] += offsetX;
+        positionZ[i] += offsetZ;
+
+        float forwardSpeed = velocityX * forwardX + velocityZ * forwardZ;
+        if(forwardSpeed < 0)
+        {
+            forwardSpeed = 0;
+        }
+        float slideX = velocityX - forwardX * forwardSpeed;
+        float slideZ = velocityZ - forwardZ * forwardSpeed;
+        float vehicleSlideSpeed = (float) Math.sqrt(slideX * slideX + slideZ * slideZ);
+
+        speed[i] = forwardSpeed;
+        if(vehicleSlideSpeed > MIN_SLIDE_SPEED)
+        {
+            float invLength = 1.0f / vehicleSlideSpeed;
+            frontSlideDirectionX[i] = rearSlideDirectionX[i] = slideX * invLength;
+            frontSlideDirectionZ[i] = rearSlideDirectionZ[i] = slideZ * invLength;
+            slideSpeed[i] = vehicleSlideSpeed;
+            flags[i] |= FRONT_SLIDING | REAR_SLIDING;
+        }
+        else if((flags[i] & (FRONT_SLIDING | REAR_SLIDING)) != 0)
+        {
+            slideSpeed[i] = 0;
+            flags[i] &= ~(FRONT_SLIDING | REAR_SLIDING);
+        }
+    }
+}
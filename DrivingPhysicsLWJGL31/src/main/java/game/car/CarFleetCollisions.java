@@ -0,0 +1,390 @@
+package game.car;
+
+import engine.physics.SpatialHashGrid;
+import org.joml.Math;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @description
+ * Car to car collisions for a CarFleet.
+ *
+ * Broadphase: the vehicles live in a SpatialHashGrid that is updated incrementally, vehicles only change
+ * their bucket when they enter another cell. Every vehicle is tested against the vehicles of its own and
+ * the eight neighbouring cells, so the cost grows linearly with the number of vehicles.
+ * The buckets are split into a fixed number of chunks that are searched in parallel, each chunk
+ * collects its contacts in its own buffer.
+ *
+ * Narrowphase: every vehicle is an oriented box on the ground plane, a full wheel base long and a full track
+ * width wide (half wheel base and half track width are its half extents), tested with the separating axis theorem.
+ *
+ * Response: contacts are resolved one after the other, chunk by chunk in bucket order, so the result does not
+ * depend on the number of threads. Each contact pushes the boxes apart by the penetration depth and applies
+ * an impulse along the contact normal, weighted by the inverse masses.
+ *
+ * Call update() after every CarFleet.step().
+ */
+public class CarFleetCollisions {
+
+    public static final float DEFAULT_RESTITUTION = 0.2f;
+    public static final int DEFAULT_CHUNK_COUNT = 64;
+
+    private final CarFleet fleet;
+    private final SpatialHashGrid grid;
+    private final ForkJoinPool pool;
+    private final float maxBoundingRadius;
+
+    // per vehicle, updated every tick
+    private final float[] forwardX;
+    private final float[] forwardZ;
+    private final float[] boundingRadius;
+    private int registered;
+
+    private final DetectTask[] detectTasks;
+    private final RecursiveAction rootTask;
+    private float restitution = DEFAULT_RESTITUTION;
+    private int contactCount;
+
+    /**
+     * @description
+     * Uses the common ForkJoinPool and DEFAULT_CHUNK_COUNT chunks.
+     *
+     * @param fleet
+     * @param cellSize has to be at least the largest vehicle diagonal
+     */
+    public CarFleetCollisions(CarFleet fleet, float cellSize)
+    {
+        this(fleet, cellSize, ForkJoinPool.commonPool(), DEFAULT_CHUNK_COUNT);
+    }
+
+    public CarFleetCollisions(CarFleet fleet, float cellSize, ForkJoinPool pool, int chunkCount)
+    {
+        if(chunkCount < 1)
+        {
+            throw new IllegalArgumentException("chunkCount has to be at least 1: " + chunkCount);
+        }
+
+        this.fleet = fleet;
+        this.pool = pool;
+        grid = new SpatialHashGrid(fleet.getCapacity(), cellSize);
+        maxBoundingRadius = cellSize * 0.5f;
+
+        forwardX = new float[fleet.getCapacity()];
+        forwardZ = new float[fleet.getCapacity()];
+        boundingRadius = new float[fleet.getCapacity()];
+
+        int bucketCount = grid.getBucketCount();
+        chunkCount = java.lang.Math.min(chunkCount, bucketCount);
+        detectTasks = new DetectTask[chunkCount];
+        for(int chunk = 0; chunk < chunkCount; chunk++)
+        {
+            detectTasks[chunk] = new DetectTask(bucketCount * chunk / chunkCount, bucketCount * (chunk + 1) / chunkCount);
+        }
+        rootTask = new RecursiveAction()
+        {
+            @Override
+            protected void compute()
+            {
+                for(DetectTask task : detectTasks)
+                {
+                    task.reinitialize();
+                }
+                ForkJoinTask.invokeAll(detectTasks);
+            }
+        };
+    }
+
+    /**
+     * @description
+     * Updates the grid with the current vehicle positions, finds all touching vehicles and resolves the contacts.
+     */
+    public void update()
+    {
+        updateGrid();
+
+        if(detectTasks.length == 1 || pool.getParallelism() == 1)
+        {
+            for(DetectTask task : detectTasks)
+            {
+                task.detect();
+            }
+        }
+        else
+        {
+            rootTask.reinitialize();
+            pool.invoke(rootTask);
+        }
+
+        contactCount = 0;
+        for(DetectTask task : detectTasks)
+        {
+            for(int contact = 0; contact < task.contactCount; contact++)
+            {
+                int pairIndex = contact * 2;
+                int dataIndex = contact * 3;
+                resolve(task.pairs[pairIndex], task.pairs[pairIndex + 1],
+                        task.contacts[dataIndex], task.contacts[dataIndex + 1], task.contacts[dataIndex + 2]);
+            }
+            contactCount += task.contactCount;
+        }
+    }
+
+    private void updateGrid()
+    {
+        int size = fleet.size();
+        for(int i = 0; i < size; i++)
+        {
+            float headingInRad = (float) Math.toRadians(fleet.getHeading(i));
+            forwardX[i] = (float) Math.cos(headingInRad);
+            forwardZ[i] = (float) Math.sin(headingInRad);
+
+            if(i < registered)
+            {
+                grid.move(i, fleet.getPositionX(i), fleet.getPositionZ(i));
+            }
+            else
+            {
+                float halfLength = fleet.getHalfWheelBase(i);
+                float halfWidth = fleet.getHalfTrackWidth(i);
+                boundingRadius[i] = (float) Math.sqrt(halfLength * halfLength + halfWidth * halfWidth);
+                if(boundingRadius[i] > maxBoundingRadius)
+                {
+                    throw new IllegalStateException("Vehicle " + i + " is larger than the grid cells, cell size: " + grid.getCellSize());
+                }
+                grid.insert(i, fleet.getPositionX(i), fleet.getPositionZ(i));
+                registered++;
+            }
+        }
+    }
+
+    private void resolve(int i, int j, float normalX, float normalZ, float depth)
+    {
+        float inverseMassI = 1f / fleet.getMass(i);
+        float inverseMassJ = 1f / fleet.getMass(j);
+        float inverseMassSum = inverseMassI + inverseMassJ;
+
+        float velocityIX = getVelocityX(i);
+        float velocityIZ = getVelocityZ(i);
+        float velocityJX = getVelocityX(j);
+        float velocityJZ = getVelocityZ(j);
+
+        // only push vehicles apart that move towards each other
+        float normalVelocity = (velocityJX - velocityIX) * normalX + (velocityJZ - velocityIZ) * normalZ;
+        if(normalVelocity < 0)
+        {
+            float impulse = -(1f + restitution) * normalVelocity / inverseMassSum;
+            velocityIX -= normalX * impulse * inverseMassI;
+            velocityIZ -= normalZ * impulse * inverseMassI;
+            velocityJX += normalX * impulse * inverseMassJ;
+            velocityJZ += normalZ * impulse * inverseMassJ;
+        }
+
+        float correction = depth / inverseMassSum;
+        fleet.applyCollision(i, -normalX * correction * inverseMassI, -normalZ * correction * inverseMassI,
+                forwardX[i], forwardZ[i], velocityIX, velocityIZ);
+        fleet.applyCollision(j, normalX * correction * inverseMassJ, normalZ * correction * inverseMassJ,
+                forwardX[j], forwardZ[j], velocityJX, velocityJZ);
+    }
+
+    private float getVelocityX(int i)
+    {
+        float velocity = forwardX[i] * fleet.getSpeed(i);
+        if((fleet.getFlags(i) & (CarFleet.FRONT_SLIDING | CarFleet.REAR_SLIDING)) != 0)
+        {
+            velocity += fleet.getSlideDirectionX(i) * fleet.getSlideSpeed(i);
+        }
+        return velocity;
+    }
+
+    private float getVelocityZ(int i)
+    {
+        float velocity = forwardZ[i] * fleet.getSpeed(i);
+        if((fleet.getFlags(i) & (CarFleet.FRONT_SLIDING | CarFleet.REAR_SLIDING)) != 0)
+        {
+            velocity += fleet.getSlideDirectionZ(i) * fleet.getSlideSpeed(i);
+        }
+        return velocity;
+    }
+
+    public void setRestitution(float restitution)
+    {
+        this.restitution = restitution;
+    }
+
+    public float getRestitution()
+    {
+        return restitution;
+    }
+
+    /**
+     * @return number of contacts resolved in the last update
+     */
+    public int getContactCount()
+    {
+        return contactCount;
+    }
+
+    /**
+     * @description
+     * Searches the vehicles of a range of buckets for contacts with vehicles of a higher index,
+     * so every pair is found exactly once.
+     */
+    private final class DetectTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int fromBucket;
+        private final int toBucket;
+        private final int[] neighbourBuckets = new int[9];
+
+        private int[] pairs = new int[32];
+        private float[] contacts = new float[48];
+        private int contactCount;
+
+        private DetectTask(int fromBucket, int toBucket)
+        {
+            this.fromBucket = fromBucket;
+            this.toBucket = toBucket;
+        }
+
+        @Override
+        protected void compute()
+        {
+            detect();
+        }
+
+        private void detect()
+        {
+            contactCount = 0;
+            for(int bucket = fromBucket; bucket < toBucket; bucket++)
+            {
+                for(int i = grid.getFirst(bucket); i != SpatialHashGrid.NONE; i = grid.getNext(i))
+                {
+                    detect(i);
+                }
+            }
+        }
+
+        private void detect(int i)
+        {
+            int cellX = grid.getCellX(i);
+            int cellZ = grid.getCellZ(i);
+
+            // neighbouring cells can hash into the same bucket, each bucket is searched once
+            int neighbourCount = 0;
+            for(int offsetX = -1; offsetX <= 1; offsetX++)
+            {
+                for(int offsetZ = -1; offsetZ <= 1; offsetZ++)
+                {
+                    int bucket = grid.getBucket(cellX + offsetX, cellZ + offsetZ);
+                    boolean isNew = true;
+                    for(int k = 0; k < neighbourCount; k++)
+                    {
+                        if(neighbourBuckets[k] == bucket)
+                        {
+                            isNew = false;
+                            break;
+                        }
+                    }
+                    if(isNew)
+                    {
+                        neighbourBuckets[neighbourCount++] = bucket;
+                    }
+                }
+            }
+
+            for(int k = 0; k < neighbourCount; k++)
+            {
+                for(int j = grid.getFirst(neighbourBuckets[k]); j != SpatialHashGrid.NONE; j = grid.getNext(j))
+                {
+                    if(j > i && java.lang.Math.abs(grid.getCellX(j) - cellX) <= 1 && java.lang.Math.abs(grid.getCellZ(j) - cellZ) <= 1)
+                    {
+                        testBoxes(i, j);
+                    }
+                }
+            }
+        }
+
+        private void testBoxes(int i, int j)
+        {
+            float distanceX = fleet.getPositionX(j) - fleet.getPositionX(i);
+            float distanceZ = fleet.getPositionZ(j) - fleet.getPositionZ(i);
+            float radiusSum = boundingRadius[i] + boundingRadius[j];
+            if(distanceX * distanceX + distanceZ * distanceZ >= radiusSum * radiusSum)
+            {
+                return;
+            }
+
+            float halfLengthI = fleet.getHalfWheelBase(i);
+            float halfWidthI = fleet.getHalfTrackWidth(i);
+            float halfLengthJ = fleet.getHalfWheelBase(j);
+            float halfWidthJ = fleet.getHalfTrackWidth(j);
+            float forwardIX = forwardX[i];
+            float forwardIZ = forwardZ[i];
+            float forwardJX = forwardX[j];
+            float forwardJZ = forwardZ[j];
+
+            // separating axis test on the forward and side axes of both boxes, the side axis is (-z, x)
+            float minDepth = Float.MAX_VALUE;
+            float normalX = 0;
+            float normalZ = 0;
+            for(int axis = 0; axis < 4; axis++)
+            {
+                float axisX;
+                float axisZ;
+                switch(axis)
+                {
+                    case 0: axisX = forwardIX; axisZ = forwardIZ; break;
+                    case 1: axisX = -forwardIZ; axisZ = forwardIX; break;
+                    case 2: axisX = forwardJX; axisZ = forwardJZ; break;
+                    default: axisX = -forwardJZ; axisZ = forwardJX; break;
+                }
+
+                float forwardDotI = forwardIX * axisX + forwardIZ * axisZ;
+                float sideDotI = -forwardIZ * axisX + forwardIX * axisZ;
+                float forwardDotJ = forwardJX * axisX + forwardJZ * axisZ;
+                float sideDotJ = -forwardJZ * axisX + forwardJX * axisZ;
+                float projectedRadiusI = halfLengthI * Math.abs(forwardDotI) + halfWidthI * Math.abs(sideDotI);
+                float projectedRadiusJ = halfLengthJ * Math.abs(forwardDotJ) + halfWidthJ * Math.abs(sideDotJ);
+                float projectedDistance = distanceX * axisX + distanceZ * axisZ;
+
+                float depth = projectedRadiusI + projectedRadiusJ - Math.abs(projectedDistance);
+                // also rejects NaN from vehicles without a valid heading yet
+                if(!(depth > 0))
+                {
+                    return;
+                }
+                if(depth < minDepth)
+                {
+                    // the normal points from i to j
+                    float sign = projectedDistance < 0 ? -1f : 1f;
+                    minDepth = depth;
+                    normalX = axisX * sign;
+                    normalZ = axisZ * sign;
+                }
+            }
+
+            addContact(i, j, normalX, normalZ, minDepth);
+        }
+
+        private void addContact(int i, int j, float normalX, float normalZ, float depth)
+        {
+            if(contactCount * 2 == pairs.length)
+            {
+                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                contacts = Arrays.copyOf(contacts, contacts.length * 2);
+            }
+            int pairIndex = contactCount * 2;
+            int dataIndex = contactCount * 3;
+            pairs[pairIndex] = i;
+            pairs[pairIndex + 1] = j;
+            contacts[dataIndex] = normalX;
+            contacts[dataIndex + 1] = normalZ;
+            contacts[dataIndex + 2] = depth;
+            contactCount++;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package game.car;
+
+/**
+ * @description
+ * Picks the physics detail of every vehicle of a CarFleet by the distance to the camera and by activity.
+ * Vehicles near the camera run the full force model, vehicles further away the kinematic one,
+ * and vehicles that stand still without throttle are dormant and not stepped at all.
+ * Vehicles that slide, spin or block always get full detail, wherever they are.
+ * A vehicle with full detail only drops to kinematic detail beyond the full detail distance plus the hysteresis,
+ * so vehicles at the border do not switch back and forth.
+ *
+ * Call update() before every CarFleet.step() with the inputs of that step.
+ */
+public class CarFleetDetail {
+
+    public static final float DEFAULT_FULL_DETAIL_DISTANCE = 150f;
+    public static final float DEFAULT_HYSTERESIS = 30f;
+
+    private static final int ACTIVE_FLAGS = CarFleet.FRONT_SLIDING | CarFleet.REAR_SLIDING
+            | CarFleet.FRONT_BLOCKING | CarFleet.REAR_BLOCKING | CarFleet.FRONT_SPINNING | CarFleet.REAR_SPINNING;
+
+    private final CarFleet fleet;
+    private float fullDetailDistance;
+    private float hysteresis;
+
+    private int fullCount;
+    private int kinematicCount;
+    private int dormantCount;
+
+    public CarFleetDetail(CarFleet fleet)
+    {
+        this(fleet, DEFAULT_FULL_DETAIL_DISTANCE, DEFAULT_HYSTERESIS);
+    }
+
+    public CarFleetDetail(CarFleet fleet, float fullDetailDistance, float hysteresis)
+    {
+        this.fleet = fleet;
+        this.fullDetailDistance = fullDetailDistance;
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * @description
+     * Sets the detail of every vehicle for the next step.
+     *
+     * @param inputs the inputs of the next step, INPUT_STRIDE values per vehicle
+     * @param cameraX
+     * @param cameraZ
+     */
+    public void update(float[] inputs, float cameraX, float cameraZ)
+    {
+        float enterDistanceSquared = fullDetailDistance * fullDetailDistance;
+        float leaveDistance = fullDetailDistance + hysteresis;
+        float leaveDistanceSquared = leaveDistance * leaveDistance;
+
+        int full = 0;
+        int kinematic = 0;
+        int dormant = 0;
+        int size = fleet.size();
+        for(int i = 0; i < size; i++)
+        {
+            int vehicleDetail;
+            if((fleet.getFlags(i) & ACTIVE_FLAGS) != 0)
+            {
+                vehicleDetail = CarFleet.DETAIL_FULL;
+            }
+            else if(fleet.getSpeed(i) == 0 && inputs[i * CarFleet.INPUT_STRIDE + CarFleet.INPUT_THROTTLE] <= 0)
+            {
+                vehicleDetail = CarFleet.DETAIL_DORMANT;
+            }
+            else
+            {
+                float distanceX = fleet.getPositionX(i) - cameraX;
+                float distanceZ = fleet.getPositionZ(i) - cameraZ;
+                float distanceSquared = distanceX * distanceX + distanceZ * distanceZ;
+                float limit = fleet.getDetail(i) == CarFleet.DETAIL_FULL ? leaveDistanceSquared : enterDistanceSquared;
+                vehicleDetail = distanceSquared < limit ? CarFleet.DETAIL_FULL : CarFleet.DETAIL_KINEMATIC;
+            }
+            fleet.setDetail(i, vehicleDetail);
+
+            if(vehicleDetail == CarFleet.DETAIL_FULL) { full++; }
+            else if(vehicleDetail == CarFleet.DETAIL_KINEMATIC) { kinematic++; }
+            else { dormant++; }
+        }
+
+        fullCount = full;
+        kinematicCount = kinematic;
+        dormantCount = dormant;
+    }
+
+    public void setFullDetailDistance(float fullDetailDistance)
+    {
+        this.fullDetailDistance = fullDetailDistance;
+    }
+
+    public float getFullDetailDistance()
+    {
+        return fullDetailDistance;
+    }
+
+    public void setHysteresis(float hysteresis)
+    {
+        this.hysteresis = hysteresis;
+    }
+
+    public float getHysteresis()
+    {
+        return hysteresis;
+    }
+
+    public int getFullCount()
+    {
+        return fullCount;
+    }
+
+    public int getKinematicCount()
+    {
+        return kinematicCount;
+    }
+
+    public int getDormantCount()
+    {
+        return dormantCount;
+    }
+}
@@ -0,0 +1,100 @@
+package game.car;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @description
+ * Steps a CarFleet on a work-stealing ForkJoinPool.
+ * The fleet is split into index ranges until a range holds no more than parallelismThreshold vehicles.
+ * Every vehicle is still stepped by exactly the same code with the same inputs, so the result is
+ * bit-identical to a serial CarFleet.step no matter how many threads take part.
+ * Fleets up to the threshold are stepped on the calling thread.
+ */
+public class CarFleetStepper {
+
+    public static final int DEFAULT_PARALLELISM_THRESHOLD = 256;
+
+    private final ForkJoinPool pool;
+    private int parallelismThreshold;
+
+    public CarFleetStepper()
+    {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLELISM_THRESHOLD);
+    }
+
+    public CarFleetStepper(ForkJoinPool pool, int parallelismThreshold)
+    {
+        this.pool = pool;
+        setParallelismThreshold(parallelismThreshold);
+    }
+
+    public void step(CarFleet fleet, float[] inputs, float interval)
+    {
+        int size = fleet.size();
+        if(size <= parallelismThreshold)
+        {
+            fleet.step(inputs, interval, 0, size);
+        }
+        else
+        {
+            pool.invoke(new StepTask(fleet, inputs, interval, 0, size, parallelismThreshold));
+        }
+    }
+
+    public int getParallelismThreshold()
+    {
+        return parallelismThreshold;
+    }
+
+    public void setParallelismThreshold(int parallelismThreshold)
+    {
+        if(parallelismThreshold < 1)
+        {
+            throw new IllegalArgumentException("parallelismThreshold must be at least 1, was: " + parallelismThreshold);
+        }
+        this.parallelismThreshold = parallelismThreshold;
+    }
+
+    public ForkJoinPool getPool()
+    {
+        return pool;
+    }
+
+    private static class StepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CarFleet fleet;
+        private final float[] inputs;
+        private final float interval;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        StepTask(CarFleet fleet, float[] inputs, float interval, int from, int to, int threshold)
+        {
+            this.fleet = fleet;
+            this.inputs = inputs;
+            this.interval = interval;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(to - from <= threshold)
+            {
+                fleet.step(inputs, interval, from, to);
+            }
+            else
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new StepTask(fleet, inputs, interval, from, middle, threshold),
+                        new StepTask(fleet, inputs, interval, middle, to, threshold));
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package game.car;
+
+import engine.gameEntities.GameEntity;
+import engine.mesh.DecalRingBuffer;
+import org.joml.Vector3f;
+
+/**
+ * @description
+ * Binds the state of a simulated car to its game entities.
+ * The car itself does not know about meshes, so it can be stepped without a render context.
+ * Call update() after the car has been updated to move the body, axles, wheels and skid marks.
+ */
+public class CarVisuals {
+
+    private final Car car;
+    private final GameEntity[] gameEntities;
+
+    public CarVisuals(Car car, GameEntity[] gameEntities)
+    {
+        this.car = car;
+        this.gameEntities = gameEntities;
+
+        // the wheel size does not change, the scale is set once and not by update(), which may run on another thread
+        for(int i = 2; i < gameEntities.length; i++)
+        {
+            gameEntities[i].setScale(car.getWheelDiameter());
+        }
+    }
+
+    public void update()
+    {
+        updateVisuals();
+        updateGroundEffects();
+    }
+
+    private void updateVisuals()
+    {
+        //index: 0 = car_body; 1 = car_Axles; 2 = front left wheel; 3 = front right wheel; 4 = rear left wheel; 5 = rear right wheel;
+        Vector3f position = car.getPosition();
+        Vector3f rotation = car.getRotation();
+        Vector3f[] wheelPositions = car.getWheelPositions();
+        float steeringAngle = car.getSteeringAngle();
+        float frontWheelSpinAngle = car.getFrontWheelSpinAngle();
+        float rearWheelSpinAngle = car.getRearWheelSpinAngle();
+
+        GameEntity carPart = gameEntities[0];
+        carPart.setPosition(position);
+        carPart.setRotation(rotation);
+
+        carPart = gameEntities[1];
+        carPart.setPosition(position);
+        carPart.getPosition().y = car.getWheelRadius();
+        carPart.setRotation(0, rotation.y, 0);
+
+        carPart = gameEntities[2];
+        carPart.setPosition(wheelPositions[0]);
+        carPart.setRotation(0, rotation.y + steeringAngle, frontWheelSpinAngle);
+
+        carPart = gameEntities[3];
+        carPart.setPosition(wheelPositions[1]);
+        carPart.setRotation(0, rotation.y + 180 + steeringAngle, -frontWheelSpinAngle);
+
+        carPart = gameEntities[4];
+        carPart.setPosition(wheelPositions[2]);
+        carPart.setRotation(0, rotation.y, rearWheelSpinAngle);
+
+        carPart = gameEntities[5];
+        carPart.setPosition(wheelPositions[3]);
+        carPart.setRotation(0, rotation.y + 180, -rearWheelSpinAngle);
+    }
+
+    private void updateGroundEffects()
+    {
+        if(car.isFrontSkidding())
+        {
+            placeSkidMark(0);
+            placeSkidMark(1);
+        }
+
+        if(car.isRearSkidding())
+        {
+            placeSkidMark(2);
+            placeSkidMark(3);
+        }
+    }
+
+    private void placeSkidMark(int wheel)
+    {
+        // every wheel leaves the skid marks of the ground it is on
+        DecalRingBuffer skidMarks = car.getGroundType(wheel).getSkidMarks();
+        if(skidMarks == null)
+        {
+            return;
+        }
+
+        float skidMarkHeight = 0.05f;
+        Vector3f wheelPosition = car.getWheelPositions()[wheel];
+        skidMarks.add(wheelPosition.x, skidMarkHeight, wheelPosition.z, (float) Math.toRadians(car.getRotation().y));
+    }
+
+    public Car getCar()
+    {
+        return car;
+    }
+
+    /**
+     * @return entity of the car body, at the position of the car
+     */
+    public GameEntity getBody()
+    {
+        return gameEntities[0];
+    }
+}
@@ -0,0 +1,239 @@
+package game.car;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @description
+ * Precomputed force at the wheels over speed for every gear of an engine and drive train.
+ * The engine rpm follows from the wheel speed and the gear, so the torque chart interpolation and
+ * the gear, diff and efficiency multiplications only happen once when the table is built.
+ * At runtime the driving force is a single indexed lookup.
+ *
+ * The rpm is clamped to idle rpm at low speed and to max rpm above the redline of a gear,
+ * so the table keeps the force of the limits outside of the engine speed range.
+ *
+ * Tables are shared: get() returns the same table for the same engine, drive train and wheel radius,
+ * so a fleet of identical cars only holds one. The cache only keeps a table while a car uses it,
+ * so sweeping through thousands of variants does not pile up their tables.
+ */
+public class DriveForceTable {
+
+    // table resolution in m/s
+    public static final float SPEED_STEP = 0.05f;
+    private static final float INVERSE_SPEED_STEP = 1f / SPEED_STEP;
+    private static final float RADIANS_PER_SECOND_TO_RPM = 60f / (2f * (float) Math.PI);
+
+    private static final Map<Key, TableReference> TABLES = new HashMap<>();
+    private static final ReferenceQueue<DriveForceTable> RELEASED_TABLES = new ReferenceQueue<>();
+
+    private final Engine engine;
+    private final DriveTrain driveTrain;
+    private final float wheelRadius;
+    private final int samplesPerGear;
+    private final float[] rpmPerSpeed;
+    private final float[] forces;
+
+    /**
+     * @description
+     * Returns the shared table for the given engine, drive train and wheel radius and builds it on first use.
+     *
+     * @param engine
+     * @param driveTrain
+     * @param wheelRadius
+     * @return driveForceTable
+     */
+    public static synchronized DriveForceTable get(Engine engine, DriveTrain driveTrain, float wheelRadius)
+    {
+        removeReleasedTables();
+
+        Key key = new Key(engine, driveTrain, wheelRadius);
+        TableReference reference = TABLES.get(key);
+        DriveForceTable table = reference != null ? reference.get() : null;
+        if(table == null)
+        {
+            table = new DriveForceTable(engine, driveTrain, wheelRadius);
+            TABLES.put(key, new TableReference(table, key));
+        }
+        return table;
+    }
+
+    private static void removeReleasedTables()
+    {
+        Reference<? extends DriveForceTable> reference;
+        while((reference = RELEASED_TABLES.poll()) != null)
+        {
+            TableReference tableReference = (TableReference) reference;
+            TABLES.remove(tableReference.key, tableReference);
+        }
+    }
+
+    private DriveForceTable(Engine engine, DriveTrain driveTrain, float wheelRadius)
+    {
+        this.engine = engine;
+        this.driveTrain = driveTrain;
+        this.wheelRadius = wheelRadius;
+
+        int gears = driveTrain.gearRatios.length;
+        rpmPerSpeed = new float[gears];
+        float smallestRpmPerSpeed = Float.MAX_VALUE;
+        for(int gear = 0; gear < gears; gear++)
+        {
+            rpmPerSpeed[gear] = Math.abs(driveTrain.gearRatios[gear]) * driveTrain.diffRatio / wheelRadius * RADIANS_PER_SECOND_TO_RPM;
+            smallestRpmPerSpeed = Math.min(smallestRpmPerSpeed, rpmPerSpeed[gear]);
+        }
+
+        // the table ends where even the longest gear reaches max rpm, the last sample covers every faster speed
+        float maxSpeed = engine.maxRpm / smallestRpmPerSpeed;
+        samplesPerGear = (int) Math.ceil(maxSpeed * INVERSE_SPEED_STEP) + 1;
+
+        forces = new float[gears * samplesPerGear];
+        for(int gear = 0; gear < gears; gear++)
+        {
+            int offset = gear * samplesPerGear;
+            for(int sample = 0; sample < samplesPerGear; sample++)
+            {
+                forces[offset + sample] = calcDrivingForce(rpmPerSpeed[gear] * sample * SPEED_STEP, gear);
+            }
+        }
+    }
+
+    /**
+     * @description
+     * Returns the force at the wheels at full throttle for the given speed and gear.
+     * The speed is rounded to the nearest table sample.
+     *
+     * @param speed in m/s
+     * @param gear
+     * @return driving force in newton
+     */
+    public float getDrivingForce(float speed, int gear)
+    {
+        int sample = (int) (Math.abs(speed) * INVERSE_SPEED_STEP + 0.5f);
+        if(sample >= samplesPerGear)
+        {
+            sample = samplesPerGear - 1;
+        }
+
+        return forces[gear * samplesPerGear + sample];
+    }
+
+    /**
+     * @description
+     * Returns the engine speed for the given wheel speed and gear, clamped to the engine range.
+     *
+     * @param speed in m/s
+     * @param gear
+     * @return engine speed in rpm
+     */
+    public float getRpm(float speed, int gear)
+    {
+        return clampRpm(Math.abs(speed) * rpmPerSpeed[gear]);
+    }
+
+    private float clampRpm(float rpm)
+    {
+        if(rpm < engine.idleRpm)
+        {
+            rpm = engine.idleRpm;
+        }
+        if(rpm > engine.maxRpm)
+        {
+            rpm = engine.maxRpm;
+        }
+        return rpm;
+    }
+
+    private float calcDrivingForce(float rpm, int gear)
+    {
+        rpm = clampRpm(rpm);
+        int index = (int)(rpm / 1000);
+
+        // interpolate torque
+        float torque_1 = engine.torqueChart[index];
+        float torque_2 = engine.torqueChart[index + 1];
+        float rpm_1 = (index) * 1000;
+        float rpm_2 = (index + 1) * 1000;
+
+        float torque = torque_1 + (((rpm - rpm_1) / (rpm_2 - rpm_1)) * (torque_2 - torque_1));
+
+        return torque * driveTrain.gearRatios[gear] * driveTrain.diffRatio * driveTrain.driveTrainEfficiency / wheelRadius;
+    }
+
+    /**
+     * @description
+     * Returns the speed at which the engine reaches max rpm in the given gear.
+     *
+     * @param gear
+     * @return speed in m/s
+     */
+    public float getRedlineSpeed(int gear)
+    {
+        return engine.maxRpm / rpmPerSpeed[gear];
+    }
+
+    float getDrivingForceSample(int gear, int sample)
+    {
+        return forces[gear * samplesPerGear + sample];
+    }
+
+    public int getGearCount()
+    {
+        return rpmPerSpeed.length;
+    }
+
+    public int getSamplesPerGear()
+    {
+        return samplesPerGear;
+    }
+
+    // removed from the cache by removeReleasedTables() after the table was collected
+    private static final class TableReference extends WeakReference<DriveForceTable> {
+
+        private final Key key;
+
+        private TableReference(DriveForceTable table, Key key)
+        {
+            super(table, RELEASED_TABLES);
+            this.key = key;
+        }
+    }
+
+    // engine and drive train are compared by identity, they are immutable definitions shared by the cars
+    private static final class Key {
+
+        private final Engine engine;
+        private final DriveTrain driveTrain;
+        private final float wheelRadius;
+
+        private Key(Engine engine, DriveTrain driveTrain, float wheelRadius)
+        {
+            this.engine = engine;
+            this.driveTrain = driveTrain;
+            this.wheelRadius = wheelRadius;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if(!(other instanceof Key))
+            {
+                return false;
+            }
+            Key key = (Key) other;
+            return engine == key.engine && driveTrain == key.driveTrain
+                    && Float.floatToIntBits(wheelRadius) == Float.floatToIntBits(key.wheelRadius);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash = System.identityHashCode(engine);
+            hash = 31 * hash + System.identityHashCode(driveTrain);
+            return 31 * hash + Float.floatToIntBits(wheelRadius);
+        }
+    }
+}
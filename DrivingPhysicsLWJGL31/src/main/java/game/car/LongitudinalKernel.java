@@ -0,0 +1,23 @@
+package game.car;
+
+/**
+ * @description
+ * Longitudinal pass of the batched CarFleet step for a block of full detail vehicles: axle forces with spin and
+ * block clamping, drag, speed integration and the speed clamps. Drive force and inputs are gathered before.
+ *
+ * The only implementation is VECTOR_KERNEL_CLASS, which uses jdk.incubator.vector and is compiled from
+ * src/main/java17 when the project is built with JDK 17 or later. CarFleet loads it by name, so this code
+ * still compiles and runs on Java 8 and falls back to CarFleet.stepLongitudinalBatch.
+ */
+interface LongitudinalKernel {
+
+    String VECTOR_KERNEL_CLASS = "game.car.VectorLongitudinalKernel";
+
+    /**
+     * @param fleet
+     * @param interval
+     * @param from first vehicle of the block
+     * @param to end of the block (exclusive)
+     */
+    void step(CarFleet fleet, float interval, int from, int to);
+}
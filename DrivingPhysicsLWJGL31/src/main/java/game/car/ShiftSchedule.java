@@ -0,0 +1,96 @@
+package game.car;
+
+/**
+ * @description
+ * Shift speeds of the forward gears, generated from the force table of an engine and drive train.
+ * A gear shifts up at the first speed where the next gear delivers more force at the wheels,
+ * or at the redline of the gear if the next gear never does before that.
+ * It shifts down again once the speed drops SHIFT_HYSTERESIS below that upshift speed,
+ * so a car that can not accelerate in the higher gear does not switch gears on every tick.
+ *
+ * Gear 0 is the reverse gear and is never selected here, forward gears start at 1.
+ */
+public class ShiftSchedule {
+
+    public static final int FIRST_GEAR = 1;
+    // in m/s
+    public static final float SHIFT_HYSTERESIS = 1.5f;
+
+    private final int topGear;
+    // index: gear to shift up from
+    private final float[] upshiftSpeeds;
+    // index: gear to shift down from
+    private final float[] downshiftSpeeds;
+
+    public ShiftSchedule(DriveForceTable driveForceTable)
+    {
+        topGear = driveForceTable.getGearCount() - 1;
+        upshiftSpeeds = new float[topGear + 1];
+        downshiftSpeeds = new float[topGear + 1];
+
+        upshiftSpeeds[topGear] = Float.MAX_VALUE;
+        downshiftSpeeds[FIRST_GEAR] = -Float.MAX_VALUE;
+
+        int samples = driveForceTable.getSamplesPerGear();
+        for(int gear = FIRST_GEAR; gear < topGear; gear++)
+        {
+            float redlineSpeed = driveForceTable.getRedlineSpeed(gear);
+            float upshiftSpeed = redlineSpeed;
+            for(int sample = 0; sample < samples; sample++)
+            {
+                float speed = sample * DriveForceTable.SPEED_STEP;
+                if(speed >= redlineSpeed)
+                {
+                    break;
+                }
+                if(driveForceTable.getDrivingForceSample(gear + 1, sample) > driveForceTable.getDrivingForceSample(gear, sample))
+                {
+                    upshiftSpeed = speed;
+                    break;
+                }
+            }
+
+            upshiftSpeeds[gear] = upshiftSpeed;
+            downshiftSpeeds[gear + 1] = upshiftSpeed - SHIFT_HYSTERESIS;
+        }
+    }
+
+    /**
+     * @description
+     * Returns the gear to drive in at the given speed, starting from the current gear.
+     * Several gears are skipped at once if the speed jumped, for example when a car is placed at speed.
+     *
+     * @param speed in m/s
+     * @param currentGear
+     * @return gear
+     */
+    public int getGear(float speed, int currentGear)
+    {
+        int gear = currentGear < FIRST_GEAR ? FIRST_GEAR : currentGear;
+        while(speed >= upshiftSpeeds[gear])
+        {
+            gear++;
+        }
+        while(speed < downshiftSpeeds[gear])
+        {
+            gear--;
+        }
+
+        return gear;
+    }
+
+    public float getUpshiftSpeed(int gear)
+    {
+        return upshiftSpeeds[gear];
+    }
+
+    public float getDownshiftSpeed(int gear)
+    {
+        return downshiftSpeeds[gear];
+    }
+
+    public int getTopGear()
+    {
+        return topGear;
+    }
+}
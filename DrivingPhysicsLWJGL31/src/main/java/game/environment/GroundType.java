@@ -1,7 +1,7 @@
 package game.environment;
 
 
-import engine.gameEntities.GameEntity;
+import engine.mesh.DecalRingBuffer;
 
 public class GroundType {
 
@@ -9,15 +9,15 @@ public class GroundType {
     private final float rollingFriction;
     private final float slidingFriction;
     private final float staticFriction;
-    private final GameEntity[] skidMeshes;
+    private final DecalRingBuffer skidMarks;
 
-    public GroundType(String type, float rollingFriction, float slidingFriction, float staticFriction, GameEntity[] skidMeshes)
+    public GroundType(String type, float rollingFriction, float slidingFriction, float staticFriction, DecalRingBuffer skidMarks)
     {
         this.type = type;
         this.rollingFriction = rollingFriction;
         this.slidingFriction = slidingFriction;
         this.staticFriction = staticFriction;
-        this.skidMeshes = skidMeshes;
+        this.skidMarks = skidMarks;
     }
 
     public String getType()
@@ -40,9 +40,9 @@ public class GroundType {
         return staticFriction;
     }
 
-    public GameEntity[] getSkidMeshes()
+    public DecalRingBuffer getSkidMarks()
     {
-        return skidMeshes;
+        return skidMarks;
     }
 
 }
@@ -0,0 +1,274 @@
+package game.environment;
+
+import de.matthiasmann.twl.utils.PNGDecoder;
+import de.matthiasmann.twl.utils.PNGDecoder.Format;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @description
+ * Raster of surface ids on the x/z plane, resolving the GroundType at a world position in constant time.
+ * The ids are indices into a palette of ground types, one byte per cell.
+ * Cell (column, row) covers x from originX + column * cellSize and z from originZ + row * cellSize.
+ * Positions outside of the raster use the closest border cell, so the outer surfaces continue endlessly.
+ *
+ * A map can be built in memory, decoded from a PNG (the red channel is the id, the first image row is the
+ * row at originZ) or memory mapped from a binary file, so large worlds are paged in by the OS on demand.
+ * Memory mapped maps are read-only, setId() is for maps built in memory or decoded from a PNG.
+ *
+ * setId() and loadPng() reject ids outside of the palette. loadBinary() does not read the cells, that would
+ * page in the whole file, so getGroundType() resolves ids outside of the palette to the fallback palette[0].
+ *
+ * Binary format, little endian:
+ * int magic, int version, int width, int height, float originX, float originZ, float cellSize,
+ * followed by width * height ids row by row.
+ */
+public class SurfaceMap {
+
+    static final int MAGIC = 0x50414D53; // "SMAP"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 28;
+
+    private final ByteBuffer ids;
+    private final int width;
+    private final int height;
+    private final float originX;
+    private final float originZ;
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final GroundType[] palette;
+    // palette by id for all 256 byte values, ids outside of the palette resolve to palette[0]
+    private final GroundType[] groundTypes = new GroundType[256];
+
+    /**
+     * @description
+     * Creates a map where every cell has id 0, see setId().
+     */
+    public SurfaceMap(int width, int height, float originX, float originZ, float cellSize, GroundType[] palette)
+    {
+        this(ByteBuffer.allocate(width * height), width, height, originX, originZ, cellSize, palette);
+    }
+
+    private SurfaceMap(ByteBuffer ids, int width, int height, float originX, float originZ, float cellSize, GroundType[] palette)
+    {
+        if(width <= 0 || height <= 0 || cellSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid surface map size: " + width + " x " + height + ", cell size " + cellSize);
+        }
+        if(palette.length == 0)
+        {
+            throw new IllegalArgumentException("Surface map palette is empty");
+        }
+        if(ids.remaining() < width * height)
+        {
+            throw new IllegalArgumentException("Surface map data too short: " + ids.remaining() + " < " + width * height);
+        }
+        this.ids = ids;
+        this.width = width;
+        this.height = height;
+        this.originX = originX;
+        this.originZ = originZ;
+        this.cellSize = cellSize;
+        this.palette = palette;
+        inverseCellSize = 1f / cellSize;
+        for(int id = 0; id < groundTypes.length; id++)
+        {
+            groundTypes[id] = id < palette.length ? palette[id] : palette[0];
+        }
+    }
+
+    /**
+     * @description
+     * Decodes a PNG, the red channel of each pixel is the surface id.
+     *
+     * @param is
+     * @param originX
+     * @param originZ
+     * @param cellSize size of a pixel in world units
+     * @param palette
+     * @return surfaceMap
+     * @throws IOException
+     */
+    public static SurfaceMap loadPng(InputStream is, float originX, float originZ, float cellSize, GroundType[] palette) throws IOException
+    {
+        PNGDecoder decoder = new PNGDecoder(is);
+        int width = decoder.getWidth();
+        int height = decoder.getHeight();
+        ByteBuffer rgba = ByteBuffer.allocate(4 * width * height);
+        decoder.decode(rgba, width * 4, Format.RGBA);
+        rgba.flip();
+
+        ByteBuffer ids = ByteBuffer.allocate(width * height);
+        for(int i = 0; i < width * height; i++)
+        {
+            ids.put(i, rgba.get(i * 4));
+        }
+        SurfaceMap surfaceMap = new SurfaceMap(ids, width, height, originX, originZ, cellSize, palette);
+        surfaceMap.validateIds("PNG surface map");
+        return surfaceMap;
+    }
+
+    /**
+     * @description
+     * Memory maps a binary surface map, see the class description for the format.
+     * Only the header is read, the ids are paged in on first access.
+     * The file can be closed after loading, the mapping stays valid.
+     *
+     * @param file
+     * @param palette
+     * @return surfaceMap
+     * @throws IOException
+     */
+    public static SurfaceMap loadBinary(Path file, GroundType[] palette) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if(map.remaining() < HEADER_SIZE || map.getInt(0) != MAGIC)
+            {
+                throw new IOException("Not a surface map: " + file);
+            }
+            if(map.getInt(4) != VERSION)
+            {
+                throw new IOException("Unsupported surface map version " + map.getInt(4) + ": " + file);
+            }
+            int width = map.getInt(8);
+            int height = map.getInt(12);
+            float originX = map.getFloat(16);
+            float originZ = map.getFloat(20);
+            float cellSize = map.getFloat(24);
+
+            map.position(HEADER_SIZE);
+            return new SurfaceMap(map.slice(), width, height, originX, originZ, cellSize, palette);
+        }
+    }
+
+    private void validateIds(String source) throws IOException
+    {
+        for(int i = 0; i < width * height; i++)
+        {
+            int id = ids.get(i) & 0xFF;
+            if(id >= palette.length)
+            {
+                throw new IOException("Surface id " + id + " at cell (" + i % width + ", " + i / width + ") is not in the palette of "
+                        + palette.length + " ground types: " + source);
+            }
+        }
+    }
+
+    /**
+     * @description
+     * Writes the map in the binary format read by loadBinary().
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void saveBinary(Path file) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height);
+        header.putFloat(originX).putFloat(originZ).putFloat(cellSize);
+        header.flip();
+
+        ByteBuffer data = ids.duplicate();
+        data.position(0).limit(width * height);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while(header.hasRemaining())
+            {
+                channel.write(header);
+            }
+            while(data.hasRemaining())
+            {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * @description
+     * Returns the ground type at a world position, palette[0] if the id there is not in the palette.
+     *
+     * @param x
+     * @param z
+     * @return groundType
+     */
+    public GroundType getGroundType(float x, float z)
+    {
+        return groundTypes[getId(toCell(x - originX, width), toCell(z - originZ, height))];
+    }
+
+    private int toCell(float offset, int cells)
+    {
+        int cell = (int) Math.floor(offset * inverseCellSize);
+        if(cell < 0)
+        {
+            return 0;
+        }
+        return cell < cells ? cell : cells - 1;
+    }
+
+    public int getId(int column, int row)
+    {
+        return ids.get(row * width + column) & 0xFF;
+    }
+
+    /**
+     * @description
+     * Changes the id of a cell, only for maps built in memory or decoded from a PNG.
+     *
+     * @param column
+     * @param row
+     * @param id palette index
+     * @throws UnsupportedOperationException for memory mapped maps from loadBinary()
+     */
+    public void setId(int column, int row, int id)
+    {
+        if(ids.isReadOnly())
+        {
+            throw new UnsupportedOperationException("Surface maps loaded with loadBinary() are read-only");
+        }
+        if(id < 0 || id >= palette.length)
+        {
+            throw new IllegalArgumentException("Surface id " + id + " is not in the palette");
+        }
+        ids.put(row * width + column, (byte) id);
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    public float getOriginX()
+    {
+        return originX;
+    }
+
+    public float getOriginZ()
+    {
+        return originZ;
+    }
+
+    public float getCellSize()
+    {
+        return cellSize;
+    }
+
+    public GroundType[] getPalette()
+    {
+        return palette;
+    }
+}
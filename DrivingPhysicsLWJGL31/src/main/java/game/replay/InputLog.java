@@ -0,0 +1,26 @@
+package game.replay;
+
+import java.nio.ByteOrder;
+
+/**
+ * @description
+ * Layout of the binary input log.
+ *
+ * Header: magic (int), version (int), fixed update interval in seconds (float)
+ * Record per tick: active car (byte), throttle, brake, steering, handbrake (4 floats)
+ *
+ * The inputs are stored as raw floats, so a replay feeds Car.update exactly the values of the recording.
+ */
+final class InputLog {
+
+    static final int MAGIC = 0x44504952; // "DPIR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 4;
+    static final int RECORD_SIZE = 1 + 4 * 4;
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private InputLog()
+    {
+    }
+}
@@ -0,0 +1,78 @@
+package game.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * @description
+ * Writes the per tick car inputs into a compact binary log (see InputLog for the layout).
+ * Records are collected in a direct buffer and written through a FileChannel when it is full,
+ * so recording does not allocate or touch the disk on every tick.
+ */
+public class InputRecorder implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long recordedTicks;
+
+    public InputRecorder(Path file, float interval) throws IOException
+    {
+        channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(InputLog.BUFFER_SIZE).order(InputLog.BYTE_ORDER);
+
+        buffer.putInt(InputLog.MAGIC);
+        buffer.putInt(InputLog.VERSION);
+        buffer.putFloat(interval);
+    }
+
+    public void record(int activeCar, float throttleInput, float brakeInput, float steeringInput, float handbrakeInput)
+    {
+        if(buffer.remaining() < InputLog.RECORD_SIZE)
+        {
+            flush();
+        }
+
+        buffer.put((byte) activeCar);
+        buffer.putFloat(throttleInput);
+        buffer.putFloat(brakeInput);
+        buffer.putFloat(steeringInput);
+        buffer.putFloat(handbrakeInput);
+        recordedTicks++;
+    }
+
+    public void flush()
+    {
+        buffer.flip();
+        try
+        {
+            while(buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException("Could not write input log", e);
+        }
+        buffer.clear();
+    }
+
+    public long getRecordedTicks()
+    {
+        return recordedTicks;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        flush();
+        channel.close();
+    }
+}
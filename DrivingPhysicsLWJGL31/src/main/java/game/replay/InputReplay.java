@@ -0,0 +1,138 @@
+package game.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * @description
+ * Reads a binary input log written by InputRecorder, one tick at a time.
+ * Call next() once per fixed update and use the getters instead of the live inputs.
+ */
+public class InputReplay implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final float interval;
+
+    private int activeCar;
+    private float throttleInput;
+    private float brakeInput;
+    private float steeringInput;
+    private float handbrakeInput;
+    private long replayedTicks;
+
+    public InputReplay(Path file) throws IOException
+    {
+        channel = FileChannel.open(file, READ);
+        buffer = ByteBuffer.allocateDirect(InputLog.BUFFER_SIZE).order(InputLog.BYTE_ORDER);
+        buffer.flip();
+
+        if(!fill(InputLog.HEADER_SIZE))
+        {
+            throw new IOException("Input log is too short: " + file);
+        }
+        int magic = buffer.getInt();
+        int version = buffer.getInt();
+        if(magic != InputLog.MAGIC || version != InputLog.VERSION)
+        {
+            throw new IOException("Not a supported input log: " + file);
+        }
+        interval = buffer.getFloat();
+    }
+
+    /**
+     * @description
+     * Loads the inputs of the next tick.
+     *
+     * @return false if the log has no more complete records
+     */
+    public boolean next()
+    {
+        try
+        {
+            if(!fill(InputLog.RECORD_SIZE))
+            {
+                return false;
+            }
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException("Could not read input log", e);
+        }
+
+        activeCar = buffer.get();
+        throttleInput = buffer.getFloat();
+        brakeInput = buffer.getFloat();
+        steeringInput = buffer.getFloat();
+        handbrakeInput = buffer.getFloat();
+        replayedTicks++;
+
+        return true;
+    }
+
+    private boolean fill(int bytes) throws IOException
+    {
+        if(buffer.remaining() >= bytes)
+        {
+            return true;
+        }
+
+        buffer.compact();
+        while(buffer.position() < bytes)
+        {
+            if(channel.read(buffer) < 0)
+            {
+                break;
+            }
+        }
+        buffer.flip();
+
+        return buffer.remaining() >= bytes;
+    }
+
+    public float getInterval()
+    {
+        return interval;
+    }
+
+    public int getActiveCar()
+    {
+        return activeCar;
+    }
+
+    public float getThrottleInput()
+    {
+        return throttleInput;
+    }
+
+    public float getBrakeInput()
+    {
+        return brakeInput;
+    }
+
+    public float getSteeringInput()
+    {
+        return steeringInput;
+    }
+
+    public float getHandbrakeInput()
+    {
+        return handbrakeInput;
+    }
+
+    public long getReplayedTicks()
+    {
+        return replayedTicks;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
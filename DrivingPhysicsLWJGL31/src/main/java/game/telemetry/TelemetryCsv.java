@@ -0,0 +1,109 @@
+package game.telemetry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static game.telemetry.TelemetryLog.*;
+
+/**
+ * @description
+ * Converts a binary telemetry log into CSV, one line per record with the ground types by name.
+ * Usage: TelemetryCsv <telemetry file> <csv file>
+ */
+public class TelemetryCsv {
+
+    private static final String COLUMNS = "tick,time,car,gear,speed,slideSpeed,rpm,"
+            + "frontForceX,frontForceY,rearForceX,rearForceY,maxFrontAxleForce,maxRearAxleForce,"
+            + "frontSliding,rearSliding,frontBlocking,rearBlocking,frontSpinning,rearSpinning,"
+            + "groundFrontLeft,groundFrontRight,groundRearLeft,groundRearRight";
+
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 2)
+        {
+            System.err.println("Usage: TelemetryCsv <telemetry file> <csv file>");
+            System.exit(1);
+        }
+        convert(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    public static void convert(Path telemetryFile, Path csvFile) throws IOException
+    {
+        ByteBuffer log;
+        try(FileChannel channel = FileChannel.open(telemetryFile, StandardOpenOption.READ))
+        {
+            log = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(BYTE_ORDER);
+        }
+
+        if(log.remaining() < 5 * 4 || log.getInt() != MAGIC)
+        {
+            throw new IOException("Not a telemetry log: " + telemetryFile);
+        }
+        int version = log.getInt();
+        if(version != VERSION)
+        {
+            throw new IOException("Unsupported telemetry log version " + version + ": " + telemetryFile);
+        }
+        float interval = log.getFloat();
+        int recordSize = log.getInt();
+        String[] groundTypes = new String[log.getInt()];
+        for(int i = 0; i < groundTypes.length; i++)
+        {
+            byte[] name = new byte[log.get() & 0xFF];
+            log.get(name);
+            groundTypes[i] = new String(name, StandardCharsets.US_ASCII);
+        }
+
+        try(BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.US_ASCII))
+        {
+            writer.write(COLUMNS);
+            writer.newLine();
+
+            StringBuilder line = new StringBuilder();
+            for(int offset = log.position(); offset + recordSize <= log.limit(); offset += recordSize)
+            {
+                long tick = log.getLong(offset + TICK);
+                int flags = log.get(offset + FLAGS);
+                line.setLength(0);
+                line.append(tick).append(',')
+                        .append(tick * interval).append(',')
+                        .append(log.getInt(offset + CAR)).append(',')
+                        .append(log.getInt(offset + GEAR)).append(',')
+                        .append(log.getFloat(offset + SPEED)).append(',')
+                        .append(log.getFloat(offset + SLIDE_SPEED)).append(',')
+                        .append(log.getFloat(offset + RPM)).append(',')
+                        .append(log.getFloat(offset + FRONT_FORCE_X)).append(',')
+                        .append(log.getFloat(offset + FRONT_FORCE_Y)).append(',')
+                        .append(log.getFloat(offset + REAR_FORCE_X)).append(',')
+                        .append(log.getFloat(offset + REAR_FORCE_Y)).append(',')
+                        .append(log.getFloat(offset + MAX_FRONT_AXLE_FORCE)).append(',')
+                        .append(log.getFloat(offset + MAX_REAR_AXLE_FORCE));
+                appendFlag(line, flags, FLAG_FRONT_SLIDING);
+                appendFlag(line, flags, FLAG_REAR_SLIDING);
+                appendFlag(line, flags, FLAG_FRONT_BLOCKING);
+                appendFlag(line, flags, FLAG_REAR_BLOCKING);
+                appendFlag(line, flags, FLAG_FRONT_SPINNING);
+                appendFlag(line, flags, FLAG_REAR_SPINNING);
+                for(int wheel = 0; wheel < 4; wheel++)
+                {
+                    int index = log.get(offset + GROUND_TYPES + wheel) & 0xFF;
+                    line.append(',').append(index < groundTypes.length ? groundTypes[index] : "unknown");
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void appendFlag(StringBuilder line, int flags, int flag)
+    {
+        line.append(',').append((flags & flag) != 0 ? 1 : 0);
+    }
+}
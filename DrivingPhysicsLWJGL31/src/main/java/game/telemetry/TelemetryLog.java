@@ -0,0 +1,49 @@
+package game.telemetry;
+
+import java.nio.ByteOrder;
+
+/**
+ * @description
+ * Layout of the binary telemetry log.
+ *
+ * Header: magic (int), version (int), fixed update interval in seconds (float), record size (int),
+ * ground type count (int), per ground type: name length (byte) and name (ASCII bytes)
+ * Record per car and tick: tick (long), car (int), gear (int), speed, slide speed, rpm (3 floats),
+ * front combined forces x, y, rear combined forces x, y (4 floats), max front and rear axle force (2 floats),
+ * flags (byte, see FLAG_*), ground type index per wheel (4 bytes, GROUND_UNKNOWN if not in the palette), padding
+ */
+final class TelemetryLog {
+
+    static final int MAGIC = 0x4D4C4554; // "TELM"
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 64;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int TICK = 0;
+    static final int CAR = 8;
+    static final int GEAR = 12;
+    static final int SPEED = 16;
+    static final int SLIDE_SPEED = 20;
+    static final int RPM = 24;
+    static final int FRONT_FORCE_X = 28;
+    static final int FRONT_FORCE_Y = 32;
+    static final int REAR_FORCE_X = 36;
+    static final int REAR_FORCE_Y = 40;
+    static final int MAX_FRONT_AXLE_FORCE = 44;
+    static final int MAX_REAR_AXLE_FORCE = 48;
+    static final int FLAGS = 52;
+    static final int GROUND_TYPES = 53;
+
+    static final int FLAG_FRONT_SLIDING = 1;
+    static final int FLAG_REAR_SLIDING = 1 << 1;
+    static final int FLAG_FRONT_BLOCKING = 1 << 2;
+    static final int FLAG_REAR_BLOCKING = 1 << 3;
+    static final int FLAG_FRONT_SPINNING = 1 << 4;
+    static final int FLAG_REAR_SPINNING = 1 << 5;
+
+    static final int GROUND_UNKNOWN = 0xFF;
+
+    private TelemetryLog()
+    {
+    }
+}
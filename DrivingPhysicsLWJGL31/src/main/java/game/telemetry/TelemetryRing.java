@@ -0,0 +1,225 @@
+package game.telemetry;
+
+import game.car.Car;
+import game.environment.GroundType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static game.telemetry.TelemetryLog.*;
+
+/**
+ * @description
+ * Lock free single producer, single consumer ring of fixed size telemetry records in a direct buffer.
+ * The physics thread calls record() once per car and tick, a TelemetryWriter drains the ring on its own thread.
+ *
+ * The producer only writes slots between the consumed and the published position and then publishes them
+ * with an ordered store, the consumer only reads published slots and then releases them the same way.
+ * Neither side waits for the other: when the ring is full the record is dropped and counted,
+ * so a slow disk never stalls the simulation. Recording does not allocate.
+ *
+ * Ground types are stored as their index in the palette given to the constructor.
+ */
+public class TelemetryRing {
+
+    private final ByteBuffer records;
+    private final int capacity;
+    private final int mask;
+    private final GroundType[] palette;
+
+    // positions count records since the start, the slot of a position is position & mask
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    // only written by the producer
+    private long droppedRecords;
+
+    /**
+     * @param capacity number of records, rounded up to a power of two
+     * @param palette ground types that can be told apart in the log, at most 255
+     */
+    public TelemetryRing(int capacity, GroundType[] palette)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity has to be at least 1: " + capacity);
+        }
+        if(palette.length >= GROUND_UNKNOWN)
+        {
+            throw new IllegalArgumentException("Too many ground types: " + palette.length);
+        }
+
+        int size = 1;
+        while(size < capacity)
+        {
+            size <<= 1;
+        }
+        this.capacity = size;
+        mask = size - 1;
+        this.palette = palette;
+        records = ByteBuffer.allocateDirect(size * RECORD_SIZE).order(BYTE_ORDER);
+    }
+
+    /**
+     * @description
+     * Writes the current state of a car. Has to be called from one thread only.
+     *
+     * @param tick
+     * @param carIndex
+     * @param car
+     * @return false if the ring was full and the record was dropped
+     */
+    public boolean record(long tick, int carIndex, Car car)
+    {
+        long position = published.get();
+        if(position - consumed.get() >= capacity)
+        {
+            droppedRecords++;
+            return false;
+        }
+
+        // only absolute puts, the buffer position is never touched by both threads
+        int offset = (int) (position & mask) * RECORD_SIZE;
+        records.putLong(offset + TICK, tick);
+        records.putInt(offset + CAR, carIndex);
+        records.putInt(offset + GEAR, car.getGear());
+        records.putFloat(offset + SPEED, car.getSpeed());
+        records.putFloat(offset + SLIDE_SPEED, car.getSlideSpeed());
+        records.putFloat(offset + RPM, car.getRpm());
+        records.putFloat(offset + FRONT_FORCE_X, car.frontCombinedForces.x);
+        records.putFloat(offset + FRONT_FORCE_Y, car.frontCombinedForces.y);
+        records.putFloat(offset + REAR_FORCE_X, car.rearCombinedForces.x);
+        records.putFloat(offset + REAR_FORCE_Y, car.rearCombinedForces.y);
+        records.putFloat(offset + MAX_FRONT_AXLE_FORCE, car.maxFrontAxleForce);
+        records.putFloat(offset + MAX_REAR_AXLE_FORCE, car.maxRearAxleForce);
+        records.put(offset + FLAGS, (byte) getFlags(car));
+        for(int wheel = 0; wheel < 4; wheel++)
+        {
+            records.put(offset + GROUND_TYPES + wheel, (byte) getGroundIndex(car.getGroundType(wheel)));
+        }
+
+        published.lazySet(position + 1);
+        return true;
+    }
+
+    private static int getFlags(Car car)
+    {
+        int flags = 0;
+        if(car.isFrontSliding())
+        {
+            flags |= FLAG_FRONT_SLIDING;
+        }
+        if(car.isRearSliding())
+        {
+            flags |= FLAG_REAR_SLIDING;
+        }
+        if(car.isFrontBlocking())
+        {
+            flags |= FLAG_FRONT_BLOCKING;
+        }
+        if(car.isRearBlocking())
+        {
+            flags |= FLAG_REAR_BLOCKING;
+        }
+        if(car.isFrontSpinning())
+        {
+            flags |= FLAG_FRONT_SPINNING;
+        }
+        if(car.isRearSpinning())
+        {
+            flags |= FLAG_REAR_SPINNING;
+        }
+        return flags;
+    }
+
+    private int getGroundIndex(GroundType groundType)
+    {
+        for(int i = 0; i < palette.length; i++)
+        {
+            if(palette[i] == groundType)
+            {
+                return i;
+            }
+        }
+        return GROUND_UNKNOWN;
+    }
+
+    /**
+     * @description
+     * Writes all published records to the channel and releases their slots. Has to be called from one thread only.
+     * The view has to be a duplicate of the ring buffer owned by the caller, so its position and limit
+     * are not shared with the producer.
+     *
+     * @param view
+     * @param channel
+     * @return number of drained records
+     * @throws IOException
+     */
+    int drainTo(ByteBuffer view, WritableByteChannel channel) throws IOException
+    {
+        long start = consumed.get();
+        long end = published.get();
+        if(start == end)
+        {
+            return 0;
+        }
+
+        int firstSlot = (int) (start & mask);
+        int count = (int) (end - start);
+        if(firstSlot + count <= capacity)
+        {
+            write(view, channel, firstSlot, firstSlot + count);
+        }
+        else
+        {
+            // the records wrap around the end of the ring
+            write(view, channel, firstSlot, capacity);
+            write(view, channel, 0, firstSlot + count - capacity);
+        }
+
+        consumed.lazySet(end);
+        return count;
+    }
+
+    private static void write(ByteBuffer view, WritableByteChannel channel, int fromSlot, int toSlot) throws IOException
+    {
+        view.limit(toSlot * RECORD_SIZE).position(fromSlot * RECORD_SIZE);
+        while(view.hasRemaining())
+        {
+            channel.write(view);
+        }
+        view.clear();
+    }
+
+    ByteBuffer createView()
+    {
+        return records.duplicate();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public GroundType[] getPalette()
+    {
+        return palette;
+    }
+
+    /**
+     * @return records waiting to be drained
+     */
+    public int getPendingRecords()
+    {
+        return (int) (published.get() - consumed.get());
+    }
+
+    /**
+     * @return records dropped because the ring was full, only exact on the producer thread
+     */
+    public long getDroppedRecords()
+    {
+        return droppedRecords;
+    }
+}
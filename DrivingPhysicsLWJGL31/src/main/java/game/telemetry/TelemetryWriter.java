@@ -0,0 +1,153 @@
+package game.telemetry;
+
+import game.environment.GroundType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * @description
+ * Background thread that streams a TelemetryRing into a binary log (see TelemetryLog for the layout).
+ * Published records are written straight from the ring through a FileChannel, there is no copy in between.
+ * When the ring is empty the thread parks for DRAIN_INTERVAL_MILLIS, so records are written in batches.
+ *
+ * close() stops the thread, drains the remaining records and closes the file.
+ */
+public class TelemetryWriter implements AutoCloseable {
+
+    private static final long DRAIN_INTERVAL_MILLIS = 5;
+
+    private final TelemetryRing ring;
+    private final FileChannel channel;
+    private final Thread thread;
+    private final ByteBuffer view;
+
+    private volatile boolean running = true;
+    private volatile IOException failure;
+    private long writtenRecords;
+
+    public TelemetryWriter(TelemetryRing ring, Path file, float interval) throws IOException
+    {
+        this.ring = ring;
+        view = ring.createView();
+        channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+        writeHeader(interval);
+
+        thread = new Thread(this::drainLoop, "telemetry-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void writeHeader(float interval) throws IOException
+    {
+        GroundType[] palette = ring.getPalette();
+        byte[][] names = new byte[palette.length][];
+        int size = 5 * 4;
+        for(int i = 0; i < palette.length; i++)
+        {
+            names[i] = palette[i].getType().getBytes(StandardCharsets.US_ASCII);
+            if(names[i].length > 255)
+            {
+                throw new IllegalArgumentException("Ground type name too long: " + palette[i].getType());
+            }
+            size += 1 + names[i].length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(size).order(TelemetryLog.BYTE_ORDER);
+        header.putInt(TelemetryLog.MAGIC);
+        header.putInt(TelemetryLog.VERSION);
+        header.putFloat(interval);
+        header.putInt(TelemetryLog.RECORD_SIZE);
+        header.putInt(palette.length);
+        for(byte[] name : names)
+        {
+            header.put((byte) name.length);
+            header.put(name);
+        }
+        header.flip();
+        while(header.hasRemaining())
+        {
+            channel.write(header);
+        }
+    }
+
+    private void drainLoop()
+    {
+        try
+        {
+            while(running)
+            {
+                if(drain() == 0)
+                {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(DRAIN_INTERVAL_MILLIS));
+                }
+            }
+        }
+        catch(IOException e)
+        {
+            failure = e;
+        }
+    }
+
+    private int drain() throws IOException
+    {
+        int drained = ring.drainTo(view, channel);
+        writtenRecords += drained;
+        return drained;
+    }
+
+    /**
+     * @return records written to the file, only exact after close()
+     */
+    public long getWrittenRecords()
+    {
+        return writtenRecords;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        running = false;
+        LockSupport.unpark(thread);
+
+        // the ring has a single consumer, so wait for the drainer even if interrupted
+        boolean interrupted = false;
+        while(thread.isAlive())
+        {
+            try
+            {
+                thread.join();
+            }
+            catch(InterruptedException e)
+            {
+                interrupted = true;
+            }
+        }
+        if(interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        try
+        {
+            if(failure != null)
+            {
+                throw failure;
+            }
+            drain();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+}
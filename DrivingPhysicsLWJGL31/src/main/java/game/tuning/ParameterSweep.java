@@ -0,0 +1,192 @@
+package game.tuning;
+
+import game.car.CarConfig;
+import game.environment.GroundType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @description
+ * Headless tool that measures the performance envelope of many car configurations on every ground type.
+ * Each configuration and ground type is an independent PerformanceTest, the tests are spread over all cores
+ * with a ForkJoinPool and the results are written as CSV, one line per configuration and ground type.
+ *
+ * Without a configuration list the sweep varies drag coefficient, mass, wheel radius, torque and gear ratios
+ * of the game's cars around their current values.
+ * Usage: ParameterSweep <csv file>
+ */
+public class ParameterSweep {
+
+    // same friction values as the ground types of the game
+    public static final GroundType[] GROUND_TYPES = new GroundType[] {
+            new GroundType("road", 0.013f, 0.5f, 0.8f, null),
+            new GroundType("sandHard", 0.08f, 0.25f, 0.4f, null),
+            new GroundType("sandSoft", 0.2f, 0.5f, 0.6f, null),
+            new GroundType("ice", 0.015f, 0.05f, 0.10f, null)
+    };
+
+    private static final float[] CW_FACTORS = {0.9f, 1f, 1.1f};
+    private static final float[] MASS_FACTORS = {0.8f, 0.9f, 1f, 1.1f, 1.2f};
+    private static final float[] WHEEL_RADIUS_FACTORS = {0.9f, 1f, 1.1f};
+    private static final float[] TORQUE_FACTORS = {0.8f, 1f, 1.2f};
+    private static final float[] GEAR_RATIO_FACTORS = {0.9f, 1f, 1.1f};
+
+    private static final String COLUMNS = "config,cw,frontArea,mass,wheelRadius,peakTorque,diffRatio,firstGearRatio,drive,"
+            + "ground,zeroToHundredTime,topSpeedKmh,brakingDistance,maxCorneringSpeedKmh";
+
+    private final ForkJoinPool pool;
+
+    public ParameterSweep()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParameterSweep(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 1)
+        {
+            System.err.println("Usage: ParameterSweep <csv file>");
+            System.exit(1);
+        }
+
+        List<CarConfig> configs = new ArrayList<>();
+        configs.addAll(createVariants(CarConfig.OFFROAD));
+        configs.addAll(createVariants(CarConfig.SPORT));
+
+        long start = System.nanoTime();
+        PerformanceEnvelope[] results = new ParameterSweep().run(configs, GROUND_TYPES);
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        writeReport(Paths.get(args[0]), results);
+        System.out.println(configs.size() + " configurations on " + GROUND_TYPES.length + " ground types in " + millis + " ms");
+    }
+
+    /**
+     * @description
+     * Builds every combination of the sweep factors around the base configuration.
+     *
+     * @param base
+     * @return configs
+     */
+    public static List<CarConfig> createVariants(CarConfig base)
+    {
+        List<CarConfig> configs = new ArrayList<>();
+        for(float cw : CW_FACTORS)
+        {
+            for(float mass : MASS_FACTORS)
+            {
+                for(float wheelRadius : WHEEL_RADIUS_FACTORS)
+                {
+                    for(float torque : TORQUE_FACTORS)
+                    {
+                        for(float gearRatio : GEAR_RATIO_FACTORS)
+                        {
+                            String name = String.format(Locale.ROOT, "%s_cw%.2f_m%.2f_r%.2f_t%.2f_g%.2f",
+                                    base.name, cw, mass, wheelRadius, torque, gearRatio);
+                            configs.add(base.withName(name)
+                                    .withCw(base.cw * cw)
+                                    .withMass(base.mass * mass)
+                                    .withWheelRadius(base.wheelRadius * wheelRadius)
+                                    .withTorqueScale(torque)
+                                    .withGearRatioScale(gearRatio));
+                        }
+                    }
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * @description
+     * Runs the performance test for every configuration on every ground type.
+     *
+     * @param configs
+     * @param groundTypes
+     * @return results, all ground types of the first configuration first
+     */
+    public PerformanceEnvelope[] run(List<CarConfig> configs, GroundType[] groundTypes)
+    {
+        PerformanceEnvelope[] results = new PerformanceEnvelope[configs.size() * groundTypes.length];
+        pool.invoke(new SweepTask(configs, groundTypes, results, 0, results.length));
+        return results;
+    }
+
+    public static void writeReport(Path file, PerformanceEnvelope[] results) throws IOException
+    {
+        try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII))
+        {
+            writer.write(COLUMNS);
+            writer.newLine();
+
+            for(PerformanceEnvelope result : results)
+            {
+                CarConfig config = result.config;
+                float peakTorque = 0;
+                for(float torque : config.engine.torqueChart)
+                {
+                    peakTorque = Math.max(peakTorque, torque);
+                }
+                String drive = config.isFrontAxlePowered && config.isRearAxlePowered ? "AWD" : config.isFrontAxlePowered ? "FWD" : "RWD";
+
+                writer.write(config.name + "," + config.cw + "," + config.frontArea + "," + config.mass + "," + config.wheelRadius + ","
+                        + peakTorque + "," + config.driveTrain.diffRatio + "," + config.driveTrain.gearRatios[1] + "," + drive + ","
+                        + result.groundType.getType() + "," + result.zeroToHundredTime + "," + result.topSpeed * 3.6f + ","
+                        + result.brakingDistance + "," + result.maxCorneringSpeed * 3.6f);
+                writer.newLine();
+            }
+        }
+    }
+
+    private static class SweepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<CarConfig> configs;
+        private final GroundType[] groundTypes;
+        private final PerformanceEnvelope[] results;
+        private final int from;
+        private final int to;
+
+        SweepTask(List<CarConfig> configs, GroundType[] groundTypes, PerformanceEnvelope[] results, int from, int to)
+        {
+            this.configs = configs;
+            this.groundTypes = groundTypes;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            // a single test runs for thousands of ticks, so every test is its own task
+            if(to - from == 1)
+            {
+                CarConfig config = configs.get(from / groundTypes.length);
+                results[from] = PerformanceTest.run(config, groundTypes[from % groundTypes.length]);
+            }
+            else
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SweepTask(configs, groundTypes, results, from, middle),
+                        new SweepTask(configs, groundTypes, results, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package game.tuning;
+
+import game.car.CarConfig;
+import game.environment.GroundType;
+
+/**
+ * @description
+ * Measured driving performance of a car configuration on one ground type.
+ * Values the car never reaches within PerformanceTest.MAX_TEST_TIME are NaN.
+ */
+public class PerformanceEnvelope {
+
+    public final CarConfig config;
+    public final GroundType groundType;
+    // in s
+    public final float zeroToHundredTime;
+    // in m/s
+    public final float topSpeed;
+    // from 100 km/h to standstill, in m
+    public final float brakingDistance;
+    // on a circle of PerformanceTest.SKIDPAD_RADIUS, in m/s
+    public final float maxCorneringSpeed;
+
+    public PerformanceEnvelope(CarConfig config, GroundType groundType, float zeroToHundredTime,
+                               float topSpeed, float brakingDistance, float maxCorneringSpeed)
+    {
+        this.config = config;
+        this.groundType = groundType;
+        this.zeroToHundredTime = zeroToHundredTime;
+        this.topSpeed = topSpeed;
+        this.brakingDistance = brakingDistance;
+        this.maxCorneringSpeed = maxCorneringSpeed;
+    }
+}
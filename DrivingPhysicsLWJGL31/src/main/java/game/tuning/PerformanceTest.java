@@ -0,0 +1,147 @@
+package game.tuning;
+
+import engine.core.EngineOptions;
+import game.car.Car;
+import game.car.CarConfig;
+import game.environment.GroundType;
+import org.joml.Vector3f;
+
+/**
+ * @description
+ * Drives a car configuration through a fixed test program at the game update rate and measures its performance envelope.
+ *
+ * Straight line: full throttle from standstill until the speed rises less than TOP_SPEED_TOLERANCE within a second,
+ * which gives the 0-100 km/h time and the top speed. Then full brake, the distance is measured from the moment the
+ * car passes 100 km/h until it stands still.
+ * Skidpad: full throttle with full steering from standstill. The steering angle is limited more and more as the
+ * speed rises, so the circle widens. The cornering speed is the speed at which it reaches SKIDPAD_RADIUS.
+ *
+ * Crossing times and distances are interpolated within the tick, so the results do not jump with the update rate.
+ */
+public final class PerformanceTest {
+
+    public static final float INTERVAL = 1f / EngineOptions.TARGET_UPS;
+    // in s, per test phase
+    public static final float MAX_TEST_TIME = 120f;
+    // in m/s
+    public static final float HUNDRED_KMH = 100f / 3.6f;
+    // in m/s per second
+    public static final float TOP_SPEED_TOLERANCE = 0.01f;
+    // in m
+    public static final float SKIDPAD_RADIUS = 50f;
+
+    private static final int MAX_TICKS = (int) (MAX_TEST_TIME / INTERVAL);
+    private static final int TICKS_PER_SECOND = EngineOptions.TARGET_UPS;
+
+    private PerformanceTest()
+    {
+    }
+
+    public static PerformanceEnvelope run(CarConfig config, GroundType groundType)
+    {
+        Car car = config.createCar(new Vector3f());
+        car.setGroundType(groundType);
+
+        // accelerate to top speed
+        float zeroToHundredTime = Float.NaN;
+        float speedOneSecondAgo = 0;
+        for(int tick = 1; tick <= MAX_TICKS; tick++)
+        {
+            float previousSpeed = car.getSpeed();
+            car.update(1, 0, 0, 0, INTERVAL);
+            float speed = car.getSpeed();
+            if(Float.isNaN(zeroToHundredTime) && speed >= HUNDRED_KMH)
+            {
+                zeroToHundredTime = (tick - getFractionAfter(previousSpeed, speed, HUNDRED_KMH)) * INTERVAL;
+            }
+            if(tick % TICKS_PER_SECOND == 0)
+            {
+                if(speed - speedOneSecondAgo < TOP_SPEED_TOLERANCE)
+                {
+                    break;
+                }
+                speedOneSecondAgo = speed;
+            }
+        }
+        float topSpeed = car.getSpeed();
+
+        // brake to standstill
+        float brakingDistance = Float.NaN;
+        if(topSpeed >= HUNDRED_KMH)
+        {
+            Vector3f previousPosition = new Vector3f();
+            float distance = Float.NaN;
+            for(int tick = 1; tick <= MAX_TICKS && car.getSpeed() > 0; tick++)
+            {
+                float previousSpeed = car.getSpeed();
+                previousPosition.set(car.getPosition());
+                car.update(0, 1, 0, 0, INTERVAL);
+                float tickDistance = previousPosition.distance(car.getPosition());
+                if(Float.isNaN(distance))
+                {
+                    if(car.getSpeed() <= HUNDRED_KMH)
+                    {
+                        distance = tickDistance * getFractionAfter(previousSpeed, car.getSpeed(), HUNDRED_KMH);
+                    }
+                }
+                else
+                {
+                    distance += tickDistance;
+                }
+            }
+            if(car.getSpeed() <= 0)
+            {
+                brakingDistance = distance;
+            }
+        }
+
+        return new PerformanceEnvelope(config, groundType, zeroToHundredTime, topSpeed, brakingDistance,
+                runSkidpad(config, groundType));
+    }
+
+    private static float runSkidpad(CarConfig config, GroundType groundType)
+    {
+        Car car = config.createCar(new Vector3f());
+        car.setGroundType(groundType);
+
+        float heading = car.getRotation().y;
+        float previousRadius = 0;
+        for(int tick = 1; tick <= MAX_TICKS; tick++)
+        {
+            float previousSpeed = car.getSpeed();
+            car.update(1, 0, 1, 0, INTERVAL);
+            float speed = car.getSpeed();
+
+            float headingChange = car.getRotation().y - heading;
+            heading = car.getRotation().y;
+            headingChange -= 360f * Math.round(headingChange / 360f);
+            float yawRate = (float) Math.toRadians(Math.abs(headingChange)) / INTERVAL;
+            float radius = yawRate > 0 ? speed / yawRate : Float.POSITIVE_INFINITY;
+            if(radius >= SKIDPAD_RADIUS)
+            {
+                if(Float.isInfinite(radius))
+                {
+                    return previousSpeed;
+                }
+                float fraction = getFractionAfter(previousRadius, radius, SKIDPAD_RADIUS);
+                return speed - (speed - previousSpeed) * fraction;
+            }
+            previousRadius = radius;
+        }
+
+        return Float.NaN;
+    }
+
+    /**
+     * @return part of the last tick that passed after the value crossed the threshold, between 0 and 1
+     */
+    private static float getFractionAfter(float previousValue, float value, float threshold)
+    {
+        float change = value - previousValue;
+        if(change == 0)
+        {
+            return 0;
+        }
+        return Math.max(0, Math.min(1, (value - threshold) / change));
+    }
+}
@@ -0,0 +1,100 @@
+package game.car;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * @description
+ * LongitudinalKernel on the incubating Vector API, FloatVector.SPECIES_PREFERRED vehicles per instruction
+ * (8 with AVX2, 16 with AVX-512). Every select of CarFleet.stepLongitudinalBatch is a blend with a lane mask,
+ * the flags are processed as an IntVector of the same shape. The operations and their order are the same as in
+ * the scalar pass and there is no fused multiply-add, so the results are bit identical.
+ * The vehicles that do not fill a whole vector are stepped by the scalar pass.
+ *
+ * Needs Java 17 or later and --add-modules jdk.incubator.vector, otherwise CarFleet can not load this class
+ * and keeps the scalar pass.
+ */
+final class VectorLongitudinalKernel implements LongitudinalKernel {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, FLOATS.vectorShape());
+
+    @Override
+    public void step(CarFleet fleet, float interval, int from, int to)
+    {
+        FloatVector zero = FloatVector.zero(FLOATS);
+        int vectorEnd = from + FLOATS.loopBound(to - from);
+        int i = from;
+        for(; i < vectorEnd; i += FLOATS.length())
+        {
+            IntVector vehicleFlags = IntVector.fromArray(INTS, fleet.flags, i).and(~CarFleet.TICK_FLAGS);
+            VectorMask<Float> isFrontPowered = hasFlag(vehicleFlags, CarFleet.FRONT_AXLE_POWERED);
+            VectorMask<Float> isRearPowered = hasFlag(vehicleFlags, CarFleet.REAR_AXLE_POWERED);
+            VectorMask<Float> isAllWheelDrive = isFrontPowered.and(isRearPowered);
+            VectorMask<Float> isFrontSliding = hasFlag(vehicleFlags, CarFleet.FRONT_SLIDING);
+            VectorMask<Float> isRearSliding = hasFlag(vehicleFlags, CarFleet.REAR_SLIDING);
+            FloatVector brakeInput = FloatVector.fromArray(FLOATS, fleet.brakeInputs, i);
+            VectorMask<Float> breaking = brakeInput.compare(VectorOperators.GT, 0f);
+
+            FloatVector maxFrontForce = FloatVector.fromArray(FLOATS, fleet.maxFrontAxleForce, i);
+            FloatVector maxRearForce = FloatVector.fromArray(FLOATS, fleet.maxRearAxleForce, i);
+            FloatVector slideFriction = FloatVector.fromArray(FLOATS, fleet.slideFrictionForce, i);
+            FloatVector halfSlideFriction = slideFriction.mul(0.5f);
+            FloatVector halfRollFriction = FloatVector.fromArray(FLOATS, fleet.rollFrictionForce, i).mul(0.5f);
+            FloatVector vehicleMass = FloatVector.fromArray(FLOATS, fleet.mass, i);
+            FloatVector vehicleCDrag = FloatVector.fromArray(FLOATS, fleet.cDrag, i);
+            FloatVector vehicleSpeed = FloatVector.fromArray(FLOATS, fleet.speed, i);
+            FloatVector vehicleSlideSpeed = FloatVector.fromArray(FLOATS, fleet.slideSpeed, i);
+
+            // drive force, clamped to the sliding friction if the powered axles spin
+            FloatVector motorForce = FloatVector.fromArray(FLOATS, fleet.maxDrivingForce, i)
+                    .mul(FloatVector.fromArray(FLOATS, fleet.throttleInputs, i));
+            FloatVector axleLimit = maxRearForce.blend(maxFrontForce, isFrontPowered)
+                    .blend(maxFrontForce.add(maxRearForce), isAllWheelDrive);
+            VectorMask<Float> isSpinning = isFrontPowered.or(isRearPowered).and(motorForce.compare(VectorOperators.GT, axleLimit));
+            FloatVector driveForce = motorForce.blend(motorForce.mul(0.5f), isAllWheelDrive).blend(halfSlideFriction, isSpinning);
+            FloatVector frontForwardForce = zero.blend(driveForce, isFrontPowered);
+            FloatVector rearForwardForce = zero.blend(driveForce, isRearPowered);
+
+            // brake or roll resistance, clamped to the sliding friction if the axle blocks
+            FloatVector halfBrakeForce = FloatVector.fromArray(FLOATS, fleet.maxBrakeForce, i).mul(brakeInput).mul(0.5f);
+            VectorMask<Float> isFrontBlocking = breaking.andNot(isFrontSliding).and(halfBrakeForce.compare(VectorOperators.GT, maxFrontForce));
+            VectorMask<Float> isRearBlocking = breaking.andNot(isRearSliding).and(halfBrakeForce.compare(VectorOperators.GT, maxRearForce));
+            FloatVector brakeOrRollForce = halfRollFriction.blend(halfBrakeForce, breaking);
+            frontForwardForce = frontForwardForce.sub(brakeOrRollForce.blend(halfSlideFriction, isFrontBlocking.or(isFrontSliding)));
+            rearForwardForce = rearForwardForce.sub(brakeOrRollForce.blend(halfSlideFriction, isRearBlocking.or(isRearSliding)));
+
+            FloatVector fDrag = vehicleCDrag.neg().mul(vehicleSpeed).mul(vehicleSpeed);
+            FloatVector forwardForce = frontForwardForce.add(rearForwardForce).add(fDrag);
+            FloatVector forwardAcceleration = forwardForce.div(vehicleMass);
+            vehicleSpeed = vehicleSpeed.add(forwardAcceleration.mul(interval));
+
+            FloatVector slideDrag = vehicleCDrag.neg().mul(vehicleSlideSpeed).mul(vehicleSlideSpeed);
+            FloatVector slideForce = slideFriction.neg().add(slideDrag);
+            FloatVector slideAcceleration = slideForce.div(vehicleMass);
+            FloatVector integratedSlideSpeed = vehicleSlideSpeed.add(slideAcceleration.mul(interval));
+            vehicleSlideSpeed = vehicleSlideSpeed.blend(integratedSlideSpeed, isFrontSliding.or(isRearSliding));
+
+            VectorMask<Float> isSlideStopped = vehicleSlideSpeed.compare(VectorOperators.LT, 0f);
+            vehicleSpeed.blend(zero, vehicleSpeed.compare(VectorOperators.LT, 0f)).intoArray(fleet.speed, i);
+            vehicleSlideSpeed.blend(zero, isSlideStopped).intoArray(fleet.slideSpeed, i);
+
+            vehicleFlags = vehicleFlags.lanewise(VectorOperators.AND, ~(CarFleet.FRONT_SLIDING | CarFleet.REAR_SLIDING), isSlideStopped.cast(INTS));
+            vehicleFlags = vehicleFlags.lanewise(VectorOperators.OR, CarFleet.FRONT_SPINNING, isSpinning.and(isFrontPowered).cast(INTS));
+            vehicleFlags = vehicleFlags.lanewise(VectorOperators.OR, CarFleet.REAR_SPINNING, isSpinning.and(isRearPowered).cast(INTS));
+            vehicleFlags = vehicleFlags.lanewise(VectorOperators.OR, CarFleet.FRONT_BLOCKING, isFrontBlocking.andNot(isSlideStopped).cast(INTS));
+            vehicleFlags = vehicleFlags.lanewise(VectorOperators.OR, CarFleet.REAR_BLOCKING, isRearBlocking.andNot(isSlideStopped).cast(INTS));
+            vehicleFlags.intoArray(fleet.flags, i);
+        }
+
+        fleet.stepLongitudinalBatch(interval, i, to);
+    }
+
+    private static VectorMask<Float> hasFlag(IntVector vehicleFlags, int flag)
+    {
+        return vehicleFlags.and(flag).compare(VectorOperators.NE, 0).cast(FLOATS);
+    }
+}
@@ -0,0 +1,56 @@
+package engine.physics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description
+ * Runs a body under a constant force through every IntegrationScheme and compares the velocity
+ * with the closed form solution.
+ */
+public class IntegratorTest {
+
+    private static final float FORCE = 5000;
+    private static final float DRAG_COEFFICIENT = 0.73f;
+    private static final float MASS = 2450;
+    private static final float INTERVAL = 1f / 75;
+    private static final int STEPS = 750;
+
+    @Test
+    public void constantForceWithoutDrag()
+    {
+        for(IntegrationScheme scheme : IntegrationScheme.values())
+        {
+            float velocity = integrate(new Integrator(scheme, 1, 0, 0), 0);
+            // v(t) = F / m * t
+            float expected = FORCE / MASS * (STEPS * INTERVAL);
+            assertEquals(scheme.name(), expected, velocity, 1e-3f);
+        }
+    }
+
+    @Test
+    public void constantForceWithDrag()
+    {
+        // v(t) = vt * tanh(t * sqrt(F * c) / m) with the terminal velocity vt = sqrt(F / c)
+        double time = STEPS * INTERVAL;
+        double terminalVelocity = Math.sqrt(FORCE / DRAG_COEFFICIENT);
+        double expected = terminalVelocity * Math.tanh(time * Math.sqrt(FORCE * DRAG_COEFFICIENT) / MASS);
+
+        float eulerVelocity = integrate(new Integrator(IntegrationScheme.SEMI_IMPLICIT_EULER, 1, 0, 0), DRAG_COEFFICIENT);
+        assertEquals("SEMI_IMPLICIT_EULER", expected, eulerVelocity, 2e-3);
+
+        float rk4Velocity = integrate(new Integrator(IntegrationScheme.RK4, 1, 0, 0), DRAG_COEFFICIENT);
+        assertEquals("RK4", expected, rk4Velocity, 1e-5);
+    }
+
+    private static float integrate(Integrator integrator, float dragCoefficient)
+    {
+        float velocity = 0;
+        for(int i = 0; i < STEPS; i++)
+        {
+            velocity = integrator.integrateVelocity(velocity, FORCE, dragCoefficient, MASS, INTERVAL);
+        }
+        return velocity;
+    }
+}
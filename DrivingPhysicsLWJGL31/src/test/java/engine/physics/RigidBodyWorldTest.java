@@ -0,0 +1,104 @@
+package engine.physics;
+
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Drops boxes onto the ground until they fall asleep and wakes them with a moving kinematic box.
+ */
+public class RigidBodyWorldTest {
+
+    private static final float INTERVAL = 1f / 75;
+    private static final float CELL_SIZE = 4f;
+    private static final int MAX_SETTLE_STEPS = 75 * 5;
+    private static final float REST_TOLERANCE = 0.02f;
+
+    // a car sized kinematic box
+    private static final float CAR_HALF_LENGTH = 2f;
+    private static final float CAR_HALF_WIDTH = 0.8f;
+    private static final float CAR_HEIGHT = 1.4f;
+    private static final float CAR_SPEED = 5f;
+
+    @Test
+    public void droppedBoxSettlesAndSleeps()
+    {
+        RigidBodyWorld world = new RigidBodyWorld(1, 0, CELL_SIZE);
+        int box = world.addBox(0, 1.5f, 0, 0.5f, 0.5f, 0.5f, 10f);
+        assertTrue(world.isAwake(box));
+
+        int steps = settle(world);
+        assertTrue("box still awake after " + steps + " steps", steps < MAX_SETTLE_STEPS);
+        assertEquals(0, world.getAwakeCount());
+
+        Vector3f position = world.getPosition(box, new Vector3f());
+        assertEquals(0, position.x, REST_TOLERANCE);
+        assertEquals(0.5f, position.y, REST_TOLERANCE);
+        assertEquals(0, position.z, REST_TOLERANCE);
+
+        // a sleeping body is not integrated any more
+        for(int step = 0; step < 75; step++)
+        {
+            world.step(INTERVAL);
+        }
+        assertFalse(world.isAwake(box));
+        assertEquals(position, world.getPosition(box, new Vector3f()));
+    }
+
+    @Test
+    public void movingKinematicBoxWakesWholeIsland()
+    {
+        RigidBodyWorld world = new RigidBodyWorld(2, 1, CELL_SIZE);
+        int lower = world.addBox(0, 0.45f, 0, 0.15f, 0.45f, 0.9f, 30f);
+        int upper = world.addBox(0, 1.35f, 0, 0.15f, 0.45f, 0.9f, 30f);
+        world.setKinematicBoxCount(1);
+
+        // the car waits half a metre in front of the stack
+        float carX = -CAR_HALF_LENGTH - 0.5f;
+        world.setKinematicBox(0, carX, 0, 0, CAR_HALF_LENGTH, CAR_HALF_WIDTH, CAR_HEIGHT, 0, 0);
+        int steps = settle(world);
+        assertTrue("stack still awake after " + steps + " steps", steps < MAX_SETTLE_STEPS);
+        Vector3f lowerRest = world.getPosition(lower, new Vector3f());
+        Vector3f upperRest = world.getPosition(upper, new Vector3f());
+        assertEquals(1.35f, upperRest.y, REST_TOLERANCE);
+
+        // the car drives into the lower box, which wakes the upper one as well
+        boolean woken = false;
+        for(int step = 0; step < 75 && !woken; step++)
+        {
+            carX += CAR_SPEED * INTERVAL;
+            world.setKinematicBox(0, carX, 0, 0, CAR_HALF_LENGTH, CAR_HALF_WIDTH, CAR_HEIGHT, CAR_SPEED, 0);
+            world.step(INTERVAL);
+            woken = world.isAwake(lower);
+        }
+        assertTrue(woken);
+        // not before the front of the car reaches the box
+        assertTrue(carX + CAR_HALF_LENGTH > lowerRest.x - 0.15f - 0.1f);
+        assertTrue(world.isAwake(upper));
+        assertEquals(2, world.getAwakeCount());
+
+        for(int step = 0; step < 10; step++)
+        {
+            carX += CAR_SPEED * INTERVAL;
+            world.setKinematicBox(0, carX, 0, 0, CAR_HALF_LENGTH, CAR_HALF_WIDTH, CAR_HEIGHT, CAR_SPEED, 0);
+            world.step(INTERVAL);
+        }
+        assertTrue(world.getPosition(lower, new Vector3f()).x > lowerRest.x + REST_TOLERANCE);
+    }
+
+    // steps until every body sleeps, returns the number of steps or MAX_SETTLE_STEPS
+    private static int settle(RigidBodyWorld world)
+    {
+        int steps = 0;
+        while(world.getAwakeCount() > 0 && steps < MAX_SETTLE_STEPS)
+        {
+            world.step(INTERVAL);
+            steps++;
+        }
+        return steps;
+    }
+}
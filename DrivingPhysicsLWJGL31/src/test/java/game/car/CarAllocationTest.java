@@ -0,0 +1,58 @@
+package game.car;
+
+import game.environment.GroundType;
+import org.joml.Vector3f;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Checks that Car.update does not allocate once the car is warmed up,
+ * measured with the allocation counter of the current thread.
+ */
+public class CarAllocationTest {
+
+    private static final int WARM_UP_STEPS = 200000;
+    private static final int MEASURED_STEPS = 10000;
+    private static final long ALLOWED_BYTES = 1024;     // slack for the counter itself, far below one Vector3f per step
+    private static final float INTERVAL = 1f / 75;
+
+    @Test
+    public void updateDoesNotAllocate()
+    {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        Car car = CarConfig.OFFROAD.createCar(new Vector3f(0, 0, -2.5f));
+        car.setGroundType(new GroundType("road", 0.013f, 0.5f, 0.8f, null));
+
+        drive(car, WARM_UP_STEPS);
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        drive(car, MEASURED_STEPS);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Car.update allocated " + allocated + " bytes in " + MEASURED_STEPS + " steps",
+                allocated <= ALLOWED_BYTES);
+    }
+
+    // accelerates, brakes and steers both ways so every branch of the step runs
+    private static void drive(Car car, int steps)
+    {
+        for(int i = 0; i < steps; i++)
+        {
+            float brake = (i % 500 > 400) ? 1 : 0;
+            float steering = (i % 300 < 150) ? 0.5f : -1f;
+            car.update(1, brake, steering, 0, INTERVAL);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package game.car;
+
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Drives a fleet that starts out overlapping into each other and resolves the collisions with different pool sizes
+ * and chunk counts. The contacts are resolved in bucket order, so every combination has to end in bit-identical states.
+ */
+public class CarFleetCollisionsTest {
+
+    private static final int COLUMNS = 30;
+    private static final int ROWS = 20;
+    // below the half wheel bases of an offroad and a sport car together, so the rows start as chains of overlapping
+    // boxes and most vehicles touch two others, which makes the order of the contacts matter
+    private static final float SPACING_X = 2.8f;
+    private static final float SPACING_Z = 3f;
+    private static final float CELL_SIZE = 6f;
+    private static final int STEPS = 300;
+    private static final int PARALLELISM = 4;
+    private static final float INTERVAL = 1f / 75;
+
+    @Test
+    public void resultDoesNotDependOnThreadsOrChunks()
+    {
+        ForkJoinPool serialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(PARALLELISM);
+        try
+        {
+            int[] expected = run(serialPool, 1);
+            assertTrue("no collisions", expected[expected.length - 1] > 0);
+
+            assertArrayEquals(expected, run(serialPool, CarFleetCollisions.DEFAULT_CHUNK_COUNT));
+            assertArrayEquals(expected, run(parallelPool, 1));
+            assertArrayEquals(expected, run(parallelPool, CarFleetCollisions.DEFAULT_CHUNK_COUNT));
+        }
+        finally
+        {
+            serialPool.shutdown();
+            parallelPool.shutdown();
+        }
+    }
+
+    // the vehicle states followed by the number of resolved contacts
+    private static int[] run(ForkJoinPool pool, int chunkCount)
+    {
+        int vehicles = COLUMNS * ROWS;
+        CarFleet fleet = new CarFleet(vehicles);
+        for(int row = 0; row < ROWS; row++)
+        {
+            for(int column = 0; column < COLUMNS; column++)
+            {
+                CarConfig config = ((row + column) % 2 == 0) ? CarConfig.OFFROAD : CarConfig.SPORT;
+                Car car = config.createCar(new Vector3f(column * SPACING_X, 0, row * SPACING_Z));
+                car.setGroundType(FleetFixtures.ROAD);
+                // sets the rear axle direction, see FleetFixtures.createCar
+                car.update(0, 0, 0, 0, 0);
+                fleet.add(car);
+            }
+        }
+        CarFleetCollisions collisions = new CarFleetCollisions(fleet, CELL_SIZE, pool, chunkCount);
+
+        float[] inputs = new float[vehicles * CarFleet.INPUT_STRIDE];
+        Random random = new Random(11);
+        int contactCount = 0;
+        for(int step = 0; step < STEPS; step++)
+        {
+            FleetFixtures.setRandomInputs(inputs, vehicles, random);
+            // every other column stays parked in the way of the one behind it
+            for(int i = 1; i < vehicles; i += 2)
+            {
+                inputs[i * CarFleet.INPUT_STRIDE + CarFleet.INPUT_THROTTLE] = 0;
+                inputs[i * CarFleet.INPUT_STRIDE + CarFleet.INPUT_BRAKE] = 1;
+            }
+            fleet.step(inputs, INTERVAL);
+            collisions.update();
+            contactCount += collisions.getContactCount();
+        }
+        int[] state = FleetFixtures.getState(fleet);
+        state = Arrays.copyOf(state, state.length + 1);
+        state[state.length - 1] = contactCount;
+        return state;
+    }
+}
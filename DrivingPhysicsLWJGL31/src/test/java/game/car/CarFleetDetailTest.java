@@ -0,0 +1,155 @@
+package game.car;
+
+import game.environment.GroundType;
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Checks which detail CarFleetDetail picks, the hysteresis at the full detail border
+ * and how a vehicle promoted to full detail blends over from the kinematic model.
+ */
+public class CarFleetDetailTest {
+
+    private static final float INTERVAL = 1f / 75;
+    private static final float FULL_DETAIL_DISTANCE = 150f;
+    private static final float HYSTERESIS = 30f;
+    private static final float FAR = 400f;
+    private static final float BLEND_TIME = 0.5f;
+    private static final float TOLERANCE = 1e-3f;
+
+    @Test
+    public void picksDetailByDistanceAndActivity()
+    {
+        CarFleet fleet = new CarFleet(5);
+        int near = fleet.add(createMovingCar(0, FleetFixtures.ROAD));
+        int far = fleet.add(createMovingCar(FAR, FleetFixtures.ROAD));
+        int farBlocking = fleet.add(createMovingCar(-FAR, FleetFixtures.ICE));
+        int nearParked = fleet.add(createCar(0, 10));
+        int farParked = fleet.add(createCar(FAR, 10));
+
+        float[] inputs = new float[fleet.size() * CarFleet.INPUT_STRIDE];
+        inputs[near * CarFleet.INPUT_STRIDE + CarFleet.INPUT_THROTTLE] = 0.5f;
+        inputs[far * CarFleet.INPUT_STRIDE + CarFleet.INPUT_THROTTLE] = 0.5f;
+        // full brake on ice blocks the wheels in the first step, still with full detail from add()
+        inputs[farBlocking * CarFleet.INPUT_STRIDE + CarFleet.INPUT_BRAKE] = 1;
+        fleet.step(inputs, INTERVAL);
+        assertTrue((fleet.getFlags(farBlocking) & (CarFleet.FRONT_BLOCKING | CarFleet.REAR_BLOCKING)) != 0);
+
+        CarFleetDetail fleetDetail = new CarFleetDetail(fleet, FULL_DETAIL_DISTANCE, HYSTERESIS);
+        fleetDetail.update(inputs, 0, 0);
+
+        assertEquals(CarFleet.DETAIL_FULL, fleet.getDetail(near));
+        assertEquals(CarFleet.DETAIL_KINEMATIC, fleet.getDetail(far));
+        assertEquals(CarFleet.DETAIL_FULL, fleet.getDetail(farBlocking));
+        assertEquals(CarFleet.DETAIL_DORMANT, fleet.getDetail(nearParked));
+        assertEquals(CarFleet.DETAIL_DORMANT, fleet.getDetail(farParked));
+        assertEquals(2, fleetDetail.getFullCount());
+        assertEquals(1, fleetDetail.getKinematicCount());
+        assertEquals(2, fleetDetail.getDormantCount());
+
+        // a parked car wakes up with throttle
+        inputs[nearParked * CarFleet.INPUT_STRIDE + CarFleet.INPUT_THROTTLE] = 0.5f;
+        fleetDetail.update(inputs, 0, 0);
+        assertEquals(CarFleet.DETAIL_FULL, fleet.getDetail(nearParked));
+    }
+
+    @Test
+    public void hysteresisKeepsDetailAtBorder()
+    {
+        CarFleet fleet = new CarFleet(1);
+        fleet.add(createMovingCar(0, FleetFixtures.ROAD));
+        float[] inputs = new float[CarFleet.INPUT_STRIDE];
+        inputs[CarFleet.INPUT_THROTTLE] = 0.5f;
+        CarFleetDetail fleetDetail = new CarFleetDetail(fleet, FULL_DETAIL_DISTANCE, HYSTERESIS);
+        float carX = fleet.getPositionX(0);
+        float carZ = fleet.getPositionZ(0);
+
+        // the camera moves away along z and back
+        float[] cameraDistances = {0, 160, 179, 181, 160, 151, 149, 179};
+        int[] expectedDetails = {
+                CarFleet.DETAIL_FULL, CarFleet.DETAIL_FULL, CarFleet.DETAIL_FULL, CarFleet.DETAIL_KINEMATIC,
+                CarFleet.DETAIL_KINEMATIC, CarFleet.DETAIL_KINEMATIC, CarFleet.DETAIL_FULL, CarFleet.DETAIL_FULL
+        };
+        for(int k = 0; k < cameraDistances.length; k++)
+        {
+            fleetDetail.update(inputs, carX, carZ + cameraDistances[k]);
+            assertEquals("camera distance " + cameraDistances[k], expectedDetails[k], fleet.getDetail(0));
+        }
+    }
+
+    @Test
+    public void promotionBlendsOverFromKinematicModel()
+    {
+        CarFleet blendedFleet = new CarFleet(1);
+        CarFleet kinematicFleet = new CarFleet(1);
+        blendedFleet.add(createMovingCar(0, FleetFixtures.ROAD));
+        kinematicFleet.add(createMovingCar(0, FleetFixtures.ROAD));
+        blendedFleet.setDetail(0, CarFleet.DETAIL_KINEMATIC);
+        kinematicFleet.setDetail(0, CarFleet.DETAIL_KINEMATIC);
+
+        float[] inputs = new float[CarFleet.INPUT_STRIDE];
+        inputs[CarFleet.INPUT_THROTTLE] = 0.5f;
+        inputs[CarFleet.INPUT_STEERING] = 0.3f;
+        for(int step = 0; step < 75; step++)
+        {
+            blendedFleet.step(inputs, INTERVAL);
+            kinematicFleet.step(inputs, INTERVAL);
+        }
+        // the demotion from add() has been blended out by now
+        assertEquals(0, blendedFleet.getDetailBlend(0), 0);
+
+        blendedFleet.setDetail(0, CarFleet.DETAIL_FULL);
+        assertEquals(1, blendedFleet.getDetailBlend(0), 0);
+
+        // the first step still follows the kinematic model
+        blendedFleet.step(inputs, INTERVAL);
+        kinematicFleet.step(inputs, INTERVAL);
+        assertEquals(kinematicFleet.getPositionX(0), blendedFleet.getPositionX(0), TOLERANCE);
+        assertEquals(kinematicFleet.getPositionZ(0), blendedFleet.getPositionZ(0), TOLERANCE);
+        assertEquals(kinematicFleet.getHeading(0), blendedFleet.getHeading(0), TOLERANCE);
+        assertEquals(kinematicFleet.getSpeed(0), blendedFleet.getSpeed(0), TOLERANCE);
+
+        // the share of the kinematic model falls linearly and the blend ends after BLEND_TIME
+        int blendSteps = (int) Math.ceil(BLEND_TIME / INTERVAL);
+        for(int step = 1; step < blendSteps; step++)
+        {
+            assertEquals(1 - step * INTERVAL / BLEND_TIME, blendedFleet.getDetailBlend(0), TOLERANCE);
+            blendedFleet.step(inputs, INTERVAL);
+        }
+        assertEquals(0, blendedFleet.getDetailBlend(0), 0);
+
+        // a switch back while blending continues from the current mix
+        blendedFleet.setDetail(0, CarFleet.DETAIL_KINEMATIC);
+        for(int step = 0; step < 10; step++)
+        {
+            blendedFleet.step(inputs, INTERVAL);
+        }
+        float share = blendedFleet.getDetailBlend(0);
+        blendedFleet.setDetail(0, CarFleet.DETAIL_FULL);
+        assertEquals(1 - share, blendedFleet.getDetailBlend(0), TOLERANCE);
+    }
+
+    // a car that already drives at some speed
+    private static Car createMovingCar(float x, GroundType groundType)
+    {
+        Car car = createCar(x, 0);
+        for(int step = 0; step < 150; step++)
+        {
+            car.update(0.5f, 0, 0, 0, INTERVAL);
+        }
+        car.setGroundType(groundType);
+        return car;
+    }
+
+    private static Car createCar(float x, float z)
+    {
+        Car car = CarConfig.OFFROAD.createCar(new Vector3f(x, 0, z));
+        car.setGroundType(FleetFixtures.ROAD);
+        car.update(0, 0, 0, 0, 0);
+        return car;
+    }
+}
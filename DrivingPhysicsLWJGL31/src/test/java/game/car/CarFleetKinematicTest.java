@@ -0,0 +1,80 @@
+package game.car;
+
+import game.environment.GroundType;
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Drives the same car with full and with kinematic detail at moderate throttle and steering, where the full model
+ * does not slide, and checks that both turn by the same heading. Pins KINEMATIC_TURN_RATE to the full model.
+ */
+public class CarFleetKinematicTest {
+
+    private static final float INTERVAL = 1f / 75;
+    private static final int STEPS = 75 * 10;
+    // the full model starts to turn one step later, which matters most for small turns
+    private static final float MAX_RELATIVE_HEADING_ERROR = 0.05f;
+    private static final float SPEED_TOLERANCE = 0.01f;
+
+    private static final float[] THROTTLE_INPUTS = {0.2f, 0.4f};
+    private static final float[] STEERING_INPUTS = {0.1f, 0.3f, -0.5f};
+
+    @Test
+    public void kinematicHeadingFollowsFullDetail()
+    {
+        GroundType road = new GroundType("road", 0.013f, 0.5f, 0.8f, null);
+        for(CarConfig config : new CarConfig[] {CarConfig.OFFROAD, CarConfig.SPORT})
+        {
+            for(float throttleInput : THROTTLE_INPUTS)
+            {
+                for(float steeringInput : STEERING_INPUTS)
+                {
+                    CarFleet fullFleet = createFleet(config, road);
+                    CarFleet kinematicFleet = createFleet(config, road);
+                    kinematicFleet.setDetail(0, CarFleet.DETAIL_KINEMATIC);
+
+                    float[] inputs = new float[CarFleet.INPUT_STRIDE];
+                    inputs[CarFleet.INPUT_THROTTLE] = throttleInput;
+                    inputs[CarFleet.INPUT_STEERING] = steeringInput;
+
+                    float fullTurn = 0;
+                    float kinematicTurn = 0;
+                    for(int step = 0; step < STEPS; step++)
+                    {
+                        float fullHeading = fullFleet.getHeading(0);
+                        float kinematicHeading = kinematicFleet.getHeading(0);
+                        fullFleet.step(inputs, INTERVAL);
+                        kinematicFleet.step(inputs, INTERVAL);
+                        fullTurn += getHeadingDifference(fullHeading, fullFleet.getHeading(0));
+                        kinematicTurn += getHeadingDifference(kinematicHeading, kinematicFleet.getHeading(0));
+                        assertTrue((fullFleet.getFlags(0) & (CarFleet.FRONT_SLIDING | CarFleet.REAR_SLIDING)) == 0);
+                    }
+
+                    String message = "throttle " + throttleInput + ", steering " + steeringInput;
+                    assertEquals(message, fullFleet.getSpeed(0), kinematicFleet.getSpeed(0), SPEED_TOLERANCE);
+                    assertEquals(message, fullTurn, kinematicTurn, Math.abs(fullTurn) * MAX_RELATIVE_HEADING_ERROR);
+                }
+            }
+        }
+    }
+
+    private static CarFleet createFleet(CarConfig config, GroundType groundType)
+    {
+        CarFleet fleet = new CarFleet(1);
+        Car car = config.createCar(new Vector3f());
+        car.setGroundType(groundType);
+        fleet.add(car);
+        return fleet;
+    }
+
+    // heading change in degrees, unwrapped across 0 and 360
+    private static float getHeadingDifference(float from, float to)
+    {
+        float difference = to - from;
+        return difference - 360f * Math.round(difference / 360f);
+    }
+}
@@ -0,0 +1,89 @@
+package game.car;
+
+import game.environment.GroundType;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Steps cars with Car.update and copies of them in a CarFleet with the same inputs and ground types
+ * and checks that position, heading, speed and gear stay bit-identical, for the batched and the per vehicle step.
+ */
+public class CarFleetParityTest {
+
+    private static final int VEHICLES = 12;
+    private static final int STEPS = 3000;
+    private static final int GROUND_CHANGE_STEPS = 250;
+    private static final float INTERVAL = 1f / 75;
+
+    @Test
+    public void batchedFleetMatchesCar()
+    {
+        assertFleetMatchesCar(true);
+    }
+
+    @Test
+    public void unbatchedFleetMatchesCar()
+    {
+        assertFleetMatchesCar(false);
+    }
+
+    private static void assertFleetMatchesCar(boolean batched)
+    {
+        Car[] cars = new Car[VEHICLES];
+        CarFleet fleet = new CarFleet(VEHICLES);
+        fleet.setBatched(batched);
+        for(int i = 0; i < VEHICLES; i++)
+        {
+            cars[i] = FleetFixtures.createCar(i, FleetFixtures.ICE);
+            fleet.add(FleetFixtures.createCar(i, FleetFixtures.ICE));
+        }
+
+        float[] inputs = new float[VEHICLES * CarFleet.INPUT_STRIDE];
+        Random random = new Random(3);
+        int slidingTicks = 0;
+        for(int step = 0; step < STEPS; step++)
+        {
+            FleetFixtures.setRandomInputs(inputs, VEHICLES, random);
+            GroundType groundType = (step / GROUND_CHANGE_STEPS) % 3 == 2 ? FleetFixtures.ICE : FleetFixtures.ROAD;
+            for(int i = 0; i < VEHICLES; i++)
+            {
+                int offset = i * CarFleet.INPUT_STRIDE;
+                // the fleet has no handbrake
+                cars[i].setGroundType(groundType);
+                cars[i].update(inputs[offset + CarFleet.INPUT_THROTTLE], inputs[offset + CarFleet.INPUT_BRAKE],
+                        inputs[offset + CarFleet.INPUT_STEERING], 0, INTERVAL);
+                fleet.setGroundType(i, groundType);
+            }
+            fleet.step(inputs, INTERVAL);
+
+            for(int i = 0; i < VEHICLES; i++)
+            {
+                String message = "step " + step + ", vehicle " + i;
+                assertTrue(message, Float.isFinite(fleet.getPositionX(i)) && Float.isFinite(fleet.getPositionZ(i)));
+                assertBitsEqual(message, cars[i].getPosition().x, fleet.getPositionX(i));
+                assertBitsEqual(message, cars[i].getPosition().y, fleet.getPositionY(i));
+                assertBitsEqual(message, cars[i].getPosition().z, fleet.getPositionZ(i));
+                assertBitsEqual(message, cars[i].getCarDirectionAngle(), fleet.getHeading(i));
+                assertBitsEqual(message, cars[i].getSpeed(), fleet.getSpeed(i));
+                assertBitsEqual(message, cars[i].getSlideSpeed(), fleet.getSlideSpeed(i));
+                assertEquals(message, cars[i].getGear(), fleet.getGear(i));
+                if((fleet.getFlags(i) & (CarFleet.FRONT_SLIDING | CarFleet.REAR_SLIDING)) != 0)
+                {
+                    slidingTicks++;
+                }
+            }
+        }
+        // the comparison has to cover the sliding branches as well
+        assertTrue(slidingTicks > 0);
+    }
+
+    private static void assertBitsEqual(String message, float expected, float actual)
+    {
+        assertEquals(message, Float.floatToIntBits(expected), Float.floatToIntBits(actual));
+    }
+}
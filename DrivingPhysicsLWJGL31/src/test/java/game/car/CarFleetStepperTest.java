@@ -0,0 +1,52 @@
+package game.car;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * @description
+ * Steps the same fleet on a pool with parallelism 1 and on a pool with several threads
+ * and checks that the vehicle states are bit-identical.
+ */
+public class CarFleetStepperTest {
+
+    private static final int VEHICLES = 2000;
+    private static final int STEPS = 300;
+    private static final int PARALLELISM = 4;
+    private static final int THRESHOLD = 64;
+    private static final float INTERVAL = 1f / 75;
+
+    @Test
+    public void parallelStepMatchesSingleThreadedStep()
+    {
+        CarFleet serialFleet = FleetFixtures.createFleet(VEHICLES, FleetFixtures.SAND);
+        CarFleet parallelFleet = FleetFixtures.createFleet(VEHICLES, FleetFixtures.SAND);
+        ForkJoinPool serialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(PARALLELISM);
+        try
+        {
+            CarFleetStepper serialStepper = new CarFleetStepper(serialPool, THRESHOLD);
+            CarFleetStepper parallelStepper = new CarFleetStepper(parallelPool, THRESHOLD);
+
+            float[] inputs = new float[VEHICLES * CarFleet.INPUT_STRIDE];
+            Random random = new Random(1);
+            for(int step = 0; step < STEPS; step++)
+            {
+                FleetFixtures.setRandomInputs(inputs, VEHICLES, random);
+                serialStepper.step(serialFleet, inputs, INTERVAL);
+                parallelStepper.step(parallelFleet, inputs, INTERVAL);
+            }
+        }
+        finally
+        {
+            serialPool.shutdown();
+            parallelPool.shutdown();
+        }
+
+        assertArrayEquals(FleetFixtures.getState(serialFleet), FleetFixtures.getState(parallelFleet));
+    }
+}
@@ -0,0 +1,46 @@
+package game.car;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Steps the same fleet with the vector kernel and with the scalar step and checks that the vehicle states are
+ * bit-identical. Skipped if the runtime can not load the vector kernel (before Java 17 or without
+ * --add-modules jdk.incubator.vector).
+ */
+public class CarFleetVectorKernelTest {
+
+    // not a multiple of any vector length, so the scalar tail runs as well
+    private static final int VEHICLES = 1003;
+    private static final int STEPS = 600;
+    private static final float INTERVAL = 1f / 75;
+
+    @Test
+    public void vectorKernelMatchesScalarStep()
+    {
+        Assume.assumeTrue("jdk.incubator.vector not available", CarFleet.isVectorKernelAvailable());
+
+        CarFleet vectorFleet = FleetFixtures.createFleet(VEHICLES, FleetFixtures.ICE);
+        CarFleet scalarFleet = FleetFixtures.createFleet(VEHICLES, FleetFixtures.ICE);
+        vectorFleet.setVectorized(true);
+        scalarFleet.setBatched(false);
+        assertTrue(vectorFleet.isVectorized());
+
+        float[] inputs = new float[VEHICLES * CarFleet.INPUT_STRIDE];
+        Random random = new Random(7);
+        for(int step = 0; step < STEPS; step++)
+        {
+            FleetFixtures.setRandomInputs(inputs, VEHICLES, random);
+            vectorFleet.step(inputs, INTERVAL);
+            scalarFleet.step(inputs, INTERVAL);
+        }
+
+        assertArrayEquals(FleetFixtures.getState(scalarFleet), FleetFixtures.getState(vectorFleet));
+    }
+}
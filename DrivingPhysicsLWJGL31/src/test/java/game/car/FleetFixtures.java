@@ -0,0 +1,86 @@
+package game.car;
+
+import game.environment.GroundType;
+import org.joml.Vector3f;
+
+import java.util.Random;
+
+/**
+ * @description
+ * Fleets, inputs and state dumps shared by the tests that compare two ways of stepping the same fleet.
+ */
+final class FleetFixtures {
+
+    static final GroundType ROAD = new GroundType("road", 0.013f, 0.5f, 0.8f, null);
+    static final GroundType SAND = new GroundType("sandHard", 0.08f, 0.25f, 0.4f, null);
+    static final GroundType ICE = new GroundType("ice", 0.015f, 0.05f, 0.10f, null);
+
+    static final int STATE_STRIDE = 8;
+
+    private FleetFixtures()
+    {
+    }
+
+    /**
+     * @description
+     * Alternates offroad and sport cars in a diagonal line, 5 units apart on both axes.
+     * Every third car is on the given ground type, the others on the road. Every car has been updated once
+     * without moving.
+     */
+    static CarFleet createFleet(int vehicles, GroundType groundType)
+    {
+        CarFleet fleet = new CarFleet(vehicles);
+        for(int i = 0; i < vehicles; i++)
+        {
+            fleet.add(createCar(i, groundType));
+        }
+        return fleet;
+    }
+
+    static Car createCar(int i, GroundType groundType)
+    {
+        CarConfig config = (i % 2 == 0) ? CarConfig.OFFROAD : CarConfig.SPORT;
+        Car car = config.createCar(new Vector3f(i * 5, 0, -i * 5));
+        car.setGroundType((i % 3 == 0) ? groundType : ROAD);
+        // a new car has no rear axle direction before its first update, blocking in the first tick would slide along
+        // a zero vector and turn the state into NaN
+        car.update(0, 0, 0, 0, 0);
+        return car;
+    }
+
+    /**
+     * @description
+     * Random inputs for one tick: coasting a quarter of the time, braking an eighth of the time,
+     * steering across the whole range and the handbrake in one of sixteen ticks.
+     */
+    static void setRandomInputs(float[] inputs, int vehicles, Random random)
+    {
+        for(int i = 0; i < vehicles; i++)
+        {
+            int offset = i * CarFleet.INPUT_STRIDE;
+            inputs[offset + CarFleet.INPUT_THROTTLE] = random.nextInt(4) == 0 ? 0 : random.nextFloat();
+            inputs[offset + CarFleet.INPUT_BRAKE] = random.nextInt(8) == 0 ? random.nextFloat() : 0;
+            inputs[offset + CarFleet.INPUT_STEERING] = random.nextFloat() * 2 - 1;
+            inputs[offset + CarFleet.INPUT_HANDBRAKE] = random.nextInt(16) == 0 ? 1 : 0;
+        }
+    }
+
+    // the float state as raw bits, so the comparison is exact and NaN safe
+    static int[] getState(CarFleet fleet)
+    {
+        int[] state = new int[fleet.size() * STATE_STRIDE];
+        for(int i = 0; i < fleet.size(); i++)
+        {
+            int offset = i * STATE_STRIDE;
+            state[offset] = Float.floatToIntBits(fleet.getPositionX(i));
+            state[offset + 1] = Float.floatToIntBits(fleet.getPositionY(i));
+            state[offset + 2] = Float.floatToIntBits(fleet.getPositionZ(i));
+            state[offset + 3] = Float.floatToIntBits(fleet.getHeading(i));
+            state[offset + 4] = Float.floatToIntBits(fleet.getSpeed(i));
+            state[offset + 5] = Float.floatToIntBits(fleet.getSlideSpeed(i));
+            state[offset + 6] = fleet.getGear(i);
+            state[offset + 7] = fleet.getFlags(i);
+        }
+        return state;
+    }
+}
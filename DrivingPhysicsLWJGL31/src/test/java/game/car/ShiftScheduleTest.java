@@ -0,0 +1,120 @@
+package game.car;
+
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Checks the shift speeds of the car configurations and that the hysteresis keeps a speed
+ * which wobbles around a shift speed from switching gears back and forth.
+ */
+public class ShiftScheduleTest {
+
+    private static final float SPEED_STEP = 0.01f;
+    private static final float TOLERANCE = 1e-4f;
+
+    @Test
+    public void downshiftSpeedsLieHysteresisBelowUpshiftSpeeds()
+    {
+        for(ShiftSchedule schedule : getSchedules())
+        {
+            assertTrue(schedule.getTopGear() > ShiftSchedule.FIRST_GEAR);
+            for(int gear = ShiftSchedule.FIRST_GEAR; gear < schedule.getTopGear(); gear++)
+            {
+                assertTrue(schedule.getUpshiftSpeed(gear) > 0);
+                if(gear > ShiftSchedule.FIRST_GEAR)
+                {
+                    assertTrue(schedule.getUpshiftSpeed(gear) > schedule.getUpshiftSpeed(gear - 1));
+                }
+                assertEquals(schedule.getUpshiftSpeed(gear) - ShiftSchedule.SHIFT_HYSTERESIS, schedule.getDownshiftSpeed(gear + 1), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void sweepShiftsOnceInEachDirection()
+    {
+        for(ShiftSchedule schedule : getSchedules())
+        {
+            float topSpeed = schedule.getUpshiftSpeed(schedule.getTopGear() - 1) + 10;
+            int gear = ShiftSchedule.FIRST_GEAR;
+            int shifts = 0;
+            for(float speed = 0; speed < topSpeed; speed += SPEED_STEP)
+            {
+                int nextGear = schedule.getGear(speed, gear);
+                assertTrue(nextGear == gear || nextGear == gear + 1);
+                if(nextGear != gear)
+                {
+                    assertEquals(schedule.getUpshiftSpeed(gear), speed, SPEED_STEP);
+                    shifts++;
+                }
+                gear = nextGear;
+            }
+            assertEquals(schedule.getTopGear(), gear);
+            assertEquals(schedule.getTopGear() - ShiftSchedule.FIRST_GEAR, shifts);
+
+            shifts = 0;
+            for(float speed = topSpeed; speed > 0; speed -= SPEED_STEP)
+            {
+                int nextGear = schedule.getGear(speed, gear);
+                assertTrue(nextGear == gear || nextGear == gear - 1);
+                if(nextGear != gear)
+                {
+                    assertEquals(schedule.getDownshiftSpeed(gear), speed, SPEED_STEP);
+                    shifts++;
+                }
+                gear = nextGear;
+            }
+            assertEquals(ShiftSchedule.FIRST_GEAR, gear);
+            assertEquals(schedule.getTopGear() - ShiftSchedule.FIRST_GEAR, shifts);
+        }
+    }
+
+    @Test
+    public void speedAroundShiftSpeedDoesNotHuntGears()
+    {
+        float amplitude = ShiftSchedule.SHIFT_HYSTERESIS * 0.45f;
+        for(ShiftSchedule schedule : getSchedules())
+        {
+            for(int gear = ShiftSchedule.FIRST_GEAR; gear < schedule.getTopGear(); gear++)
+            {
+                float shiftSpeed = schedule.getUpshiftSpeed(gear);
+                // reach the shift speed from below, then wobble around it
+                int currentGear = schedule.getGear(shiftSpeed - amplitude, gear);
+                assertEquals(gear, currentGear);
+                currentGear = schedule.getGear(shiftSpeed, currentGear);
+                assertEquals(gear + 1, currentGear);
+                for(int tick = 0; tick < 1000; tick++)
+                {
+                    float speed = shiftSpeed + amplitude * (float) Math.sin(tick * 0.3);
+                    currentGear = schedule.getGear(speed, currentGear);
+                    assertEquals("speed " + speed, gear + 1, currentGear);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void jumpToSpeedSkipsGears()
+    {
+        for(ShiftSchedule schedule : getSchedules())
+        {
+            int topGear = schedule.getTopGear();
+            assertEquals(topGear, schedule.getGear(schedule.getUpshiftSpeed(topGear - 1) + 1, ShiftSchedule.FIRST_GEAR));
+            assertEquals(ShiftSchedule.FIRST_GEAR, schedule.getGear(0, topGear));
+            // reverse and unset gears start from the first gear
+            assertEquals(ShiftSchedule.FIRST_GEAR, schedule.getGear(0, 0));
+        }
+    }
+
+    private static ShiftSchedule[] getSchedules()
+    {
+        return new ShiftSchedule[] {
+                CarConfig.OFFROAD.createCar(new Vector3f()).getShiftSchedule(),
+                CarConfig.SPORT.createCar(new Vector3f()).getShiftSchedule()
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package game.car;
+
+import engine.physics.Physics;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Compares Car.limitSteeringAngle with the iterative search it replaced, over speed, steering input and ground grip.
+ * Where the search walks past zero and reverses the steering, the closed form has to keep the direction and fit.
+ */
+public class SteeringLimitTest {
+
+    private static final float TOLERANCE = 1e-3f;
+    // the closed form solves the number of steps from the rounded asin while the search sums up float steps,
+    // right at the limit they can end one step apart
+    private static final float MAX_OFF_BY_ONE_SHARE = 0.001f;
+    private static final int MAX_SEARCH_STEPS = 10000;
+
+    private static final float[] STATIC_FRICTIONS = {0.8f, 0.6f, 0.4f, 0.1f};
+
+    @Test
+    public void matchesIterativeSearch()
+    {
+        int compared = 0;
+        int offByOne = 0;
+        for(CarConfig config : new CarConfig[] {CarConfig.OFFROAD, CarConfig.SPORT})
+        {
+            for(float staticFriction : STATIC_FRICTIONS)
+            {
+                float maxFrontAxleForce = staticFriction * (config.mass * Physics.G * 0.5f);
+                float steeringLimitFactor = Car.calcSteeringLimitFactor(maxFrontAxleForce, config.wheelBase, config.mass);
+                for(float speed = 0; speed <= 80; speed += 0.25f)
+                {
+                    for(float input = -1; input <= 1; input += 0.05f)
+                    {
+                        if(Math.abs(input) < 1e-4f)
+                        {
+                            continue;
+                        }
+                        float steeringAngle = input * config.maxSteeringAngle;
+                        float searched = searchSteeringAngle(steeringAngle, speed, config.wheelBase, config.mass, maxFrontAxleForce);
+                        float limited = Car.limitSteeringAngle(steeringAngle, speed, steeringLimitFactor);
+
+                        if(Math.signum(searched) == Math.signum(steeringAngle))
+                        {
+                            String message = "speed " + speed + ", angle " + steeringAngle + ", friction " + staticFriction;
+                            assertEquals(message, searched, limited, Car.STEERING_STEP + TOLERANCE);
+                            if(Math.abs(searched - limited) > TOLERANCE)
+                            {
+                                offByOne++;
+                            }
+                            compared++;
+                        }
+                        else
+                        {
+                            assertFitsInDirection(steeringAngle, limited, speed, steeringLimitFactor);
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(compared > 0);
+        assertTrue(offByOne + " of " + compared + " angles are one step apart", offByOne <= compared * MAX_OFF_BY_ONE_SHARE);
+    }
+
+    @Test
+    public void keepsDirectionAtHighSpeedOnIce()
+    {
+        float maxFrontAxleForce = 0.1f * (CarConfig.OFFROAD.mass * Physics.G * 0.5f);
+        float steeringLimitFactor = Car.calcSteeringLimitFactor(maxFrontAxleForce, CarConfig.OFFROAD.wheelBase, CarConfig.OFFROAD.mass);
+        float speed = 60;
+
+        for(float steeringAngle : new float[] {16.25f, 0.35f, -16.25f, -0.35f})
+        {
+            float limited = Car.limitSteeringAngle(steeringAngle, speed, steeringLimitFactor);
+            assertFitsInDirection(steeringAngle, limited, speed, steeringLimitFactor);
+        }
+    }
+
+    private static void assertFitsInDirection(float steeringAngle, float limited, float speed, float steeringLimitFactor)
+    {
+        String message = "speed " + speed + ", angle " + steeringAngle + ", limited " + limited;
+        assertTrue(message, Math.signum(limited) == Math.signum(steeringAngle));
+        float maxSine = steeringLimitFactor / (speed * speed);
+        assertTrue(message, Math.sin(Math.toRadians(Math.abs(limited))) <= maxSine * (1 + TOLERANCE));
+    }
+
+    // the loop of the original Car.update, capped because it never ends once it walked past zero at high speed
+    private static float searchSteeringAngle(float steeringAngle, float speed, float wheelBase, float mass, float maxFrontAxleForce)
+    {
+        boolean isPositive = steeringAngle > 0;
+        float lateralForce;
+        int steps = 0;
+        do
+        {
+            if(isPositive)
+            {
+                steeringAngle -= Car.STEERING_STEP;
+            }
+            else
+            {
+                steeringAngle += Car.STEERING_STEP;
+            }
+            float turnRadius = wheelBase / (float) Math.sin(Math.toRadians(steeringAngle));
+            float lateralAcceleration = (speed * speed) / turnRadius;
+            lateralForce = mass * lateralAcceleration;
+            steps++;
+        }
+        while(Math.abs(lateralForce) * 0.5f > maxFrontAxleForce && steps < MAX_SEARCH_STEPS);
+
+        return steeringAngle;
+    }
+}
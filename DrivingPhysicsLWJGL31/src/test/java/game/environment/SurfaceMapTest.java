@@ -0,0 +1,112 @@
+package game.environment;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @description
+ * Saves surface maps built in memory, memory maps them again with loadBinary() and compares ids and ground types.
+ */
+public class SurfaceMapTest {
+
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+    private static final float ORIGIN_X = -12.5f;
+    private static final float ORIGIN_Z = 40f;
+    private static final float CELL_SIZE = 2f;
+
+    private static final GroundType ROAD = new GroundType("road", 0.013f, 0.5f, 0.8f, null);
+    private static final GroundType SAND = new GroundType("sandHard", 0.08f, 0.25f, 0.4f, null);
+    private static final GroundType ICE = new GroundType("ice", 0.015f, 0.05f, 0.10f, null);
+    private static final GroundType[] PALETTE = {ROAD, SAND, ICE};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void loadBinaryReadsSavedMap() throws IOException
+    {
+        SurfaceMap saved = createMap(PALETTE);
+        Path file = folder.newFile("surface.smap").toPath();
+        saved.saveBinary(file);
+
+        SurfaceMap loaded = SurfaceMap.loadBinary(file, PALETTE);
+        assertEquals(WIDTH, loaded.getWidth());
+        assertEquals(HEIGHT, loaded.getHeight());
+        assertEquals(ORIGIN_X, loaded.getOriginX(), 0);
+        assertEquals(ORIGIN_Z, loaded.getOriginZ(), 0);
+        assertEquals(CELL_SIZE, loaded.getCellSize(), 0);
+        for(int row = 0; row < HEIGHT; row++)
+        {
+            for(int column = 0; column < WIDTH; column++)
+            {
+                assertEquals(saved.getId(column, row), loaded.getId(column, row));
+                float x = ORIGIN_X + (column + 0.5f) * CELL_SIZE;
+                float z = ORIGIN_Z + (row + 0.5f) * CELL_SIZE;
+                assertSame(saved.getGroundType(x, z), loaded.getGroundType(x, z));
+            }
+        }
+
+        // outside of the raster the border cells continue
+        assertSame(saved.getGroundType(ORIGIN_X, ORIGIN_Z), loaded.getGroundType(ORIGIN_X - 1000, ORIGIN_Z - 1000));
+        float maxX = ORIGIN_X + WIDTH * CELL_SIZE;
+        float maxZ = ORIGIN_Z + HEIGHT * CELL_SIZE;
+        assertSame(saved.getGroundType(maxX - 0.5f, maxZ - 0.5f), loaded.getGroundType(maxX + 1000, maxZ + 1000));
+    }
+
+    @Test
+    public void idsOutsideOfPaletteResolveToFirstGroundType() throws IOException
+    {
+        Path file = folder.newFile("surface.smap").toPath();
+        createMap(PALETTE).saveBinary(file);
+
+        GroundType[] smallPalette = {SAND, ROAD};
+        SurfaceMap loaded = SurfaceMap.loadBinary(file, smallPalette);
+        for(int row = 0; row < HEIGHT; row++)
+        {
+            for(int column = 0; column < WIDTH; column++)
+            {
+                int id = loaded.getId(column, row);
+                GroundType expected = id < smallPalette.length ? smallPalette[id] : smallPalette[0];
+                float x = ORIGIN_X + (column + 0.5f) * CELL_SIZE;
+                float z = ORIGIN_Z + (row + 0.5f) * CELL_SIZE;
+                assertSame(expected, loaded.getGroundType(x, z));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void mappedMapIsReadOnly() throws IOException
+    {
+        Path file = folder.newFile("surface.smap").toPath();
+        createMap(PALETTE).saveBinary(file);
+
+        SurfaceMap.loadBinary(file, PALETTE).setId(0, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setIdRejectsIdOutsideOfPalette()
+    {
+        createMap(PALETTE).setId(0, 0, PALETTE.length);
+    }
+
+    private static SurfaceMap createMap(GroundType[] palette)
+    {
+        SurfaceMap surfaceMap = new SurfaceMap(WIDTH, HEIGHT, ORIGIN_X, ORIGIN_Z, CELL_SIZE, palette);
+        for(int row = 0; row < HEIGHT; row++)
+        {
+            for(int column = 0; column < WIDTH; column++)
+            {
+                surfaceMap.setId(column, row, (column * 7 + row * 3) % palette.length);
+            }
+        }
+        return surfaceMap;
+    }
+}
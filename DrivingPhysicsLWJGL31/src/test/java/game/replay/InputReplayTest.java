@@ -0,0 +1,100 @@
+package game.replay;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description
+ * Records inputs with InputRecorder and reads them back with InputReplay.
+ */
+public class InputReplayTest {
+
+    // several buffers full, so the recorder flushes and the replay refills in the middle of a record
+    private static final int TICKS = 3 * InputLog.BUFFER_SIZE / InputLog.RECORD_SIZE + 5;
+    private static final float INTERVAL = 1f / 75;
+    private static final int CARS = 2;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayReturnsRecordedInputs() throws IOException
+    {
+        Path file = folder.newFile("inputs.log").toPath();
+        try(InputRecorder recorder = new InputRecorder(file, INTERVAL))
+        {
+            Random random = new Random(5);
+            for(int tick = 0; tick < TICKS; tick++)
+            {
+                recorder.record(random.nextInt(CARS), random.nextFloat(), random.nextFloat(), random.nextFloat() * 2 - 1, random.nextInt(2));
+            }
+            assertEquals(TICKS, recorder.getRecordedTicks());
+        }
+        assertEquals(InputLog.HEADER_SIZE + (long) TICKS * InputLog.RECORD_SIZE, Files.size(file));
+
+        try(InputReplay replay = new InputReplay(file))
+        {
+            assertBitsEqual(INTERVAL, replay.getInterval());
+            Random random = new Random(5);
+            for(int tick = 0; tick < TICKS; tick++)
+            {
+                assertTrue("tick " + tick, replay.next());
+                assertEquals(random.nextInt(CARS), replay.getActiveCar());
+                assertBitsEqual(random.nextFloat(), replay.getThrottleInput());
+                assertBitsEqual(random.nextFloat(), replay.getBrakeInput());
+                assertBitsEqual(random.nextFloat() * 2 - 1, replay.getSteeringInput());
+                assertBitsEqual(random.nextInt(2), replay.getHandbrakeInput());
+            }
+            assertFalse(replay.next());
+            assertEquals(TICKS, replay.getReplayedTicks());
+        }
+    }
+
+    @Test
+    public void replayStopsBeforeIncompleteRecord() throws IOException
+    {
+        Path file = folder.newFile("inputs.log").toPath();
+        try(InputRecorder recorder = new InputRecorder(file, INTERVAL))
+        {
+            recorder.record(1, 1, 0, 0.5f, 0);
+            recorder.record(0, 0.25f, 1, -0.5f, 1);
+        }
+        // a recording that was cut off while writing the second record
+        byte[] log = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(log, log.length - 3));
+
+        try(InputReplay replay = new InputReplay(file))
+        {
+            assertTrue(replay.next());
+            assertEquals(1, replay.getActiveCar());
+            assertBitsEqual(0.5f, replay.getSteeringInput());
+            assertFalse(replay.next());
+            assertEquals(1, replay.getReplayedTicks());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void replayRejectsOtherFiles() throws IOException
+    {
+        Path file = folder.newFile("inputs.log").toPath();
+        Files.write(file, new byte[InputLog.HEADER_SIZE + InputLog.RECORD_SIZE]);
+
+        new InputReplay(file).close();
+    }
+
+    private static void assertBitsEqual(float expected, float actual)
+    {
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(actual));
+    }
+}